@@ -0,0 +1,157 @@
+package com.bancodigital.config;
+
+import com.bancodigital.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt executado num pool próprio e limitado, fora das threads do Tomcat.
+ * <p>
+ * No máximo {@code threads} hashes rodam ao mesmo tempo e até
+ * {@code queue-capacity} aguardam na fila; acima disso a chamada é recusada
+ * na hora com 503 e {@code Retry-After}, em vez de esperar. Uma rajada de logins fica assim restrita a
+ * esses núcleos e não consome a CPU dos demais endpoints. A thread da
+ * requisição apenas aguarda o resultado.
+ * <p>
+ * {@link #upgradeEncoding} indica hashes gerados com custo diferente de
+ * {@code strength}, para cima ou para baixo. O {@code DaoAuthenticationProvider}
+ * usa isso para regravar a senha no login, então o custo pode ser ajustado
+ * pelo p99 de {@code banco.security.password.hash} sem invalidar senhas.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    // Um hash leva dezenas de milissegundos: a fila costuma esvaziar em menos de um segundo
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(
+            @Value("${banco.security.bcrypt.strength:10}") int strength,
+            @Value("${banco.security.bcrypt.threads:0}") int threads,
+            @Value("${banco.security.bcrypt.queue-capacity:256}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        // 0: um hash por núcleo disponível
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("banco.security.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Operações de hash de senha aguardando execução")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("banco.security.password.wait")
+                .description("Tempo na fila até o início do hash de senha")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rejectedCounter = Counter.builder("banco.security.password.rejected")
+                .description("Operações de hash de senha recusadas por fila cheia")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int custo = cost(encodedPassword);
+        return custo > 0 && custo != strength;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Timer timer, Callable<T> hash) {
+        long submittedNanos = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startNanos = System.nanoTime();
+                waitTimer.record(startNanos - submittedNanos, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.call();
+                } finally {
+                    timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Muitas requisições de autenticação, tente novamente mais tarde",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de senha interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Formato $2a$10$..., com o custo em dois dígitos; -1 se não for BCrypt
+    static int cost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("banco.security.password.hash")
+                .description("Duração do hash de senha, para calibrar o custo do BCrypt")
+                .tag("op", operation)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -18,6 +18,7 @@ public class CorsConfig {
         config.addAllowedOriginPattern("*"); // Permite qualquer origem (útil para desenvolvimento local)
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("Idempotency-Replayed");
 
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
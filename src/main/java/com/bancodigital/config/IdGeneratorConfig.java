@@ -0,0 +1,25 @@
+package com.bancodigital.config;
+
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import com.bancodigital.model.id.SnowflakeIdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Value("${banco.ids.node-id:0}")
+    private long nodeId;
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        return SnowflakeIdGenerator.forNode(nodeId);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeNodeIdCustomizer() {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.NODE_ID_SETTING, nodeId);
+    }
+}
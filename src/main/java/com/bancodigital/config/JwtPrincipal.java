@@ -0,0 +1,31 @@
+package com.bancodigital.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Usuário autenticado por um token JWT, montado a partir das claims do
+ * próprio token. Tem só o necessário para autorizar a requisição: não carrega
+ * a entidade {@code User} nem a senha.
+ */
+public record JwtPrincipal(Long id, String email, String role) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -1,32 +1,91 @@
 package com.bancodigital.config;
 
+import com.bancodigital.model.User;
+import com.bancodigital.service.cache.BoundedCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Emissão e verificação dos tokens JWT. A chave e o parser são montados uma
+ * vez; as claims de um token já verificado ficam em cache, pelo SHA-256 do
+ * token, até o {@code exp} dele, e chamadas repetidas com o mesmo token não
+ * refazem o parse nem o HMAC.
+ * <p>
+ * Tokens emitidos para um {@link User} levam o id e o papel nas claims
+ * {@value #CLAIM_USER_ID} e {@value #CLAIM_ROLE}, de onde
+ * {@link #principal(Claims)} monta o usuário autenticado sem ir ao banco.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret.key}")
-    private String secretKey;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
 
-    @Value("${jwt.expiration.time}")
-    private long expirationTime;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final long expirationTime;
+    private final boolean cacheEnabled;
+    private final BoundedCache<String, Claims> verifiedClaims;
 
-    // Use SecretKey - corrija os imports!
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtil(
+            @Value("${jwt.secret.key}") String secretKey,
+            @Value("${jwt.expiration.time}") long expirationTime,
+            @Value("${banco.jwt.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${banco.jwt.cache.max-size:10000}") int cacheMaxSize,
+            MeterRegistry meterRegistry) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.expirationTime = expirationTime;
+        this.cacheEnabled = cacheEnabled;
+        // O TTL do cache é só um teto: cada entrada expira no exp do próprio token
+        this.verifiedClaims = new BoundedCache<>(cacheMaxSize, TimeUnit.MILLISECONDS.toNanos(expirationTime));
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * Claims do token com assinatura e expiração verificadas.
+     *
+     * @throws RuntimeException se o token for inválido ou estiver expirado
+     */
+    public Claims parseClaims(String token) {
+        if (!cacheEnabled) {
+            return verify(token);
+        }
+        String chave = hash(token);
+        Claims cached = verifiedClaims.getIfPresent(chave);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = verify(token);
+        long restanteMillis = claims.getExpiration() != null
+                ? claims.getExpiration().getTime() - System.currentTimeMillis()
+                : expirationTime;
+        if (restanteMillis > 0) {
+            verifiedClaims.put(chave, claims, TimeUnit.MILLISECONDS.toNanos(restanteMillis));
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -38,28 +97,27 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
     }
 
-    private Claims extractAllClaims(String token) {
+    private Claims verify(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSignInKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (JwtException ex) {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
             throw new RuntimeException("Token JWT inválido ou expirado", ex);
         }
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = Map.of();
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getId() != null && user.getRole() != null) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -69,12 +127,52 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
+    /**
+     * Usuário autenticado montado só com as claims do token, ou {@code null}
+     * se o token foi emitido sem id e papel.
+     */
+    public JwtPrincipal principal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId, claims.getSubject(), role);
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseClaims(token), userDetails);
+    }
+
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isTokenExpired(claims);
+    }
+
+    // Só o resumo fica em memória, nunca o token que dá acesso à API
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("banco.jwt.cache.gets", verifiedClaims, BoundedCache::hitCount)
+                .description("Tokens JWT verificados pelo cache, sem novo parse")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("banco.jwt.cache.gets", verifiedClaims, BoundedCache::missCount)
+                .description("Tokens JWT verificados pelo cache, sem novo parse")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("banco.jwt.cache.size", verifiedClaims, BoundedCache::size)
+                .description("Tokens JWT verificados em cache")
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,79 @@
+package com.bancodigital.config.datasource;
+
+import com.bancodigital.service.cache.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garante que quem acabou de escrever leia o que escreveu, mesmo com as
+ * leituras indo para réplicas.
+ * <p>
+ * Dentro da requisição, uma transação de escrita fixa as leituras seguintes
+ * no primário. Entre requisições, o usuário que fez uma escrita fica fixado
+ * no primário pelo atraso máximo tolerado das réplicas mais um intervalo da
+ * medição: passado esse tempo, qualquer réplica elegível já tem a escrita.
+ * O registro é local da instância.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final BoundedCache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(
+            @Value("${banco.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+            @Value("${banco.datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs,
+            @Value("${banco.datasource.replica.pinned-users-max:100000}") int maxPinnedUsers) {
+        this.recentWriters = new BoundedCache<>(Math.max(1, maxPinnedUsers),
+                TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxLagMs + checkIntervalMs)));
+    }
+
+    /**
+     * Abre o escopo da requisição do usuário (ou anônima, com {@code null}).
+     */
+    public void begin(String username) {
+        CURRENT.set(new RequestState(username, username != null && recentWriters.getIfPresent(username) != null));
+    }
+
+    /**
+     * Fecha o escopo; se houve escrita, fixa o usuário no primário.
+     */
+    public void end(boolean escreveu) {
+        RequestState state = CURRENT.get();
+        CURRENT.remove();
+        if (state != null && state.username != null && (escreveu || state.wrote)) {
+            recentWriters.put(state.username, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Chamado ao abrir uma conexão de escrita. Fora de uma requisição (jobs)
+     * não tem efeito.
+     */
+    public void markWrite() {
+        RequestState state = CURRENT.get();
+        if (state != null) {
+            state.wrote = true;
+        }
+    }
+
+    public boolean requiresPrimary() {
+        RequestState state = CURRENT.get();
+        return state != null && (state.pinned || state.wrote);
+    }
+
+    private static final class RequestState {
+
+        private final String username;
+        private final boolean pinned;
+        private boolean wrote;
+
+        private RequestState(String username, boolean pinned) {
+            this.username = username;
+            this.pinned = pinned;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.bancodigital.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de leitura, ativadas por {@code banco.datasource.replica.urls}
+ * (lista separada por vírgulas). O primário continua configurado por
+ * {@code spring.datasource.*}; sem réplicas, o DataSource padrão do Spring
+ * Boot é usado como antes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banco.datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry,
+            @Value("${banco.datasource.replica.urls}") List<String> urls,
+            @Value("${banco.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${banco.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${banco.datasource.replica.max-pool-size:10}") int maxPoolSize,
+            @Value("${banco.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+            @Value("${banco.datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            String nome = "replica-" + replicas.size();
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(nome);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maxPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(nome, replica);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites,
+                meterRegistry, maxLagMs, checkIntervalMs);
+        routing.checkReplicas();
+        return routing;
+    }
+
+    /**
+     * DataSource usado por JPA, JdbcTemplate e Flyway. A conexão física só é
+     * obtida no primeiro comando, depois que a transação declarou se é
+     * somente leitura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,213 @@
+package com.bancodigital.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia as transações {@code readOnly} para uma réplica e todo o resto para
+ * o primário. Deve ficar atrás de um {@code LazyConnectionDataSourceProxy},
+ * para que a conexão física só seja escolhida no primeiro comando, quando a
+ * transação já está marcada como somente leitura.
+ * <p>
+ * Uma réplica só recebe leituras enquanto o último atraso medido estiver
+ * dentro da tolerância e a medição for recente. Sem réplica elegível, ou com
+ * a requisição fixada por {@link ReadYourWrites}, a leitura vai ao primário.
+ * Transações somente leitura com o nome {@link #PRIMARY_READ} também vão ao
+ * primário, sem contar como escrita para o {@link ReadYourWrites}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Nome de transação para leituras que não aceitam atraso, como as cargas
+     * de caches que só são invalidados após o commit no primário.
+     */
+    public static final String PRIMARY_READ = "banco.primary-read";
+    private static final long UNKNOWN = -1;
+
+    // Em um standby sem nada a reaplicar o atraso é zero, mesmo sem commits recentes no primário
+    private static final String LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT), 0)
+                   END
+            """;
+
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final long maxLagMillis;
+    private final long staleAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbackReadYourWrites;
+    private final Counter fallbackNoReplica;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                                    MeterRegistry meterRegistry, long maxLagMillis, long checkIntervalMillis) {
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLagMillis;
+        // Três medições perdidas seguidas tiram a réplica de circulação
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(3 * Math.max(1, checkIntervalMillis));
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryConnections = connections(meterRegistry, "primary");
+        this.replicaConnections = connections(meterRegistry, "replica");
+        this.fallbackReadYourWrites = fallbacks(meterRegistry, "read-your-writes");
+        this.fallbackNoReplica = fallbacks(meterRegistry, "no-replica");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("banco.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .description("Último atraso medido da réplica em ms (-1 quando indisponível)")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.markWrite();
+            }
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        if (PRIMARY_READ.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        if (readYourWrites.requiresPrimary()) {
+            fallbackReadYourWrites.increment();
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        Replica replica = pickReplica();
+        if (replica == null) {
+            fallbackNoReplica.increment();
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        return replica.name;
+    }
+
+    /**
+     * Mede o atraso de cada réplica. Até a primeira medição bem-sucedida a
+     * réplica não recebe leituras.
+     */
+    @Scheduled(fixedDelayString = "${banco.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                recordLag(replica.name, rs.getLong(1));
+            } catch (SQLException ex) {
+                if (replica.lagMillis != UNKNOWN) {
+                    logger.warn("Réplica {} indisponível, leituras vão para o primário: {}", replica.name, ex.getMessage());
+                }
+                replica.lagMillis = UNKNOWN;
+            }
+        }
+    }
+
+    void recordLag(String name, long lagMillis) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                boolean estavaElegivel = replica.lagMillis != UNKNOWN && replica.lagMillis <= maxLagMillis;
+                replica.lagMillis = lagMillis;
+                replica.checkedAt = System.nanoTime();
+                if (estavaElegivel && lagMillis > maxLagMillis) {
+                    logger.warn("Réplica {} com atraso de {} ms, acima da tolerância de {} ms",
+                            name, lagMillis, maxLagMillis);
+                }
+            }
+        }
+    }
+
+    // Rodízio entre as réplicas elegíveis
+    private Replica pickReplica() {
+        int total = replicas.size();
+        int inicio = Math.floorMod(next.getAndIncrement(), Math.max(1, total));
+        long agora = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            long lag = replica.lagMillis;
+            if (lag != UNKNOWN && lag <= maxLagMillis && agora - replica.checkedAt <= staleAfterNanos) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fecha os pools das réplicas, que não são beans próprios.
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    logger.warn("Falha ao fechar o pool da réplica {}: {}", replica.name, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("banco.datasource.connections")
+                .description("Conexões abertas por destino do roteamento")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static Counter fallbacks(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("banco.datasource.replica.fallbacks")
+                .description("Leituras somente leitura enviadas ao primário")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis = UNKNOWN;
+        private volatile long checkedAt;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.bancodigital.controller;
 
 import com.bancodigital.dto.request.AccountRequestDTO;
 import com.bancodigital.dto.response.AccountResponseDTO;
+import com.bancodigital.dto.response.AccountSummaryResponseDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
 import com.bancodigital.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,10 +16,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -48,17 +53,23 @@ public class AccountController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Buscar conta por ID",
-            description = "Retorna os detalhes de uma conta bancária específica"
+            description = "Retorna os detalhes de uma conta bancária específica. A resposta traz um ETag; " +
+                    "envie-o em If-None-Match para receber 304 sem corpo enquanto a conta não mudar"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Conta encontrada"),
+            @ApiResponse(responseCode = "304", description = "Conta inalterada desde o ETag enviado em If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
             @ApiResponse(responseCode = "401", description = "Não autenticado")
     })
     public ResponseEntity<AccountResponseDTO> getAccountById(
             @Parameter(description = "ID da conta bancária", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         AccountResponseDTO response = accountService.getAccountById(id);
+        if (request.checkNotModified(ETags.of(response))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(response);
     }
 
@@ -98,6 +109,27 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/paginated", params = "cursor")
+    @Operation(
+            summary = "Listar contas por cursor",
+            description = "Paginação por cursor, em ordem de criação, com custo constante em qualquer profundidade. " +
+                    "Envie cursor vazio na primeira página e o valor de 'next' nas seguintes. " +
+                    "Exemplo: /api/accounts/paginated?cursor=&size=50"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de contas retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<CursorPageResponseDTO<AccountResponseDTO>> getAllAccountsByCursor(
+            @Parameter(description = "Cursor opaco retornado em 'next' (vazio para a primeira página)")
+            @RequestParam String cursor,
+            @Parameter(description = "Quantidade de itens por página")
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPageResponseDTO<AccountResponseDTO> response = accountService.getAllAccountsByCursor(cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(
             summary = "Listar contas por usuário",
@@ -115,6 +147,30 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/summary")
+    @Operation(
+            summary = "Resumo da movimentação da conta",
+            description = "Retorna quantidade e soma por categoria (depósitos, saques, transferências enviadas e " +
+                    "recebidas, tarifas) no período informado (datas inclusivas). Débitos têm valor negativo. " +
+                    "Exemplo: /api/accounts/1/summary?from=2025-01-01&to=2025-01-31"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumo retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Período inválido"),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<AccountSummaryResponseDTO> getAccountSummary(
+            @Parameter(description = "ID da conta bancária", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Data inicial (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Data final (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AccountSummaryResponseDTO response = accountService.getAccountSummary(id, from, to);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Atualizar conta bancária",
@@ -134,6 +190,27 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{id}/sub-saldos")
+    @Operation(
+            summary = "Configurar sub-saldos da conta",
+            description = "Divide o saldo de uma conta com alto volume de créditos em N sub-saldos, " +
+                    "eliminando a disputa entre depósitos simultâneos. Use slots=0 para desativar"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sub-saldos configurados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de sub-saldos inválida"),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<AccountResponseDTO> configureBalanceSlots(
+            @Parameter(description = "ID da conta bancária", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Quantidade de sub-saldos (0 desativa)", required = true)
+            @RequestParam int slots) {
+        AccountResponseDTO response = accountService.configureBalanceSlots(id, slots);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Deletar conta bancária",
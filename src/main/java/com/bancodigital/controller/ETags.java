@@ -0,0 +1,42 @@
+package com.bancodigital.controller;
+
+import com.bancodigital.dto.response.AccountResponseDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+/**
+ * ETags fortes das respostas com GET condicional. O valor é um resumo
+ * (SHA-256 truncado em 128 bits) da versão do recurso, para não expor saldos
+ * nem dados do titular no cabeçalho.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * ETag da conta a partir da própria resposta, que já vem do cache de
+     * contas: cobre também sub-saldos, o saldo do ledger em memória e o nome
+     * do titular, que não alteram a {@code version} da conta.
+     */
+    static String of(AccountResponseDTO conta) {
+        return of(conta.getId(), conta.getNumeroConta(), conta.getAgencia(),
+                conta.getSaldo() != null ? conta.getSaldo().toPlainString() : null,
+                conta.getUserId(), conta.getNomeUsuario(), conta.getCreatedAt());
+    }
+
+    static String of(Object... partes) {
+        String canonical = Arrays.stream(partes).map(String::valueOf).collect(Collectors.joining("|"));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.bancodigital.controller;
 
 import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
+import com.bancodigital.dto.response.TransactionBatchResponseDTO;
+import com.bancodigital.dto.response.TransactionOperationResponseDTO;
 import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.model.enums.BatchMode;
+import com.bancodigital.model.enums.ExportFormat;
 import com.bancodigital.service.TransactionService;
+import com.bancodigital.service.async.AsyncTransactionProcessor;
+import com.bancodigital.service.idempotency.IdempotencyManager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,14 +21,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -26,13 +49,25 @@ import java.util.List;
 @Tag(name = "Transações", description = "Gerenciamento de transações financeiras (depósito, saque e transferência)")
 public class TransactionController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String TEXT_CSV_VALUE = "text/csv;charset=UTF-8";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENCY_REPLAYED_HEADER = "Idempotency-Replayed";
+
     private final TransactionService transactionService;
+    private final IdempotencyManager idempotencyManager;
+    private final AsyncTransactionProcessor asyncTransactionProcessor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${banco.transactions.batch.max-size:5000}")
+    private int maxBatchSize = 5000;
 
     @PostMapping
     @Operation(
             summary = "Criar nova transação",
             description = "Realiza uma nova transação financeira: DEPOSITO, SAQUE ou TRANSFERENCIA. " +
-                    "Para transferências, é obrigatório informar o accountDestinoId"
+                    "Para transferências, é obrigatório informar o accountDestinoId. " +
+                    "Com o header Idempotency-Key, reenvios da mesma requisição devolvem a transação original"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Transação realizada com sucesso"),
@@ -41,9 +76,92 @@ public class TransactionController {
             @ApiResponse(responseCode = "401", description = "Não autenticado")
     })
     public ResponseEntity<TransactionResponseDTO> createTransaction(
-            @Valid @RequestBody TransactionRequestDTO transactionRequestDTO) {
-        TransactionResponseDTO response = transactionService.createTransaction(transactionRequestDTO);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+            @Valid @RequestBody TransactionRequestDTO transactionRequestDTO,
+            @Parameter(description = "Chave única por operação, para reenvios seguros")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Principal principal) {
+        if (idempotencyKey == null) {
+            TransactionResponseDTO response = transactionService.createTransaction(transactionRequestDTO);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        }
+
+        IdempotencyManager.Result result = idempotencyManager.execute(principal.getName(), idempotencyKey,
+                transactionRequestDTO, () -> transactionService.createTransaction(transactionRequestDTO));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENCY_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    @PostMapping(params = "async=true")
+    @Operation(
+            summary = "Criar nova transação de forma assíncrona",
+            description = "Valida e enfileira a transação, respondendo imediatamente com o ID da operação. " +
+                    "Operações da mesma conta são executadas na ordem de chegada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Transação aceita para processamento"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "404", description = "Conta origem ou destino não encontrada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "503", description = "Fila cheia ou aplicação em encerramento (ver Retry-After)")
+    })
+    public ResponseEntity<TransactionOperationResponseDTO> createTransactionAsync(
+            @Valid @RequestBody TransactionRequestDTO transactionRequestDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            throw new BusinessException("Idempotency-Key não é suportado em transações assíncronas");
+        }
+        TransactionOperationResponseDTO response = asyncTransactionProcessor.submit(transactionRequestDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/operations/" + response.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/operations/{id}")
+    @Operation(
+            summary = "Consultar operação assíncrona",
+            description = "Retorna o status de uma transação enviada com async=true e, quando concluída, a transação criada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação encontrada"),
+            @ApiResponse(responseCode = "404", description = "Operação não encontrada ou expirada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<TransactionOperationResponseDTO> getOperation(
+            @Parameter(description = "ID da operação", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(asyncTransactionProcessor.getOperation(id));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Criar transações em lote",
+            description = "Processa um array de transações em uma única operação. " +
+                    "No modo ALL_OR_NOTHING qualquer rejeição cancela o lote inteiro; " +
+                    "no modo BEST_EFFORT apenas as transações válidas são gravadas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Lote processado, com resultado por transação"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite ou nenhuma transação gravada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<TransactionBatchResponseDTO> createTransactionsBatch(
+            @RequestBody List<TransactionRequestDTO> requests,
+            @Parameter(description = "Modo de processamento do lote")
+            @RequestParam(defaultValue = "ALL_OR_NOTHING") BatchMode mode) {
+        return toBatchResponse(transactionService.createTransactionsBatch(requests, mode));
+    }
+
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Criar transações em lote (NDJSON)",
+            description = "Mesmo comportamento do lote em JSON, recebendo uma transação por linha"
+    )
+    public ResponseEntity<TransactionBatchResponseDTO> createTransactionsBatchNdjson(
+            InputStream body,
+            @Parameter(description = "Modo de processamento do lote")
+            @RequestParam(defaultValue = "ALL_OR_NOTHING") BatchMode mode) throws IOException {
+        return toBatchResponse(transactionService.createTransactionsBatch(readNdjson(body), mode));
     }
 
     @GetMapping("/{id}")
@@ -92,28 +210,137 @@ public class TransactionController {
             @Parameter(description = "Quantidade de itens por página")
             @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Campo para ordenação")
-            @RequestParam(defaultValue = "createdAt") String sort) {
+            @RequestParam(defaultValue = "id") String sort) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).descending());
         Page<TransactionResponseDTO> response = transactionService.getAllTransactionsPaginated(pageable);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/paginated", params = "cursor")
+    @Operation(
+            summary = "Listar transações por cursor",
+            description = "Paginação por cursor, da mais recente para a mais antiga, com custo constante em qualquer " +
+                    "profundidade. Envie cursor vazio na primeira página e o valor de 'next' nas seguintes. " +
+                    "Exemplo: /api/transactions/paginated?cursor=&size=50"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de transações retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<CursorPageResponseDTO<TransactionResponseDTO>> getAllTransactionsByCursor(
+            @Parameter(description = "Cursor opaco retornado em 'next' (vazio para a primeira página)")
+            @RequestParam String cursor,
+            @Parameter(description = "Quantidade de itens por página")
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPageResponseDTO<TransactionResponseDTO> response = transactionService.getAllTransactionsByCursor(cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/account/{accountId}")
     @Operation(
             summary = "Consultar extrato da conta",
             description = "Retorna todas as transações (depósitos, saques e transferências) de uma conta específica, " +
-                    "ordenadas da mais recente para a mais antiga"
+                    "ordenadas da mais recente para a mais antiga. A resposta traz um ETag; envie-o em " +
+                    "If-None-Match para receber 304 sem corpo enquanto não houver lançamento novo"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Extrato retornado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Extrato inalterado desde o ETag enviado em If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
             @ApiResponse(responseCode = "401", description = "Não autenticado")
     })
     public ResponseEntity<List<TransactionResponseDTO>> getTransactionsByAccountId(
             @Parameter(description = "ID da conta bancária", required = true)
-            @PathVariable Long accountId) {
-        List<TransactionResponseDTO> response = transactionService.getTransactionsByAccountId(accountId);
+            @PathVariable Long accountId,
+            WebRequest request) {
+        return transactionService.getTransactionsByAccountIdIfModified(accountId,
+                        versao -> request.checkNotModified(ETags.of(versao)))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+    }
+
+    @GetMapping(value = "/account/{accountId}", params = "cursor")
+    @Operation(
+            summary = "Consultar extrato da conta por cursor",
+            description = "Retorna o extrato em páginas, da transação mais recente para a mais antiga, sem OFFSET. " +
+                    "Envie cursor vazio na primeira página e o valor de 'next' nas seguintes. " +
+                    "Exemplo: /api/transactions/account/1?cursor=&size=50"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página do extrato retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<CursorPageResponseDTO<TransactionResponseDTO>> getTransactionsByAccountIdByCursor(
+            @Parameter(description = "ID da conta bancária", required = true)
+            @PathVariable Long accountId,
+            @Parameter(description = "Cursor opaco retornado em 'next' (vazio para a primeira página)")
+            @RequestParam String cursor,
+            @Parameter(description = "Quantidade de itens por página")
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPageResponseDTO<TransactionResponseDTO> response =
+                transactionService.getTransactionsByAccountIdByCursor(accountId, cursor, size);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/account/{accountId}/export")
+    @Operation(
+            summary = "Exportar extrato da conta",
+            description = "Exporta as transações da conta no período informado (datas inclusivas), em NDJSON ou CSV, " +
+                    "em ordem cronológica. As linhas são enviadas à medida que são lidas do banco. " +
+                    "Exemplo: /api/transactions/account/1/export?from=2025-01-01&to=2025-12-31&formato=CSV"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extrato exportado"),
+            @ApiResponse(responseCode = "400", description = "Período inválido"),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @Parameter(description = "ID da conta bancária", required = true)
+            @PathVariable Long accountId,
+            @Parameter(description = "Data inicial (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Data final (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Formato do arquivo: NDJSON ou CSV")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat formato) {
+        // Validado antes de começar a escrever: depois disso o status 200 já foi enviado
+        transactionService.validateStatementExport(accountId, from, to);
+
+        StreamingResponseBody body = output -> transactionService.exportStatement(accountId, from, to, formato, output);
+        boolean csv = formato == ExportFormat.CSV;
+        String extensao = csv ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? TEXT_CSV_VALUE : APPLICATION_NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"extrato-" + accountId + "-" + from
+                        + "-" + to + "." + extensao + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<TransactionBatchResponseDTO> toBatchResponse(TransactionBatchResponseDTO response) {
+        HttpStatus status = response.getProcessadas() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(response, status);
+    }
+
+    private List<TransactionRequestDTO> readNdjson(InputStream body) throws IOException {
+        List<TransactionRequestDTO> requests = new ArrayList<>();
+        try (MappingIterator<TransactionRequestDTO> iterator =
+                     objectMapper.readerFor(TransactionRequestDTO.class).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                // Recusa ao passar do limite, sem ler o resto do corpo
+                if (requests.size() == maxBatchSize) {
+                    throw new BusinessException("Lote excede o limite de " + maxBatchSize + " transações");
+                }
+                requests.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException ex) {
+            int linha = ex.getLocation() != null ? ex.getLocation().getLineNr() : requests.size() + 1;
+            throw new BusinessException("NDJSON inválido na linha " + linha);
+        }
+        return requests;
+    }
 }
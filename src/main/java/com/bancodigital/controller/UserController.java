@@ -95,6 +95,27 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search")
+    @Operation(
+            summary = "Buscar usuários por nome, email ou CPF",
+            description = "Busca por parte do nome, do email ou do CPF (com ou sem pontuação), sem diferenciar " +
+                    "maiúsculas nem acentos. Vários termos devem aparecer todos. Os resultados vêm dos mais " +
+                    "relevantes para os menos: igualdade, prefixo e trecho. Exemplo: /api/users/search?q=silva&limit=20"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuários encontrados"),
+            @ApiResponse(responseCode = "400", description = "Busca com menos de 2 caracteres"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado")
+    })
+    public ResponseEntity<List<UserResponseDTO>> searchUsers(
+            @Parameter(description = "Trecho do nome, do email ou do CPF", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Quantidade máxima de resultados")
+            @RequestParam(defaultValue = "20") int limit) {
+        List<UserResponseDTO> response = userService.searchUsers(query, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Atualizar usuário",
@@ -3,6 +3,7 @@ package com.bancodigital.dto.request;
 import com.bancodigital.model.enums.TransactionType;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,6 +22,7 @@ public class TransactionRequestDTO {
     @DecimalMin(value = "0.01", message = "Valor deve ser maior que zero")
     private BigDecimal valor;
 
+    @Size(max = 500, message = "Descrição deve ter no máximo 500 caracteres")
     private String descricao;
 
     @NotNull(message = "ID da conta é obrigatório")
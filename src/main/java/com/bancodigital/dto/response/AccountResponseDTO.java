@@ -1,5 +1,8 @@
 package com.bancodigital.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +15,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AccountResponseDTO {
 
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(type = "string")
     private Long id;
     private String numeroConta;
     private String agencia;
@@ -0,0 +1,18 @@
+package com.bancodigital.dto.response;
+
+import com.bancodigital.model.enums.MovementCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummaryItemDTO {
+
+    private MovementCategory categoria;
+    private Long quantidade;
+    private BigDecimal valor;
+}
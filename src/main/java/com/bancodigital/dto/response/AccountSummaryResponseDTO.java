@@ -0,0 +1,24 @@
+package com.bancodigital.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummaryResponseDTO {
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(type = "string")
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<AccountSummaryItemDTO> itens;
+}
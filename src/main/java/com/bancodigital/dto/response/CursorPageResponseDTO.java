@@ -0,0 +1,17 @@
+package com.bancodigital.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+
+    private List<T> itens;
+    // Cursor opaco da próxima página; nulo quando não há mais itens
+    private String next;
+}
@@ -0,0 +1,17 @@
+package com.bancodigital.dto.response;
+
+import com.bancodigital.model.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItemResultDTO {
+
+    private Integer indice;
+    private BatchItemStatus status;
+    private TransactionResponseDTO transacao;
+    private String mensagem;
+}
@@ -0,0 +1,20 @@
+package com.bancodigital.dto.response;
+
+import com.bancodigital.model.enums.BatchMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchResponseDTO {
+
+    private BatchMode modo;
+    private Integer total;
+    private Integer processadas;
+    private Integer rejeitadas;
+    private List<TransactionBatchItemResultDTO> resultados;
+}
@@ -0,0 +1,26 @@
+package com.bancodigital.dto.response;
+
+import com.bancodigital.model.enums.OperationStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionOperationResponseDTO {
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(type = "string")
+    private Long id;
+    private OperationStatus status;
+    private TransactionResponseDTO transacao;
+    private String mensagem;
+    private LocalDateTime criadaEm;
+    private LocalDateTime concluidaEm;
+}
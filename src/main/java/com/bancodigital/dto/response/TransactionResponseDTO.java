@@ -1,6 +1,9 @@
 package com.bancodigital.dto.response;
 
 import com.bancodigital.model.enums.TransactionType;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,12 +16,19 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class TransactionResponseDTO {
 
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(type = "string")
     private Long id;
     private TransactionType tipo;
     private BigDecimal valor;
     private String descricao;
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(type = "string")
     private Long accountId;
     private String numeroConta;
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(type = "string")
     private Long accountDestinoId;
     private LocalDateTime createdAt;
+    private BigDecimal tarifa;
 }
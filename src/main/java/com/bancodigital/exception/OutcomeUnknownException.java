@@ -0,0 +1,12 @@
+package com.bancodigital.exception;
+
+/**
+ * A operação pode ter sido registrada ou não: o cliente deve consultar o
+ * extrato antes de repetir, em vez de tratar como falha.
+ */
+public class OutcomeUnknownException extends RuntimeException {
+
+    public OutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.bancodigital.exception;
+
+/**
+ * Recusa por sobrecarga: a requisição não foi processada e pode ser repetida
+ * depois de {@code retryAfterSeconds} (cabeçalho {@code Retry-After}).
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
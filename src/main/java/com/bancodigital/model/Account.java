@@ -1,11 +1,13 @@
 package com.bancodigital.model;
 
+import com.bancodigital.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -14,14 +16,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tb_accounts")
+@Table(
+        name = "tb_accounts",
+        indexes = @Index(name = "idx_accounts_created_id", columnList = "created_at, id")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @NotNull(message = "Número da conta é obrigatório")
@@ -46,4 +51,14 @@ public class Account {
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    // Quantidade de sub-saldos para contas com alto volume de créditos (0 = desativado)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer slotsSaldo = 0;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
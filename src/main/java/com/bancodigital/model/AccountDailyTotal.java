@@ -0,0 +1,30 @@
+package com.bancodigital.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de um dia fechado por conta e categoria, somados a partir das
+ * postings. O valor segue o sinal das pernas: débitos negativos, créditos
+ * positivos.
+ */
+@Entity
+@Table(name = "tb_account_daily_totals", indexes = @Index(name = "idx_account_daily_totals_dia", columnList = "dia"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountDailyTotal {
+
+    @EmbeddedId
+    private AccountDailyTotalId id;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal valor;
+}
@@ -0,0 +1,39 @@
+package com.bancodigital.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta gravada para um {@code Idempotency-Key}, devolvida quando o
+ * cliente reenvia a mesma requisição. A chave vale por usuário: a mesma
+ * chave enviada por usuários diferentes identifica operações diferentes.
+ */
+@Entity
+@Table(name = "tb_idempotency_keys", indexes = @Index(name = "idx_idempotency_expira_em", columnList = "expira_em"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @EmbeddedId
+    private IdempotencyKeyId id;
+
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false, length = 4000)
+    private String resposta;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,22 @@
+package com.bancodigital.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKeyId implements Serializable {
+
+    @Column(nullable = false)
+    private String usuario;
+
+    @Column(length = 100)
+    private String chave;
+}
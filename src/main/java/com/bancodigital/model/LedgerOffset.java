@@ -0,0 +1,28 @@
+package com.bancodigital.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posição do journal do ledger já projetada no banco. Gravada na mesma
+ * transação que os lançamentos projetados.
+ */
+@Entity
+@Table(name = "tb_ledger_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerOffset {
+
+    @Id
+    @Column(length = 50)
+    private String nome;
+
+    @Column(name = "segmento", nullable = false)
+    private Long segmento;
+
+    @Column(name = "posicao", nullable = false)
+    private Integer posicao;
+}
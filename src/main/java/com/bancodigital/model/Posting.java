@@ -0,0 +1,87 @@
+package com.bancodigital.model;
+
+import com.bancodigital.model.enums.PostingType;
+import com.bancodigital.model.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Perna de um lançamento em partidas dobradas. Cada {@link Transaction} é o
+ * cabeçalho do lançamento e tem uma posting por conta movimentada, com valor
+ * positivo para crédito e negativo para débito; a soma das pernas de uma
+ * transferência é sempre zero.
+ */
+@Entity
+@Table(
+        name = "tb_postings",
+        indexes = @Index(name = "idx_postings_account_created", columnList = "account_id, created_at, transaction_id, valor")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Posting {
+
+    @EmbeddedId
+    private PostingId id;
+
+    @MapsId("transactionId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id")
+    private Transaction transaction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private PostingType natureza;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    // Cópia da data do lançamento: permite paginar o extrato só pelo índice da conta
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Monta as pernas de um lançamento já com id e data. A tarifa, quando houver,
+     * gera um débito extra na origem e o crédito correspondente na conta de
+     * tarifas.
+     */
+    public static List<Posting> legsOf(Transaction transaction, Long contaTarifasId) {
+        List<Posting> legs = new ArrayList<>(4);
+        Long origem = transaction.getAccount().getId();
+        BigDecimal valor = transaction.getValor();
+
+        switch (transaction.getTipo()) {
+            case DEPOSITO -> legs.add(leg(transaction, legs.size(), origem, PostingType.PRINCIPAL, valor));
+            case SAQUE -> legs.add(leg(transaction, legs.size(), origem, PostingType.PRINCIPAL, valor.negate()));
+            case TRANSFERENCIA -> {
+                legs.add(leg(transaction, legs.size(), origem, PostingType.PRINCIPAL, valor.negate()));
+                legs.add(leg(transaction, legs.size(), transaction.getAccountDestinoId(), PostingType.PRINCIPAL, valor));
+            }
+        }
+
+        if (transaction.getTarifa() != null && transaction.getTipo() == TransactionType.TRANSFERENCIA) {
+            legs.add(leg(transaction, legs.size(), origem, PostingType.TARIFA, transaction.getTarifa().negate()));
+            legs.add(leg(transaction, legs.size(), contaTarifasId, PostingType.TARIFA, transaction.getTarifa()));
+        }
+        return legs;
+    }
+
+    private static Posting leg(Transaction transaction, int perna, Long accountId, PostingType natureza,
+                               BigDecimal valor) {
+        Account account = new Account();
+        account.setId(accountId);
+        return new Posting(new PostingId(transaction.getId(), (short) perna), transaction, account, natureza, valor,
+                transaction.getCreatedAt());
+    }
+}
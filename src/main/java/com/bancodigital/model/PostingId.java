@@ -0,0 +1,22 @@
+package com.bancodigital.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingId implements Serializable {
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private Short perna;
+}
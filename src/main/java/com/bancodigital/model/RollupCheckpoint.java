@@ -0,0 +1,27 @@
+package com.bancodigital.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Último dia já consolidado em um rollup. Gravado na mesma transação que os
+ * totais do dia.
+ */
+@Entity
+@Table(name = "tb_rollup_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String nome;
+
+    @Column(name = "ultimo_dia", nullable = false)
+    private LocalDate ultimoDia;
+}
@@ -1,6 +1,7 @@
 package com.bancodigital.model;
 
 import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -13,14 +14,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tb_transactions")
+@Table(
+        name = "tb_transactions",
+        indexes = @Index(name = "idx_transactions_created_id", columnList = "created_at, id")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -43,6 +47,9 @@ public class Transaction {
     @Column(name = "account_destino_id")
     private Long accountDestinoId;
 
+    @Column(precision = 15, scale = 2)
+    private BigDecimal tarifa;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
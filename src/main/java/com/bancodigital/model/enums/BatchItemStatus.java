@@ -0,0 +1,9 @@
+package com.bancodigital.model.enums;
+
+public enum BatchItemStatus {
+    PROCESSADA,
+    REJEITADA,
+    CANCELADA,
+    // Pode ter sido registrada: consulte o extrato antes de reenviar
+    INDETERMINADA
+}
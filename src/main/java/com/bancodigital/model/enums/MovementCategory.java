@@ -0,0 +1,14 @@
+package com.bancodigital.model.enums;
+
+/**
+ * Categoria de uma perna do lançamento no resumo da conta. Transferências e
+ * tarifas separam o lado que paga do lado que recebe.
+ */
+public enum MovementCategory {
+    DEPOSITO,
+    SAQUE,
+    TRANSFERENCIA_ENVIADA,
+    TRANSFERENCIA_RECEBIDA,
+    TARIFA,
+    TARIFA_RECEBIDA
+}
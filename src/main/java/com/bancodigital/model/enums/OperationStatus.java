@@ -0,0 +1,10 @@
+package com.bancodigital.model.enums;
+
+public enum OperationStatus {
+    PENDENTE,
+    PROCESSANDO,
+    CONCLUIDA,
+    FALHOU,
+    // Pode ter sido registrada: consulte o extrato antes de reenviar
+    INDETERMINADA
+}
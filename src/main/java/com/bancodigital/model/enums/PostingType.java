@@ -0,0 +1,6 @@
+package com.bancodigital.model.enums;
+
+public enum PostingType {
+    PRINCIPAL,
+    TARIFA
+}
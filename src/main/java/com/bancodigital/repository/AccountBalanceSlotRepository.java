@@ -0,0 +1,33 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.AccountBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.account.id = :accountId order by s.slot")
+    List<AccountBalanceSlot> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    @Query("select coalesce(sum(s.saldo), 0) from AccountBalanceSlot s where s.account.id = :accountId")
+    BigDecimal sumSaldoByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("update AccountBalanceSlot s set s.saldo = s.saldo + :valor " +
+            "where s.account.id = :accountId and s.slot = :slot")
+    int credit(@Param("accountId") Long accountId, @Param("slot") int slot, @Param("valor") BigDecimal valor);
+
+    @Modifying
+    @Query("delete from AccountBalanceSlot s where s.account.id = :accountId and s.slot >= :slot")
+    void deleteByAccountIdFromSlot(@Param("accountId") Long accountId, @Param("slot") int slot);
+}
@@ -1,18 +1,63 @@
 package com.bancodigital.repository;
 
+import com.bancodigital.dto.response.AccountResponseDTO;
 import com.bancodigital.model.Account;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
+    // Projeção direta na resposta, com o usuário e a soma dos sub-saldos no mesmo SELECT
+    String RESPONSE_SELECT = "select new com.bancodigital.dto.response.AccountResponseDTO(" +
+            "a.id, a.numeroConta, a.agencia, " +
+            "case when a.slotsSaldo > 0 then a.saldo + coalesce(" +
+            "(select sum(s.saldo) from AccountBalanceSlot s where s.account.id = a.id), 0) else a.saldo end, " +
+            "u.id, u.nome, a.createdAt) ";
+
     Optional<Account> findByNumeroConta(String numeroConta);
 
     List<Account> findByUserId(Long userId);
 
     boolean existsByNumeroConta(String numeroConta);
+
+    @Query("select a.id from Account a where a.slotsSaldo > 0")
+    List<Long> findShardedAccountIds();
+
+    @Query(RESPONSE_SELECT + "from Account a join a.user u where a.id = :id")
+    Optional<AccountResponseDTO> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "from Account a join a.user u")
+    List<AccountResponseDTO> findAllResponses();
+
+    @Query(value = RESPONSE_SELECT + "from Account a join a.user u",
+            countQuery = "select count(a) from Account a")
+    Page<AccountResponseDTO> findAllResponses(Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "from Account a join a.user u where u.id = :userId")
+    List<AccountResponseDTO> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(RESPONSE_SELECT + "from Account a join a.user u order by a.createdAt, a.id")
+    List<AccountResponseDTO> findPage(Limit limit);
+
+    @Query(RESPONSE_SELECT + "from Account a join a.user u " +
+            "where a.createdAt > :createdAt or (a.createdAt = :createdAt and a.id > :id) " +
+            "order by a.createdAt, a.id")
+    List<AccountResponseDTO> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                           Limit limit);
+
+    @Modifying
+    @Query("update Account a set a.saldo = a.saldo + :valor, a.version = a.version + 1 where a.id = :id")
+    int creditarSaldo(@Param("id") Long id, @Param("valor") BigDecimal valor);
 }
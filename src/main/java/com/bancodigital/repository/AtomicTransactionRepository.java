@@ -0,0 +1,129 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Executa cada transação em um único comando SQL (PostgreSQL), sem ler a
+ * conta antes.
+ * <p>
+ * Os débitos são {@code UPDATE}s condicionais ({@code saldo >= valor}) e o
+ * lançamento e suas postings são inseridos por CTEs que só produzem linhas
+ * quando a atualização ocorreu. Um resultado vazio significa que nada foi alterado:
+ * conta inexistente ou saldo insuficiente. Nas transferências, as duas contas
+ * são travadas em ordem de id antes do débito, o que evita deadlock entre
+ * transferências em sentidos opostos.
+ */
+@Repository
+public class AtomicTransactionRepository {
+
+    private static final String CREDIT_SQL = """
+            WITH credito AS (
+                UPDATE tb_accounts SET saldo = saldo + :valor, version = version + 1
+                WHERE id = :conta
+                RETURNING id, numero_conta
+            ), lancamento AS (
+                INSERT INTO tb_transactions (id, tipo, valor, descricao, account_id, account_destino_id, created_at)
+                SELECT :transacao, :tipo, :valor, :descricao, id, CAST(NULL AS BIGINT), :agora FROM credito
+            ), pernas AS (
+                INSERT INTO tb_postings (transaction_id, perna, account_id, natureza, valor, created_at)
+                SELECT :transacao, 0, id, 'PRINCIPAL', :valor, :agora FROM credito
+            )
+            SELECT numero_conta FROM credito
+            """;
+
+    private static final String DEBIT_SQL = """
+            WITH debito AS (
+                UPDATE tb_accounts SET saldo = saldo - :valor, version = version + 1
+                WHERE id = :conta AND saldo >= :valor
+                RETURNING id, numero_conta
+            ), lancamento AS (
+                INSERT INTO tb_transactions (id, tipo, valor, descricao, account_id, account_destino_id, created_at)
+                SELECT :transacao, :tipo, :valor, :descricao, id, CAST(NULL AS BIGINT), :agora FROM debito
+            ), pernas AS (
+                INSERT INTO tb_postings (transaction_id, perna, account_id, natureza, valor, created_at)
+                SELECT :transacao, 0, id, 'PRINCIPAL', -:valor, :agora FROM debito
+            )
+            SELECT numero_conta FROM debito
+            """;
+
+    private static final String TRANSFER_SQL = """
+            WITH travadas AS (
+                SELECT id FROM tb_accounts WHERE id IN (:conta, :destino) ORDER BY id FOR UPDATE
+            ), debito AS (
+                UPDATE tb_accounts SET saldo = saldo - :valor, version = version + 1
+                WHERE id = :conta AND saldo >= :valor AND (SELECT count(*) FROM travadas) = 2
+                RETURNING id, numero_conta
+            ), credito AS (
+                UPDATE tb_accounts SET saldo = saldo + :valor, version = version + 1
+                WHERE id = :destino AND EXISTS (SELECT 1 FROM debito)
+                RETURNING id
+            ), lancamento AS (
+                INSERT INTO tb_transactions (id, tipo, valor, descricao, account_id, account_destino_id, created_at)
+                SELECT :transacao, 'TRANSFERENCIA', :valor, :descricao, d.id, c.id, :agora
+                FROM debito d CROSS JOIN credito c
+            ), pernas AS (
+                INSERT INTO tb_postings (transaction_id, perna, account_id, natureza, valor, created_at)
+                SELECT :transacao, 0, d.id, 'PRINCIPAL', -:valor, :agora FROM debito d CROSS JOIN credito c
+                UNION ALL
+                SELECT :transacao, 1, c.id, 'PRINCIPAL', :valor, :agora FROM debito d CROSS JOIN credito c
+            )
+            SELECT d.numero_conta FROM debito d CROSS JOIN credito c
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    public AtomicTransactionRepository(NamedParameterJdbcTemplate jdbcTemplate, SnowflakeIdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    public Optional<Resultado> depositar(Long accountId, BigDecimal valor, String descricao) {
+        return execute(CREDIT_SQL, parametros(TransactionType.DEPOSITO, accountId, valor, descricao));
+    }
+
+    public Optional<Resultado> sacar(Long accountId, BigDecimal valor, String descricao) {
+        return execute(DEBIT_SQL, parametros(TransactionType.SAQUE, accountId, valor, descricao));
+    }
+
+    public Optional<Resultado> transferir(Long accountId, Long accountDestinoId, BigDecimal valor, String descricao) {
+        MapSqlParameterSource params = parametros(TransactionType.TRANSFERENCIA, accountId, valor, descricao)
+                .addValue("destino", accountDestinoId);
+        return execute(TRANSFER_SQL, params);
+    }
+
+    private Optional<Resultado> execute(String sql, MapSqlParameterSource params) {
+        List<String> numeroConta = jdbcTemplate.queryForList(sql, params, String.class);
+        if (numeroConta.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Resultado(
+                (Long) params.getValue("transacao"),
+                numeroConta.get(0),
+                ((Timestamp) params.getValue("agora")).toLocalDateTime()));
+    }
+
+    private MapSqlParameterSource parametros(TransactionType tipo, Long accountId, BigDecimal valor, String descricao) {
+        return new MapSqlParameterSource()
+                .addValue("transacao", idGenerator.nextId())
+                .addValue("tipo", tipo.name())
+                .addValue("conta", accountId)
+                .addValue("valor", valor)
+                .addValue("descricao", descricao, Types.VARCHAR)
+                .addValue("agora", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public record Resultado(Long transactionId, String numeroConta, LocalDateTime createdAt) {
+    }
+}
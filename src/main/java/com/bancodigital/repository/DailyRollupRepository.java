@@ -0,0 +1,110 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.dto.response.AccountSummaryItemDTO;
+import com.bancodigital.model.enums.MovementCategory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Totais diários por conta e categoria ({@code tb_account_daily_totals}),
+ * consolidados a partir das postings um dia fechado por vez, e a mesma soma
+ * feita direto nas postings para os dias ainda não consolidados.
+ */
+@Repository
+public class DailyRollupRepository {
+
+    public static final String CHECKPOINT = "account-daily-totals";
+
+    // Mesma classificação nos dois caminhos, para que rollup e linhas vivas somem igual
+    private static final String CATEGORIA = """
+            CASE WHEN p.natureza = 'TARIFA' THEN CASE WHEN p.valor < 0 THEN 'TARIFA' ELSE 'TARIFA_RECEBIDA' END
+                 WHEN t.tipo = 'TRANSFERENCIA'
+                      THEN CASE WHEN p.valor < 0 THEN 'TRANSFERENCIA_ENVIADA' ELSE 'TRANSFERENCIA_RECEBIDA' END
+                 ELSE CAST(t.tipo AS VARCHAR(30)) END""";
+
+    private static final String DELETE_DAY_SQL = "DELETE FROM tb_account_daily_totals WHERE dia = ?";
+
+    // Percorre o dia pelo índice de data dos lançamentos e chega às pernas pela chave primária
+    private static final String FOLD_DAY_SQL = """
+            INSERT INTO tb_account_daily_totals (account_id, dia, categoria, quantidade, valor)
+            SELECT m.account_id, CAST(? AS DATE), m.categoria, COUNT(*), SUM(m.valor)
+            FROM (SELECT p.account_id, %s AS categoria, p.valor
+                  FROM tb_transactions t
+                  JOIN tb_postings p ON p.transaction_id = t.id AND p.created_at = t.created_at
+                  WHERE t.created_at >= ? AND t.created_at < ?) m
+            GROUP BY m.account_id, m.categoria
+            """.formatted(CATEGORIA);
+
+    private static final String SUM_LIVE_SQL = """
+            SELECT m.categoria, COUNT(*), SUM(m.valor)
+            FROM (SELECT %s AS categoria, p.valor
+                  FROM tb_postings p
+                  JOIN tb_transactions t ON t.id = p.transaction_id AND t.created_at = p.created_at
+                  WHERE p.account_id = ? AND p.created_at >= ? AND p.created_at < ?) m
+            GROUP BY m.categoria
+            """.formatted(CATEGORIA);
+
+    private static final String SUM_FOLDED_SQL = """
+            SELECT categoria, SUM(quantidade), SUM(valor)
+            FROM tb_account_daily_totals
+            WHERE account_id = ? AND dia >= ? AND dia <= ?
+            GROUP BY categoria
+            """;
+
+    private static final RowMapper<AccountSummaryItemDTO> ITEM_MAPPER = (rs, rowNum) -> new AccountSummaryItemDTO(
+            MovementCategory.valueOf(rs.getString(1)), rs.getLong(2), rs.getBigDecimal(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DailyRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<LocalDate> findLastFoldedDay() {
+        return jdbcTemplate.query("SELECT ultimo_dia FROM tb_rollup_checkpoints WHERE nome = ?",
+                        (rs, rowNum) -> rs.getDate(1).toLocalDate(), CHECKPOINT)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<LocalDate> findFirstTransactionDay() {
+        Timestamp primeira = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM tb_transactions", Timestamp.class);
+        return Optional.ofNullable(primeira).map(timestamp -> timestamp.toLocalDateTime().toLocalDate());
+    }
+
+    /**
+     * Consolida um dia e avança o checkpoint até ele. Refazer um dia substitui
+     * os totais gravados antes e não recua o checkpoint.
+     *
+     * @return quantidade de linhas de totais gravadas
+     */
+    @Transactional
+    public int foldDay(LocalDate dia) {
+        jdbcTemplate.update(DELETE_DAY_SQL, Date.valueOf(dia));
+        int linhas = jdbcTemplate.update(FOLD_DAY_SQL, Date.valueOf(dia),
+                Timestamp.valueOf(dia.atStartOfDay()), Timestamp.valueOf(dia.plusDays(1).atStartOfDay()));
+        if (jdbcTemplate.update("UPDATE tb_rollup_checkpoints SET ultimo_dia = GREATEST(ultimo_dia, ?) WHERE nome = ?",
+                Date.valueOf(dia), CHECKPOINT) == 0) {
+            jdbcTemplate.update("INSERT INTO tb_rollup_checkpoints (nome, ultimo_dia) VALUES (?, ?)",
+                    CHECKPOINT, Date.valueOf(dia));
+        }
+        return linhas;
+    }
+
+    public List<AccountSummaryItemDTO> sumFolded(Long accountId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(SUM_FOLDED_SQL, ITEM_MAPPER, accountId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<AccountSummaryItemDTO> sumLive(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SUM_LIVE_SQL, ITEM_MAPPER, accountId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+}
@@ -0,0 +1,37 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.IdempotencyKey;
+import com.bancodigital.model.IdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    /**
+     * INSERT puro, sem o merge do {@code save}: uma chave já gravada, por esta
+     * ou outra instância, falha na chave primária em vez de ser sobrescrita.
+     */
+    @Modifying
+    @Query(value = "insert into tb_idempotency_keys " +
+            "(usuario, chave, hash_requisicao, transaction_id, resposta, created_at, expira_em) " +
+            "values (:usuario, :chave, :hash, :transactionId, :resposta, :createdAt, :expiraEm)", nativeQuery = true)
+    void insert(@Param("usuario") String usuario, @Param("chave") String chave, @Param("hash") String hash,
+                @Param("transactionId") Long transactionId, @Param("resposta") String resposta,
+                @Param("createdAt") LocalDateTime createdAt, @Param("expiraEm") LocalDateTime expiraEm);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id and k.expiraEm < :agora")
+    int deleteIfExpired(@Param("id") IdempotencyKeyId id, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyKey k where k.expiraEm < :agora")
+    int deleteExpired(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,9 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.LedgerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerOffsetRepository extends JpaRepository<LedgerOffset, String> {
+}
@@ -0,0 +1,57 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.Posting;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grava as pernas dos lançamentos com {@code INSERT} de várias linhas,
+ * participando da transação corrente.
+ */
+@Repository
+public class PostingBatchRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO tb_postings (transaction_id, perna, account_id, natureza, valor, created_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?)";
+    // Mantém o comando bem abaixo do limite de parâmetros por statement do PostgreSQL
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostingBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            for (int from = 0; from < postings.size(); from += ROWS_PER_STATEMENT) {
+                List<Posting> chunk = postings.subList(from, Math.min(from + ROWS_PER_STATEMENT, postings.size()));
+                String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), ROW));
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    int i = 1;
+                    for (Posting posting : chunk) {
+                        ps.setLong(i++, posting.getId().getTransactionId());
+                        ps.setShort(i++, posting.getId().getPerna());
+                        ps.setLong(i++, posting.getAccount().getId());
+                        ps.setString(i++, posting.getNatureza().name());
+                        ps.setBigDecimal(i++, posting.getValor());
+                        ps.setTimestamp(i++, Timestamp.valueOf(posting.getCreatedAt()));
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.Posting;
+import com.bancodigital.model.PostingId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostingRepository extends JpaRepository<Posting, PostingId> {
+}
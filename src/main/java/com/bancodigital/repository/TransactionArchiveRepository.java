@@ -0,0 +1,134 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.model.enums.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Leitura e remoção dos lançamentos de um dia que vai para o arquivo frio,
+ * e os checkpoints ({@code tb_rollup_checkpoints}) do último dia servido pelo
+ * arquivo e do último dia já removido do banco.
+ */
+@Repository
+public class TransactionArchiveRepository {
+
+    public static final String CHECKPOINT = "transaction-archive";
+    public static final String DELETED_CHECKPOINT = "transaction-archive-deleted";
+
+    private static final int FETCH_SIZE = 1000;
+
+    // As mesmas linhas do extrato (perna principal ou crédito recebido), na ordem do arquivo
+    private static final String STATEMENT_DAY_SQL = """
+            SELECT p.account_id AS statement_account_id, t.id, t.tipo, t.valor, t.descricao, a.id AS account_id,
+                   a.numero_conta, t.account_destino_id, t.created_at, t.tarifa
+            FROM tb_postings p
+            JOIN tb_transactions t ON t.id = p.transaction_id AND t.created_at = p.created_at
+            JOIN tb_accounts a ON a.id = t.account_id
+            WHERE p.created_at >= ? AND p.created_at < ?
+              AND (p.natureza = 'PRINCIPAL' OR p.valor > 0)
+            ORDER BY p.account_id, p.created_at, p.transaction_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<LocalDate> findArchivedThrough() {
+        return findCheckpoint(CHECKPOINT);
+    }
+
+    public Optional<LocalDate> findDeletedThrough() {
+        return findCheckpoint(DELETED_CHECKPOINT);
+    }
+
+    /**
+     * Avança o checkpoint do arquivo: a partir daqui as instâncias passam a
+     * ler o dia do segmento, ao reler o checkpoint.
+     */
+    @Transactional
+    public void markArchived(LocalDate dia) {
+        saveCheckpoint(CHECKPOINT, dia);
+    }
+
+    /**
+     * Percorre as linhas de extrato do dia em ordem de (conta, created_at, id),
+     * lidas do cursor em blocos, sem materializar o dia inteiro. A transação
+     * só existe para que o driver do PostgreSQL use cursor no fetch.
+     */
+    @Transactional(readOnly = true)
+    public void forEachStatementLine(LocalDate dia, StatementLineHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STATEMENT_DAY_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(dia.atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(dia.plusDays(1).atStartOfDay()));
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getLong("statement_account_id"), toResponse(rs)));
+    }
+
+    /**
+     * Remove do banco os lançamentos e as postings de um dia já arquivado e
+     * avança o checkpoint de remoção, na mesma transação.
+     *
+     * @return quantidade de lançamentos removidos
+     */
+    @Transactional
+    public int deleteDay(LocalDate dia) {
+        Timestamp inicio = Timestamp.valueOf(dia.atStartOfDay());
+        Timestamp fim = Timestamp.valueOf(dia.plusDays(1).atStartOfDay());
+        jdbcTemplate.update("DELETE FROM tb_postings WHERE created_at >= ? AND created_at < ?", inicio, fim);
+        int lancamentos = jdbcTemplate.update(
+                "DELETE FROM tb_transactions WHERE created_at >= ? AND created_at < ?", inicio, fim);
+        saveCheckpoint(DELETED_CHECKPOINT, dia);
+        return lancamentos;
+    }
+
+    private Optional<LocalDate> findCheckpoint(String nome) {
+        return jdbcTemplate.query("SELECT ultimo_dia FROM tb_rollup_checkpoints WHERE nome = ?",
+                        (rs, rowNum) -> rs.getDate(1).toLocalDate(), nome)
+                .stream()
+                .findFirst();
+    }
+
+    private void saveCheckpoint(String nome, LocalDate dia) {
+        if (jdbcTemplate.update("UPDATE tb_rollup_checkpoints SET ultimo_dia = ? WHERE nome = ?",
+                Date.valueOf(dia), nome) == 0) {
+            jdbcTemplate.update("INSERT INTO tb_rollup_checkpoints (nome, ultimo_dia) VALUES (?, ?)",
+                    nome, Date.valueOf(dia));
+        }
+    }
+
+    private static TransactionResponseDTO toResponse(ResultSet rs) throws SQLException {
+        long destino = rs.getLong("account_destino_id");
+        Long accountDestinoId = rs.wasNull() ? null : destino;
+        return new TransactionResponseDTO(
+                rs.getLong("id"),
+                TransactionType.valueOf(rs.getString("tipo")),
+                rs.getBigDecimal("valor"),
+                rs.getString("descricao"),
+                rs.getLong("account_id"),
+                rs.getString("numero_conta"),
+                accountDestinoId,
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getBigDecimal("tarifa"));
+    }
+
+    @FunctionalInterface
+    public interface StatementLineHandler {
+        void accept(long statementAccountId, TransactionResponseDTO transaction);
+    }
+}
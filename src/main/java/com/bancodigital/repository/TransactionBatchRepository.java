@@ -0,0 +1,80 @@
+package com.bancodigital.repository;
+
+import com.bancodigital.model.Transaction;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Grava lançamentos em lote via JDBC, participando da transação corrente.
+ */
+@Repository
+public class TransactionBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tb_transactions (id, tipo, valor, descricao, account_id, account_destino_id, created_at, tarifa) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int chunkSize;
+
+    public TransactionBatchRepository(
+            JdbcTemplate jdbcTemplate,
+            SnowflakeIdGenerator idGenerator,
+            @Value("${banco.transactions.batch.jdbc-chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Insere os lançamentos. Id e data já preenchidos são mantidos (lançamentos
+     * vindos do journal do ledger); os demais recebem um novo id e a data atual.
+     */
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                for (int from = 0; from < transactions.size(); from += chunkSize) {
+                    List<Transaction> chunk = transactions.subList(from, Math.min(from + chunkSize, transactions.size()));
+                    for (Transaction transaction : chunk) {
+                        if (transaction.getId() == null) {
+                            transaction.setId(idGenerator.nextId());
+                        }
+                        if (transaction.getCreatedAt() == null) {
+                            transaction.setCreatedAt(now);
+                        }
+                        ps.setLong(1, transaction.getId());
+                        ps.setString(2, transaction.getTipo().name());
+                        ps.setBigDecimal(3, transaction.getValor());
+                        ps.setString(4, transaction.getDescricao());
+                        ps.setLong(5, transaction.getAccount().getId());
+                        if (transaction.getAccountDestinoId() != null) {
+                            ps.setLong(6, transaction.getAccountDestinoId());
+                        } else {
+                            ps.setNull(6, Types.BIGINT);
+                        }
+                        ps.setTimestamp(7, Timestamp.valueOf(transaction.getCreatedAt()));
+                        ps.setBigDecimal(8, transaction.getTarifa());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.bancodigital.repository;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Partições mensais de {@code tb_transactions} (PostgreSQL). Os comandos rodam
+ * fora de transação: {@code DETACH ... CONCURRENTLY} não aceita bloco de transação.
+ */
+@Repository
+public class TransactionPartitionRepository {
+
+    private static final String PREFIX = "tb_transactions_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class pai ON pai.oid = i.inhparent
+            WHERE pai.relname = 'tb_transactions' AND c.relname ~ '^tb_transactions_[0-9]{4}_[0-9]{2}$'
+            ORDER BY c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Indica se {@code tb_transactions} é uma tabela particionada. Em outros
+     * bancos (H2 nos testes) ou antes da migração, devolve {@code false}.
+     */
+    public boolean isPartitioned() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                            "WHERE c.relname = 'tb_transactions')", Boolean.class));
+        } catch (DataAccessException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @return {@code true} se a partição foi criada agora
+     */
+    public boolean createMonth(YearMonth mes) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT banco_create_transaction_partition(?)",
+                Boolean.class, Date.valueOf(mes.atDay(1))));
+    }
+
+    public List<YearMonth> findMonths() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)
+                .stream()
+                .map(nome -> YearMonth.parse(nome.substring(PREFIX.length()), SUFFIX))
+                .toList();
+    }
+
+    /**
+     * Desanexa a partição do mês sem bloquear leituras e escritas na tabela.
+     * A partição vira uma tabela comum com o mesmo nome, que pode ser
+     * arquivada ou removida depois.
+     */
+    public void detachMonth(YearMonth mes) {
+        jdbcTemplate.execute("ALTER TABLE tb_transactions DETACH PARTITION " + tableName(mes) + " CONCURRENTLY");
+    }
+
+    public boolean defaultPartitionHasRows() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM tb_transactions_default)", Boolean.class));
+    }
+
+    public static String tableName(YearMonth mes) {
+        return PREFIX + mes.format(SUFFIX);
+    }
+}
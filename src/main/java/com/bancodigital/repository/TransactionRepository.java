@@ -1,23 +1,154 @@
 package com.bancodigital.repository;
 
+import com.bancodigital.dto.response.TransactionResponseDTO;
 import com.bancodigital.model.Transaction;
 import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    List<Transaction> findByAccountIdOrderByCreatedAtDesc(Long accountId);
+    String STATEMENT_LEG = "and (p.natureza = com.bancodigital.model.enums.PostingType.PRINCIPAL or p.valor > 0) ";
 
-    List<Transaction> findByAccountIdAndTipo(Long accountId, TransactionType tipo);
+    // A posting carrega a data do lançamento: com ela o PostgreSQL lê só a partição mensal certa
+    String SAME_PARTITION = "and t.createdAt = p.createdAt ";
 
-    List<Transaction> findByAccountIdAndCreatedAtBetween(
-            Long accountId,
-            LocalDateTime startDate,
-            LocalDateTime endDate
+    // Folga entre o instante do id Snowflake e o created_at gravado (relógios, fuso, projeção do ledger)
+    Duration ID_CREATED_AT_WINDOW = Duration.ofDays(1);
+
+    // Projeção direta na resposta: a conta entra no mesmo SELECT, sem carregar entidades
+    String RESPONSE_SELECT = "select new com.bancodigital.dto.response.TransactionResponseDTO(" +
+            "t.id, t.tipo, t.valor, t.descricao, a.id, a.numeroConta, t.accountDestinoId, t.createdAt, t.tarifa) ";
+
+    /**
+     * Busca pelo id limitando {@code created_at} ao redor do instante embutido
+     * no id Snowflake, para que só uma ou duas partições sejam consultadas.
+     * Só ids anteriores ao Snowflake, que não carregam instante, são buscados
+     * em todas as partições; um id Snowflake inexistente nunca varre a tabela.
+     */
+    default Optional<TransactionResponseDTO> findResponseById(Long id) {
+        if (SnowflakeIdGenerator.isPreSnowflake(id)) {
+            return findResponseByIdInAnyPartition(id);
+        }
+        LocalDateTime gerado = LocalDateTime.ofInstant(SnowflakeIdGenerator.instantOf(id), ZoneId.systemDefault());
+        return findResponseByIdAndCreatedAtBetween(id,
+                gerado.minus(ID_CREATED_AT_WINDOW), gerado.plus(ID_CREATED_AT_WINDOW));
+    }
+
+    @Query(RESPONSE_SELECT + "from Transaction t join t.account a " +
+            "where t.id = :id and t.createdAt >= :from and t.createdAt < :to")
+    Optional<TransactionResponseDTO> findResponseByIdAndCreatedAtBetween(@Param("id") Long id,
+                                                                        @Param("from") LocalDateTime from,
+                                                                        @Param("to") LocalDateTime to);
+
+    @Query(RESPONSE_SELECT + "from Transaction t join t.account a where t.id = :id")
+    Optional<TransactionResponseDTO> findResponseByIdInAnyPartition(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "from Transaction t join t.account a")
+    List<TransactionResponseDTO> findAllResponses();
+
+    @Query(value = RESPONSE_SELECT + "from Transaction t join t.account a",
+            countQuery = "select count(t) from Transaction t")
+    Page<TransactionResponseDTO> findAllResponses(Pageable pageable);
+
+    /**
+     * Extrato da conta: os lançamentos são localizados pelas postings (índice
+     * estreito por conta) e só então lidos de {@code tb_transactions}.
+     */
+    @Query(RESPONSE_SELECT + "from Posting p join p.transaction t join t.account a " +
+            "where p.account.id = :accountId " + STATEMENT_LEG + SAME_PARTITION +
+            "order by p.createdAt desc, p.id.transactionId desc")
+    List<TransactionResponseDTO> findStatementByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Página do extrato, da mais recente para a mais antiga, percorrendo o
+     * índice (account_id, created_at, transaction_id) das postings. A perna de
+     * débito da tarifa é ignorada porque a origem já aparece pela perna principal.
+     */
+    @Query(RESPONSE_SELECT + "from Posting p join p.transaction t join t.account a " +
+            "where p.account.id = :accountId " + STATEMENT_LEG + SAME_PARTITION +
+            "order by p.createdAt desc, p.id.transactionId desc")
+    List<TransactionResponseDTO> findStatementPage(@Param("accountId") Long accountId, Limit limit);
+
+    @Query(RESPONSE_SELECT + "from Posting p join p.transaction t join t.account a " +
+            "where p.account.id = :accountId " + STATEMENT_LEG + SAME_PARTITION +
+            "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id.transactionId < :id)) " +
+            "order by p.createdAt desc, p.id.transactionId desc")
+    List<TransactionResponseDTO> findStatementPageBefore(@Param("accountId") Long accountId,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id,
+                                                         Limit limit);
+
+    @Query(RESPONSE_SELECT + "from Transaction t join t.account a order by t.createdAt desc, t.id desc")
+    List<TransactionResponseDTO> findPage(Limit limit);
+
+    @Query(RESPONSE_SELECT + "from Transaction t join t.account a " +
+            "where t.createdAt <= :createdAt " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+            "order by t.createdAt desc, t.id desc")
+    List<TransactionResponseDTO> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    /**
+     * Versão do extrato da conta, em um único SELECT pela chave da conta. Todo
+     * lançamento altera o saldo (e a {@code version}) ou um sub-saldo da conta;
+     * a data da posting mais recente vem do índice (account_id, created_at).
+     * Não lê {@code tb_transactions}, então não precisa de limite de período.
+     */
+    @Query("select a.version as version, " +
+            "(select coalesce(sum(s.saldo), 0) from AccountBalanceSlot s where s.account.id = a.id) as subSaldos, " +
+            "(select max(p.createdAt) from Posting p where p.account.id = a.id) as ultimoLancamento " +
+            "from Account a where a.id = :accountId")
+    Optional<StatementVersion> findStatementVersion(@Param("accountId") Long accountId);
+
+    List<Transaction> findByAccountIdAndTipoAndCreatedAtBetween(Long accountId, TransactionType tipo,
+                                                                LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Extrato de um período em ordem cronológica, lido sob demanda do cursor
+     * JDBC em blocos de {@code fetchSize} linhas. Deve ser consumido dentro de
+     * uma transação e fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from Posting p join p.transaction t join fetch t.account " +
+            "where p.account.id = :accountId " + STATEMENT_LEG + SAME_PARTITION +
+            "and p.createdAt >= :startDate and p.createdAt < :endDate " +
+            "order by p.createdAt, p.id.transactionId")
+    Stream<Transaction> streamByAccountIdAndCreatedAtBetween(
+            @Param("accountId") Long accountId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
     );
+
+    interface StatementVersion {
+
+        Long getVersion();
+
+        BigDecimal getSubSaldos();
+
+        LocalDateTime getUltimoLancamento();
+    }
 }
@@ -1,18 +1,42 @@
 package com.bancodigital.repository;
 
+import com.bancodigital.config.JwtPrincipal;
+import com.bancodigital.dto.response.UserResponseDTO;
 import com.bancodigital.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String RESPONSE_SELECT = "select new com.bancodigital.dto.response.UserResponseDTO(" +
+            "u.id, u.nome, u.cpf, u.email, u.telefone, u.createdAt) from User u";
+
+    @Query(RESPONSE_SELECT)
+    List<UserResponseDTO> findAllResponses();
+
+    @Query(value = RESPONSE_SELECT, countQuery = "select count(u) from User u")
+    Page<UserResponseDTO> findAllResponses(Pageable pageable);
+
     Optional<User> findByCpf(String cpf);
 
     Optional<User> findByEmail(String email);
 
+    @Query("select new com.bancodigital.config.JwtPrincipal(u.id, u.email, u.role) from User u where u.email = :email")
+    Optional<JwtPrincipal> findPrincipalByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("update User u set u.senha = :senha where u.email = :email")
+    int updateSenhaByEmail(@Param("email") String email, @Param("senha") String senha);
+
     boolean existsByCpf(String cpf);
 
     boolean existsByEmail(String email);
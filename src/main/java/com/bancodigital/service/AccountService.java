@@ -2,9 +2,12 @@ package com.bancodigital.service;
 
 import com.bancodigital.dto.request.AccountRequestDTO;
 import com.bancodigital.dto.response.AccountResponseDTO;
+import com.bancodigital.dto.response.AccountSummaryResponseDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface AccountService {
@@ -17,9 +20,15 @@ public interface AccountService {
 
     Page<AccountResponseDTO> getAllAccountsPaginated(Pageable pageable);
 
+    CursorPageResponseDTO<AccountResponseDTO> getAllAccountsByCursor(String cursor, int size);
+
     List<AccountResponseDTO> getAccountsByUserId(Long userId);
 
+    AccountSummaryResponseDTO getAccountSummary(Long id, LocalDate from, LocalDate to);
+
     AccountResponseDTO updateAccount(Long id, AccountRequestDTO accountRequestDTO);
 
     void deleteAccount(Long id);
+
+    AccountResponseDTO configureBalanceSlots(Long id, int slots);
 }
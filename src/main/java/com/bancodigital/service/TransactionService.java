@@ -1,21 +1,49 @@
 package com.bancodigital.service;
 
 import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
+import com.bancodigital.dto.response.TransactionBatchResponseDTO;
 import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.model.enums.BatchMode;
+import com.bancodigital.model.enums.ExportFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public interface TransactionService {
 
     TransactionResponseDTO createTransaction(TransactionRequestDTO transactionRequestDTO);
 
+    TransactionBatchResponseDTO createTransactionsBatch(List<TransactionRequestDTO> requests, BatchMode mode);
+
     TransactionResponseDTO getTransactionById(Long id);
 
     List<TransactionResponseDTO> getAllTransactions();
 
     Page<TransactionResponseDTO> getAllTransactionsPaginated(Pageable pageable);
 
+    CursorPageResponseDTO<TransactionResponseDTO> getAllTransactionsByCursor(String cursor, int size);
+
     List<TransactionResponseDTO> getTransactionsByAccountId(Long accountId);
+
+    /**
+     * Extrato da conta para GET condicional. A versão do extrato é lida antes,
+     * na mesma transação, e passada a {@code notModified}; se ele a aceitar, o
+     * extrato não é lido e o retorno é vazio.
+     */
+    Optional<List<TransactionResponseDTO>> getTransactionsByAccountIdIfModified(Long accountId,
+                                                                              Predicate<String> notModified);
+
+    CursorPageResponseDTO<TransactionResponseDTO> getTransactionsByAccountIdByCursor(Long accountId, String cursor, int size);
+
+    void validateStatementExport(Long accountId, LocalDate from, LocalDate to);
+
+    void exportStatement(Long accountId, LocalDate from, LocalDate to, ExportFormat format, OutputStream output)
+            throws IOException;
 }
@@ -17,6 +17,8 @@ public interface UserService {
 
     Page<UserResponseDTO> getAllUsersPaginated(Pageable pageable);
 
+    List<UserResponseDTO> searchUsers(String query, int limit);
+
     UserResponseDTO updateUser(Long id, UserRequestDTO userRequestDTO);
 
     void deleteUser(Long id);
@@ -0,0 +1,371 @@
+package com.bancodigital.service.archive;
+
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.model.enums.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Arquivo imutável com os lançamentos de um dia arquivado, um registro por
+ * linha de extrato (a transferência aparece na conta de origem e na de
+ * destino), ordenados por (conta do extrato, created_at, id).
+ * <p>
+ * Formato: {@code [cabeçalho][blocos comprimidos com deflate][índice][rodapé]}.
+ * O índice é esparso: guarda a primeira chave (conta, created_at) de cada
+ * bloco, e é consultado direto no arquivo mapeado em memória, sem ser
+ * carregado no heap. Uma leitura descomprime só os blocos que podem conter
+ * a conta no intervalo pedido.
+ */
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x41524356; // "ARCV"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 8 + 8 + 8 + 4 + 4 + 4 + 4;
+    private static final int TRAILER_SIZE = 8 + 4 + 4;
+
+    private final LocalDate dia;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final long indexOffset;
+    private final int blocks;
+
+    private ArchiveSegment(LocalDate dia, Path file, MappedByteBuffer buffer, long indexOffset, int blocks) {
+        this.dia = dia;
+        this.file = file;
+        this.buffer = buffer;
+        this.indexOffset = indexOffset;
+        this.blocks = blocks;
+    }
+
+    LocalDate dia() {
+        return dia;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    static String fileName(LocalDate dia) {
+        return "transactions-" + dia + ".seg";
+    }
+
+    /**
+     * Inicia a gravação do segmento de um dia. Ver {@link Writer}.
+     */
+    static Writer create(Path directory, LocalDate dia, int blockSize) throws IOException {
+        return new Writer(directory, dia, blockSize);
+    }
+
+    static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Segmento de arquivo inválido: " + file);
+            }
+            // O mapeamento continua válido depois que o canal é fechado
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int trailer = (int) (size - TRAILER_SIZE);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(trailer + 12) != MAGIC) {
+                throw new IllegalStateException("Segmento de arquivo inválido: " + file);
+            }
+            LocalDate dia = LocalDate.ofEpochDay(buffer.getLong(8));
+            return new ArchiveSegment(dia, file, buffer, buffer.getLong(trailer), buffer.getInt(trailer + 8));
+        }
+    }
+
+    /**
+     * Linhas do extrato da conta com {@code fromMicros <= created_at < toMicros},
+     * em ordem cronológica.
+     */
+    List<TransactionResponseDTO> read(long accountId, long fromMicros, long toMicros) {
+        List<TransactionResponseDTO> linhas = new ArrayList<>();
+        for (int bloco = firstCandidate(accountId, fromMicros); bloco < blocks; bloco++) {
+            int entry = entryOffset(bloco);
+            if (compare(buffer.getLong(entry), buffer.getLong(entry + 8), accountId, toMicros) >= 0) {
+                break;
+            }
+            for (ArchivedEntry linha : decodeBlock(bloco)) {
+                long criada = micros(linha.transaction().getCreatedAt());
+                if (linha.statementAccountId() == accountId && criada >= fromMicros && criada < toMicros) {
+                    linhas.add(linha.transaction());
+                }
+            }
+        }
+        return linhas;
+    }
+
+    // Último bloco cuja primeira chave é menor que (conta, from): linhas iguais à chave podem começar nele
+    private int firstCandidate(long accountId, long fromMicros) {
+        int low = 0;
+        int high = blocks - 1;
+        int candidate = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = entryOffset(mid);
+            if (compare(buffer.getLong(entry), buffer.getLong(entry + 8), accountId, fromMicros) < 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate;
+    }
+
+    private int entryOffset(int bloco) {
+        return (int) (indexOffset + (long) bloco * INDEX_ENTRY_SIZE);
+    }
+
+    private List<ArchivedEntry> decodeBlock(int bloco) {
+        int entry = entryOffset(bloco);
+        int offset = (int) buffer.getLong(entry + 16);
+        int compressedLength = buffer.getInt(entry + 24);
+        int length = buffer.getInt(entry + 28);
+        int crc = buffer.getInt(entry + 32);
+        int rows = buffer.getInt(entry + 36);
+
+        byte[] raw = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(offset, compressedLength));
+            if (inflater.inflate(raw) != length) {
+                throw new IllegalStateException("Bloco " + bloco + " truncado em " + file);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloco " + bloco + " corrompido em " + file, e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(raw);
+        if ((int) checksum.getValue() != crc) {
+            throw new IllegalStateException("Bloco " + bloco + " corrompido em " + file);
+        }
+
+        List<ArchivedEntry> linhas = new ArrayList<>(rows);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            for (int i = 0; i < rows; i++) {
+                linhas.add(decode(in));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return linhas;
+    }
+
+    static long micros(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static int compare(long accountA, long microsA, long accountB, long microsB) {
+        int porConta = Long.compare(accountA, accountB);
+        return porConta != 0 ? porConta : Long.compare(microsA, microsB);
+    }
+
+    private static void encode(DataOutputStream out, ArchivedEntry linha) throws IOException {
+        TransactionResponseDTO t = linha.transaction();
+        out.writeLong(linha.statementAccountId());
+        out.writeLong(t.getId());
+        out.writeLong(micros(t.getCreatedAt()));
+        out.writeByte(t.getTipo().ordinal());
+        out.writeUTF(t.getValor().toPlainString());
+        writeNullable(out, t.getTarifa() != null ? t.getTarifa().toPlainString() : null);
+        writeNullable(out, t.getDescricao());
+        out.writeLong(t.getAccountId());
+        out.writeUTF(t.getNumeroConta());
+        out.writeBoolean(t.getAccountDestinoId() != null);
+        if (t.getAccountDestinoId() != null) {
+            out.writeLong(t.getAccountDestinoId());
+        }
+    }
+
+    private static ArchivedEntry decode(DataInputStream in) throws IOException {
+        long statementAccountId = in.readLong();
+        TransactionResponseDTO t = new TransactionResponseDTO();
+        t.setId(in.readLong());
+        t.setCreatedAt(fromMicros(in.readLong()));
+        t.setTipo(TransactionType.values()[in.readByte()]);
+        t.setValor(new BigDecimal(in.readUTF()));
+        String tarifa = readNullable(in);
+        t.setTarifa(tarifa != null ? new BigDecimal(tarifa) : null);
+        t.setDescricao(readNullable(in));
+        t.setAccountId(in.readLong());
+        t.setNumeroConta(in.readUTF());
+        t.setAccountDestinoId(in.readBoolean() ? in.readLong() : null);
+        return new ArchivedEntry(statementAccountId, t);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Grava o segmento em um arquivo temporário, que só recebe o nome final em
+     * {@link #finish()}, depois de forçado para o disco: um segmento com o nome
+     * final está sempre completo. Fechar sem {@code finish()} descarta a gravação.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path tmp;
+        private final Path file;
+        private final int blockSize;
+        private final FileChannel channel;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexOut = new DataOutputStream(index);
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private long firstAccountId;
+        private long firstMicros;
+        private long lastAccountId = Long.MIN_VALUE;
+        private long lastMicros = Long.MIN_VALUE;
+        private int rows;
+        private int blockCount;
+        private long total;
+        private boolean finished;
+
+        private Writer(Path directory, LocalDate dia, int blockSize) throws IOException {
+            this.file = directory.resolve(fileName(dia));
+            this.tmp = directory.resolve(fileName(dia) + ".tmp");
+            this.blockSize = blockSize;
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(dia.toEpochDay()).flip();
+            writeFully(channel, header);
+        }
+
+        /**
+         * @param linha na ordem de (conta do extrato, created_at)
+         */
+        void append(ArchivedEntry linha) throws IOException {
+            long criada = micros(linha.transaction().getCreatedAt());
+            if (compare(lastAccountId, lastMicros, linha.statementAccountId(), criada) > 0) {
+                throw new IllegalArgumentException("Linhas do segmento fora de ordem: " + linha.transaction().getId());
+            }
+            lastAccountId = linha.statementAccountId();
+            lastMicros = criada;
+
+            if (rows == 0) {
+                firstAccountId = lastAccountId;
+                firstMicros = criada;
+            }
+            encode(out, linha);
+            rows++;
+            total++;
+            if (bytes.size() >= blockSize) {
+                flushBlock();
+            }
+        }
+
+        /**
+         * @return quantidade de linhas gravadas
+         */
+        long finish() throws IOException {
+            if (rows > 0) {
+                flushBlock();
+            }
+            long indexOffset = channel.position();
+            writeFully(channel, ByteBuffer.wrap(index.toByteArray()));
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            trailer.putLong(indexOffset).putInt(blockCount).putInt(MAGIC).flip();
+            writeFully(channel, trailer);
+            channel.force(true);
+            channel.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+            return total;
+        }
+
+        Path file() {
+            return file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if (!finished) {
+                channel.close();
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            byte[] raw = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+
+            long offset = channel.position();
+            writeFully(channel, ByteBuffer.wrap(compressed.toByteArray()));
+            indexOut.writeLong(firstAccountId);
+            indexOut.writeLong(firstMicros);
+            indexOut.writeLong(offset);
+            indexOut.writeInt(compressed.size());
+            indexOut.writeInt(raw.length);
+            indexOut.writeInt((int) crc.getValue());
+            indexOut.writeInt(rows);
+
+            bytes.reset();
+            rows = 0;
+            blockCount++;
+        }
+    }
+
+    /**
+     * Linha do segmento: o lançamento como aparece no extrato de
+     * {@code statementAccountId}.
+     */
+    record ArchivedEntry(long statementAccountId, TransactionResponseDTO transaction) {
+    }
+}
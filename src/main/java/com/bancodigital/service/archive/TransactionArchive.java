@@ -0,0 +1,240 @@
+package com.bancodigital.service.archive;
+
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.repository.TransactionArchiveRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Arquivo frio dos lançamentos: dias antigos saem de {@code tb_transactions}
+ * e {@code tb_postings} e passam a ser servidos por segmentos comprimidos em
+ * disco, um por dia (ver {@link ArchiveSegment}).
+ * <p>
+ * Tudo antes de {@link #boundary()} é lido do arquivo; tudo a partir dela, do
+ * banco. O extrato e a exportação leem dos dois lados dessa fronteira e
+ * descartam as linhas do banco anteriores a ela.
+ * <p>
+ * Arquivar um dia ({@link #archiveDay}) não o remove do banco: a remoção
+ * ({@link #purgeThrough}) fica para depois que as outras instâncias releram o
+ * checkpoint (ver {@link TransactionArchiveJob}). Assim uma instância com a
+ * fronteira antiga ainda encontra o dia no banco.
+ * <p>
+ * O diretório é a fonte única dos segmentos: com várias instâncias, ele deve
+ * ser compartilhado, e só uma delas deve rodar o arquivamento.
+ */
+@Component
+public class TransactionArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchive.class);
+
+    private final TransactionArchiveRepository archiveRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final int blockSize;
+    private final ConcurrentSkipListMap<LocalDate, ArchiveSegment> segments = new ConcurrentSkipListMap<>();
+
+    // Último dia servido pelo arquivo; null enquanto nada foi arquivado
+    private volatile LocalDate archivedThrough;
+
+    public TransactionArchive(
+            TransactionArchiveRepository archiveRepository,
+            MeterRegistry meterRegistry,
+            @Value("${banco.transactions.archive.enabled:false}") boolean enabled,
+            @Value("${banco.transactions.archive.dir:./data/archive}") String directory,
+            @Value("${banco.transactions.archive.block-size-kb:64}") int blockSizeKb) {
+        this.archiveRepository = archiveRepository;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.blockSize = Math.max(1, blockSizeKb) * 1024;
+        Gauge.builder("banco.transactions.archive.segments", segments, ConcurrentSkipListMap::size)
+                .description("Dias de lançamentos servidos pelo arquivo frio")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        // Restos de uma gravação interrompida; o dia é gravado de novo
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        refresh();
+        logger.info("Arquivo de lançamentos aberto em {}: {} dias arquivados, até {}",
+                directory, segments.size(), archivedThrough);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Início do primeiro dia que ainda está no banco. Lançamentos com
+     * {@code created_at} anterior são lidos do arquivo.
+     */
+    public Optional<LocalDateTime> boundary() {
+        LocalDate ultimo = archivedThrough;
+        return ultimo == null ? Optional.empty() : Optional.of(ultimo.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Relê o checkpoint e os segmentos do diretório. Segmentos posteriores ao
+     * checkpoint são de um arquivamento interrompido antes de avançá-lo: são
+     * ignorados e gravados de novo na próxima execução.
+     */
+    public synchronized void refresh() {
+        Optional<LocalDate> checkpoint = archiveRepository.findArchivedThrough();
+        try {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    String nome = file.getFileName().toString();
+                    if (nome.endsWith(".seg")) {
+                        LocalDate dia = LocalDate.parse(nome.substring("transactions-".length(), nome.length() - 4));
+                        if (checkpoint.isPresent() && !dia.isAfter(checkpoint.get()) && !segments.containsKey(dia)) {
+                            segments.put(dia, ArchiveSegment.open(file));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o arquivo de lançamentos em " + directory, e);
+        }
+        if (checkpoint.isPresent()) {
+            segments.tailMap(checkpoint.get(), false).clear();
+        } else {
+            segments.clear();
+        }
+        archivedThrough = checkpoint.orElse(null);
+    }
+
+    /**
+     * Arquiva um dia: grava o segmento, avança o checkpoint e passa a servi-lo.
+     * As linhas continuam no banco até {@link #purgeThrough}; enquanto isso, as
+     * consultas ao banco as descartam por estarem antes da fronteira, então o
+     * extrato não duplica nem perde lançamentos.
+     *
+     * @return quantidade de linhas de extrato arquivadas
+     */
+    public synchronized long archiveDay(LocalDate dia) throws IOException {
+        if (archivedThrough != null && !dia.isAfter(archivedThrough)) {
+            throw new IllegalArgumentException("Dia " + dia + " já está arquivado");
+        }
+        Files.createDirectories(directory);
+        long linhas;
+        try (ArchiveSegment.Writer writer = ArchiveSegment.create(directory, dia, blockSize)) {
+            archiveRepository.forEachStatementLine(dia, (accountId, transaction) -> {
+                try {
+                    writer.append(new ArchiveSegment.ArchivedEntry(accountId, transaction));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            linhas = writer.finish();
+        }
+
+        ArchiveSegment segment = ArchiveSegment.open(directory.resolve(ArchiveSegment.fileName(dia)));
+        // Se falhar, o segmento fica após o checkpoint: é ignorado e gravado de novo depois
+        archiveRepository.markArchived(dia);
+        segments.put(dia, segment);
+        archivedThrough = dia;
+        return linhas;
+    }
+
+    /**
+     * Remove do banco os dias já arquivados até {@code ate} (limitado ao
+     * checkpoint), a partir do primeiro ainda não removido.
+     *
+     * @return quantidade de dias removidos
+     */
+    public synchronized int purgeThrough(LocalDate ate) {
+        if (archivedThrough == null || segments.isEmpty()) {
+            return 0;
+        }
+        LocalDate ultimo = ate.isAfter(archivedThrough) ? archivedThrough : ate;
+        // Sem checkpoint de remoção (arquivos anteriores a ele), os dias já removidos só não apagam nada
+        LocalDate dia = archiveRepository.findDeletedThrough()
+                .map(removido -> removido.plusDays(1))
+                .orElseGet(segments::firstKey);
+        int removidos = 0;
+        for (; !dia.isAfter(ultimo); dia = dia.plusDays(1)) {
+            int lancamentos = archiveRepository.deleteDay(dia);
+            logger.debug("Dia {} removido do banco: {} lançamentos", dia, lancamentos);
+            removidos++;
+        }
+        return removidos;
+    }
+
+    /**
+     * Extrato arquivado da conta com {@code from <= created_at < to}, em ordem
+     * cronológica. {@code from} nulo lê desde o primeiro dia arquivado.
+     */
+    public List<TransactionResponseDTO> findStatement(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return streamStatement(accountId, from, to).toList();
+    }
+
+    /**
+     * Como {@link #findStatement}, mas lendo um segmento por vez, à medida
+     * que o stream é consumido.
+     */
+    public Stream<TransactionResponseDTO> streamStatement(Long accountId, LocalDateTime from, LocalDateTime to) {
+        if (archivedThrough == null || (from != null && !from.isBefore(to))) {
+            return Stream.empty();
+        }
+        long fromMicros = from != null ? ArchiveSegment.micros(from) : Long.MIN_VALUE;
+        long toMicros = ArchiveSegment.micros(to);
+        NavigableMap<LocalDate, ArchiveSegment> dias = from != null
+                ? segments.subMap(from.toLocalDate(), true, to.toLocalDate(), true)
+                : segments.headMap(to.toLocalDate(), true);
+        return dias.values().stream()
+                .flatMap(segment -> segment.read(accountId, fromMicros, toMicros).stream());
+    }
+
+    /**
+     * Página do extrato arquivado, da mais recente para a mais antiga, com
+     * (created_at, id) anterior à posição informada.
+     */
+    public List<TransactionResponseDTO> findStatementPageBefore(Long accountId, LocalDateTime createdAt, Long id,
+                                                               int limit) {
+        List<TransactionResponseDTO> pagina = new ArrayList<>(limit);
+        if (archivedThrough == null) {
+            return pagina;
+        }
+        long cursor = ArchiveSegment.micros(createdAt);
+        for (ArchiveSegment segment : segments.headMap(createdAt.toLocalDate(), true).descendingMap().values()) {
+            List<TransactionResponseDTO> dia = segment.read(accountId, Long.MIN_VALUE, cursor + 1);
+            Collections.reverse(dia);
+            for (TransactionResponseDTO transaction : dia) {
+                if (transaction.getCreatedAt().isBefore(createdAt) || transaction.getId() < id) {
+                    pagina.add(transaction);
+                    if (pagina.size() == limit) {
+                        return pagina;
+                    }
+                }
+            }
+        }
+        return pagina;
+    }
+}
@@ -0,0 +1,138 @@
+package com.bancodigital.service.archive;
+
+import com.bancodigital.repository.DailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Move para o arquivo frio, um dia por vez, os lançamentos mais antigos que
+ * o horizonte configurado. Um dia só é arquivado depois de consolidado nos
+ * totais diários, porque o resumo da conta deixa de encontrar suas postings.
+ * <p>
+ * Todas as instâncias relêem o checkpoint do arquivo a cada
+ * {@code refresh-interval-ms}; só as que têm {@code archiver-enabled}
+ * arquivam (deve ser uma única instância). Os dias arquivados numa execução
+ * só são removidos do banco na execução seguinte, {@code interval-ms} depois,
+ * quando todas as instâncias já passaram a lê-los do arquivo. Por isso
+ * {@code interval-ms} deve ser maior que {@code refresh-interval-ms}.
+ */
+@Component
+public class TransactionArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveJob.class);
+
+    private final TransactionArchive transactionArchive;
+    private final DailyRollupRepository dailyRollupRepository;
+    private final boolean archiverEnabled;
+    private final int diasNoBanco;
+    private final int maxDiasPorExecucao;
+
+    // Último dia arquivado ao fim da execução anterior; pode ser removido do banco nesta
+    private LocalDate arquivadoAntes;
+
+    public TransactionArchiveJob(
+            TransactionArchive transactionArchive,
+            DailyRollupRepository dailyRollupRepository,
+            @Value("${banco.transactions.archive.archiver-enabled:true}") boolean archiverEnabled,
+            @Value("${banco.transactions.archive.after-days:365}") int diasNoBanco,
+            @Value("${banco.transactions.archive.max-days-per-run:7}") int maxDiasPorExecucao,
+            @Value("${banco.transactions.archive.interval-ms:3600000}") long intervalMs,
+            @Value("${banco.transactions.archive.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.transactionArchive = transactionArchive;
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.archiverEnabled = archiverEnabled;
+        this.diasNoBanco = Math.max(1, diasNoBanco);
+        this.maxDiasPorExecucao = Math.max(1, maxDiasPorExecucao);
+        if (archiverEnabled && intervalMs <= refreshIntervalMs) {
+            logger.warn("banco.transactions.archive.interval-ms ({}) deveria ser maior que refresh-interval-ms ({}): "
+                    + "outras instâncias podem procurar no banco dias já removidos", intervalMs, refreshIntervalMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banco.transactions.archive.refresh-interval-ms:60000}")
+    public void refreshArchive() {
+        if (!transactionArchive.isEnabled()) {
+            return;
+        }
+        try {
+            transactionArchive.refresh();
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao reler o arquivo de lançamentos: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banco.transactions.archive.interval-ms:3600000}")
+    public void archiveOldDays() {
+        if (!transactionArchive.isEnabled()) {
+            return;
+        }
+        try {
+            transactionArchive.refresh();
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao reler o arquivo de lançamentos: {}", ex.getMessage());
+            return;
+        }
+        if (archiverEnabled) {
+            archiveOldDays(LocalDateTime.now());
+        }
+    }
+
+    int archiveOldDays(LocalDateTime agora) {
+        if (arquivadoAntes != null) {
+            try {
+                int removidos = transactionArchive.purgeThrough(arquivadoAntes);
+                if (removidos > 0) {
+                    logger.info("{} dias já arquivados removidos do banco", removidos);
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Falha ao remover do banco os dias arquivados: {}", ex.getMessage());
+            }
+        }
+        try {
+            return archiveNextDays(agora);
+        } finally {
+            arquivadoAntes = transactionArchive.boundary().map(fronteira -> fronteira.toLocalDate().minusDays(1))
+                    .orElse(null);
+        }
+    }
+
+    private int archiveNextDays(LocalDateTime agora) {
+        Optional<LocalDate> proximo = transactionArchive.boundary()
+                .map(LocalDateTime::toLocalDate)
+                .or(dailyRollupRepository::findFirstTransactionDay);
+        Optional<LocalDate> consolidado = dailyRollupRepository.findLastFoldedDay();
+        if (proximo.isEmpty() || consolidado.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate ultimo = agora.toLocalDate().minusDays(diasNoBanco + 1L);
+        if (consolidado.get().isBefore(ultimo)) {
+            ultimo = consolidado.get();
+        }
+        int arquivados = 0;
+        for (LocalDate dia = proximo.get();
+             !dia.isAfter(ultimo) && arquivados < maxDiasPorExecucao;
+             dia = dia.plusDays(1)) {
+            try {
+                long linhas = transactionArchive.archiveDay(dia);
+                logger.debug("Dia {} arquivado: {} linhas de extrato", dia, linhas);
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Falha ao arquivar os lançamentos de {}: {}", dia, ex.getMessage());
+                break;
+            }
+            arquivados++;
+        }
+        if (arquivados > 0) {
+            logger.info("{} dias de lançamentos movidos para o arquivo", arquivados);
+        }
+        return arquivados;
+    }
+}
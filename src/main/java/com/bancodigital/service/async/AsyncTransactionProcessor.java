@@ -0,0 +1,309 @@
+package com.bancodigital.service.async;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.TransactionOperationResponseDTO;
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.exception.OutcomeUnknownException;
+import com.bancodigital.exception.ResourceNotFoundException;
+import com.bancodigital.exception.ServiceUnavailableException;
+import com.bancodigital.model.enums.OperationStatus;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processa transações de forma assíncrona ({@code POST /api/transactions?async=true}).
+ * <p>
+ * Cada operação é encadeada atrás da anterior da mesma conta origem, o que
+ * garante ordem FIFO por conta; contas diferentes são processadas em
+ * paralelo, limitadas por {@code max-concurrency}. A fila é limitada: acima
+ * de {@code queue-capacity} operações pendentes, novas submissões são
+ * recusadas com 503 e {@code Retry-After}. O resultado fica disponível para
+ * consulta por {@code retention-minutes} após a conclusão, limitado às
+ * {@code max-retained} operações concluídas mais recentes.
+ * <p>
+ * As operações aceitas ficam apenas em memória e não sobrevivem a um
+ * reinício: no encerramento, as que estão em execução têm até
+ * {@code shutdown-timeout-seconds} para terminar, e as que ainda aguardam
+ * na fila são marcadas como {@code FALHOU} sem serem executadas. Quem
+ * precisa da garantia de execução deve usar o endpoint síncrono com
+ * {@code Idempotency-Key}.
+ */
+@Component
+public class AsyncTransactionProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransactionProcessor.class);
+
+    // A fila só esvazia no ritmo das transações; alguns segundos evitam reenvios em rajada
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final TransactionService transactionService;
+    private final AccountRepository accountRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int queueCapacity;
+    private final Duration retention;
+    private final int maxRetained;
+    private final Semaphore permits;
+    private final SimpleAsyncTaskExecutor executor;
+    private final Map<Long, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Void>> accountTails = new ConcurrentHashMap<>();
+    // Operações concluídas na ordem de conclusão, para a retenção
+    private final ConcurrentLinkedQueue<Operation> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger retained = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private volatile boolean closing;
+
+    public AsyncTransactionProcessor(
+            TransactionService transactionService,
+            AccountRepository accountRepository,
+            SnowflakeIdGenerator idGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${banco.transactions.async.queue-capacity:10000}") int queueCapacity,
+            @Value("${banco.transactions.async.max-concurrency:64}") int maxConcurrency,
+            @Value("${banco.transactions.async.retention-minutes:60}") long retentionMinutes,
+            @Value("${banco.transactions.async.max-retained:100000}") int maxRetained,
+            @Value("${banco.transactions.async.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds) {
+        this.transactionService = transactionService;
+        this.accountRepository = accountRepository;
+        this.idGenerator = idGenerator;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.maxRetained = Math.max(1, maxRetained);
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+
+        this.executor = new SimpleAsyncTaskExecutor("tx-async-");
+        // Virtual threads a partir do Java 21; em JVMs anteriores usa threads comuns
+        this.executor.setVirtualThreads(Runtime.version().feature() >= 21);
+        // No close(), espera as operações em execução antes de interromper as threads
+        this.executor.setTaskTerminationTimeout(TimeUnit.SECONDS.toMillis(Math.max(0, shutdownTimeoutSeconds)));
+
+        Gauge.builder("banco.transactions.async.queue.depth", pending, AtomicInteger::get)
+                .description("Operações assíncronas aguardando execução")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("banco.transactions.async.wait")
+                .description("Tempo entre a submissão e o início da execução")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("banco.transactions.async.rejected")
+                .description("Submissões recusadas por fila cheia")
+                .register(meterRegistry);
+    }
+
+    public TransactionOperationResponseDTO submit(TransactionRequestDTO dto) {
+        validate(dto);
+
+        if (closing) {
+            throw new ServiceUnavailableException("Aplicação em encerramento, tente novamente mais tarde",
+                    RETRY_AFTER_SECONDS);
+        }
+        if (pending.incrementAndGet() > queueCapacity) {
+            pending.decrementAndGet();
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Fila de transações cheia, tente novamente mais tarde",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        Operation operation = new Operation(idGenerator.nextId());
+        operations.put(operation.id, operation);
+
+        Long accountId = dto.getAccountId();
+        CompletableFuture<Void> proxima = accountTails.compute(accountId, (id, tail) ->
+                (tail != null ? tail : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(() -> run(operation, dto), executor));
+        // Fora do compute: se a operação já terminou, o callback roda aqui e alteraria o mapa durante o compute
+        proxima.whenComplete((ignored, ex) -> {
+            accountTails.remove(accountId, proxima);
+            if (ex != null) {
+                // Recusada pelo executor já encerrado (ou pela falha de uma anterior da cadeia): nunca rodou
+                abandon(operation);
+            }
+        });
+
+        logger.info("Operação {} enfileirada para a conta {}", operation.id, dto.getAccountId());
+        return operation.toResponseDTO();
+    }
+
+    public TransactionOperationResponseDTO getOperation(Long id) {
+        Operation operation = operations.get(id);
+        if (operation == null) {
+            throw new ResourceNotFoundException("Operação não encontrada com ID: " + id);
+        }
+        return operation.toResponseDTO();
+    }
+
+    @Scheduled(fixedDelayString = "${banco.transactions.async.purge-interval-ms:60000}")
+    public void purgeFinished() {
+        LocalDateTime limite = LocalDateTime.now().minus(retention);
+        Operation maisAntiga;
+        while ((maisAntiga = finished.peek()) != null && maisAntiga.concluidaEm.isBefore(limite)) {
+            release(maisAntiga);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closing = true;
+        // Espera as operações em execução até o timeout; depois disso o executor recusa as que ainda estão na fila
+        executor.close();
+        int abandonadas = 0;
+        for (Operation operation : operations.values()) {
+            if (abandon(operation)) {
+                abandonadas++;
+            }
+        }
+        if (abandonadas > 0) {
+            logger.warn("{} operações assíncronas não foram processadas antes do encerramento", abandonadas);
+        }
+    }
+
+    private void run(Operation operation, TransactionRequestDTO dto) {
+        if (!operation.claim()) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.decrementAndGet();
+            finish(operation, null, "Operação interrompida");
+            return;
+        }
+        try {
+            pending.decrementAndGet();
+            waitTimer.record(System.nanoTime() - operation.submittedNanos, TimeUnit.NANOSECONDS);
+            operation.status = OperationStatus.PROCESSANDO;
+            finish(operation, transactionService.createTransaction(dto), null);
+        } catch (OutcomeUnknownException ex) {
+            logger.warn("Resultado da operação {} desconhecido: {}", operation.id, ex.getMessage());
+            operation.finish(OperationStatus.INDETERMINADA, null, ex.getMessage());
+            retain(operation);
+        } catch (RuntimeException ex) {
+            // Erros não podem escapar: interromperiam a fila da conta
+            finish(operation, null, failureMessage(operation, ex));
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Marca como falha uma operação que não chegou a executar; as já iniciadas ficam com quem as executa
+    private boolean abandon(Operation operation) {
+        if (!operation.claim()) {
+            return false;
+        }
+        pending.decrementAndGet();
+        finish(operation, null, "Operação não processada: a aplicação foi encerrada");
+        return true;
+    }
+
+    private void finish(Operation operation, TransactionResponseDTO transacao, String mensagem) {
+        operation.finish(transacao != null ? OperationStatus.CONCLUIDA : OperationStatus.FALHOU, transacao, mensagem);
+        retain(operation);
+    }
+
+    private void retain(Operation operation) {
+        finished.add(operation);
+        retained.incrementAndGet();
+        Operation maisAntiga;
+        while (retained.get() > maxRetained && (maisAntiga = finished.poll()) != null) {
+            retained.decrementAndGet();
+            operations.remove(maisAntiga.id);
+        }
+    }
+
+    private void release(Operation operation) {
+        if (finished.remove(operation)) {
+            retained.decrementAndGet();
+            operations.remove(operation.id);
+        }
+    }
+
+    // Só mensagens de negócio chegam ao cliente; detalhes internos ficam no log
+    private static String failureMessage(Operation operation, RuntimeException ex) {
+        if (ex instanceof BusinessException || ex instanceof ResourceNotFoundException) {
+            logger.warn("Operação {} falhou: {}", operation.id, ex.getMessage());
+            return ex.getMessage();
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            logger.warn("Operação {} falhou por conflito de concorrência: {}", operation.id, ex.getMessage());
+            return "Registro alterado por outra operação, tente novamente";
+        }
+        logger.error("Operação {} falhou", operation.id, ex);
+        return "Erro interno ao processar a transação";
+    }
+
+    private void validate(TransactionRequestDTO dto) {
+        if (dto.getTipo() == TransactionType.TRANSFERENCIA) {
+            if (dto.getAccountDestinoId() == null) {
+                throw new BusinessException("Conta destino é obrigatória para transferências");
+            }
+            if (dto.getAccountId().equals(dto.getAccountDestinoId())) {
+                throw new BusinessException("Conta origem e destino não podem ser iguais");
+            }
+            if (!accountRepository.existsById(dto.getAccountDestinoId())) {
+                throw new ResourceNotFoundException("Conta não encontrada com ID: " + dto.getAccountDestinoId());
+            }
+        }
+        if (!accountRepository.existsById(dto.getAccountId())) {
+            throw new ResourceNotFoundException("Conta não encontrada com ID: " + dto.getAccountId());
+        }
+    }
+
+    private static final class Operation {
+
+        private final Long id;
+        private final long submittedNanos = System.nanoTime();
+        private final LocalDateTime criadaEm = LocalDateTime.now();
+        private volatile OperationStatus status = OperationStatus.PENDENTE;
+        private volatile TransactionResponseDTO transacao;
+        private volatile String mensagem;
+        private volatile LocalDateTime concluidaEm;
+        // Garante que a operação seja executada ou abandonada uma única vez
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Operation(Long id) {
+            this.id = id;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private void finish(OperationStatus status, TransactionResponseDTO transacao, String mensagem) {
+            this.transacao = transacao;
+            this.mensagem = mensagem;
+            this.concluidaEm = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private TransactionOperationResponseDTO toResponseDTO() {
+            OperationStatus atual = status;
+            return new TransactionOperationResponseDTO(id, atual, transacao, mensagem, criadaEm, concluidaEm);
+        }
+    }
+}
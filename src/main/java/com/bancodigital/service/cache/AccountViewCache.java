@@ -0,0 +1,191 @@
+package com.bancodigital.service.cache;
+
+import com.bancodigital.config.datasource.ReplicaRoutingDataSource;
+import com.bancodigital.dto.response.AccountResponseDTO;
+import com.bancodigital.repository.AccountRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cache de leitura das contas já no formato de resposta, por id e por usuário.
+ * <p>
+ * Quem altera saldo ou dados de uma conta chama {@link #evictAfterCommit}; as
+ * entradas saem do cache somente depois do commit, quando o banco já tem o
+ * valor novo, e uma leitura concorrente que carregou o valor antigo não o
+ * recoloca (ver {@link BoundedCache}). O índice por usuário guarda apenas os
+ * ids das contas, então alterar o saldo de uma conta não exige invalidá-lo.
+ * <p>
+ * Com réplicas de leitura configuradas, as cargas rodam em uma transação
+ * própria no primário: a invalidação acontece no commit do primário, e uma
+ * réplica atrasada recolocaria no cache o valor antigo até o TTL. As leituras
+ * que usam o cache o consultam antes de qualquer outro comando, quando a
+ * transação externa ainda não obteve uma conexão.
+ * <p>
+ * A invalidação vale só para esta instância: com várias instâncias, escritas
+ * feitas pelas outras aparecem aqui no máximo após o TTL.
+ */
+@Component
+public class AccountViewCache {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate primaryRead;
+    private final boolean enabled;
+    private final BoundedCache<Long, AccountResponseDTO> accounts;
+    private final BoundedCache<Long, List<Long>> accountIdsByUser;
+
+    public AccountViewCache(
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banco.accounts.cache.enabled:true}") boolean enabled,
+            @Value("${banco.accounts.cache.max-size:10000}") int maxSize,
+            @Value("${banco.accounts.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${banco.datasource.replica.urls:}") String replicaUrls,
+            MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        // Sem réplicas a transação externa já lê do primário
+        this.primaryRead = replicaUrls.isBlank() ? null : primaryRead(transactionManager);
+        this.enabled = enabled;
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.accounts = new BoundedCache<>(maxSize, ttlNanos);
+        this.accountIdsByUser = new BoundedCache<>(maxSize, ttlNanos);
+        registerMetrics(meterRegistry, "accounts", accounts);
+        registerMetrics(meterRegistry, "accounts-by-user", accountIdsByUser);
+    }
+
+    public Optional<AccountResponseDTO> findById(Long id) {
+        if (!enabled) {
+            return accountRepository.findResponseById(id);
+        }
+        return Optional.ofNullable(accounts.get(id,
+                        key -> load(() -> accountRepository.findResponseById(key).orElse(null))))
+                .map(AccountViewCache::copy);
+    }
+
+    public List<AccountResponseDTO> findByUserId(Long userId) {
+        if (!enabled) {
+            return accountRepository.findResponsesByUserId(userId);
+        }
+
+        List<Long> ids = accountIdsByUser.getIfPresent(userId);
+        if (ids != null) {
+            List<AccountResponseDTO> cached = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                AccountResponseDTO account = accounts.getIfPresent(id);
+                if (account == null) {
+                    break;
+                }
+                cached.add(copy(account));
+            }
+            if (cached.size() == ids.size()) {
+                return cached;
+            }
+        }
+
+        // Uma conta do usuário saiu do cache: um único SELECT recarrega todas
+        long accountsGeneration = accounts.generation();
+        long usersGeneration = accountIdsByUser.generation();
+        List<AccountResponseDTO> loaded = load(() -> accountRepository.findResponsesByUserId(userId));
+        for (AccountResponseDTO account : loaded) {
+            accounts.putIfNotInvalidatedSince(account.getId(), copy(account), accountsGeneration);
+        }
+        accountIdsByUser.putIfNotInvalidatedSince(userId,
+                loaded.stream().map(AccountResponseDTO::getId).toList(), usersGeneration);
+        return loaded;
+    }
+
+    /**
+     * Remove as contas do cache ao fim da transação ativa, se ela for
+     * confirmada. Fora de uma transação, remove na hora. Ids nulos são ignorados.
+     */
+    public void evictAfterCommit(Long... accountIds) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> Arrays.stream(accountIds)
+                .filter(Objects::nonNull)
+                .forEach(accounts::invalidate));
+    }
+
+    /**
+     * Remove do cache a lista de contas do usuário e as contas dele já
+     * carregadas, para inclusão, exclusão ou troca de titular de contas e
+     * alterações no próprio usuário.
+     */
+    public void evictUserAfterCommit(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            accountIdsByUser.invalidate(userId);
+            accounts.invalidateIf(account -> userId.equals(account.getUserId()));
+        });
+    }
+
+    private <T> T load(Supplier<T> query) {
+        return primaryRead == null ? query.get() : primaryRead.execute(status -> query.get());
+    }
+
+    private static TransactionTemplate primaryRead(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        template.setName(ReplicaRoutingDataSource.PRIMARY_READ);
+        return template;
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    // As entradas são compartilhadas entre requisições e o DTO é mutável
+    private static AccountResponseDTO copy(AccountResponseDTO account) {
+        return new AccountResponseDTO(account.getId(), account.getNumeroConta(), account.getAgencia(),
+                account.getSaldo(), account.getUserId(), account.getNomeUsuario(), account.getCreatedAt());
+    }
+
+    private static void registerMetrics(MeterRegistry meterRegistry, String name, BoundedCache<?, ?> cache) {
+        FunctionCounter.builder("banco.accounts.cache.gets", cache, BoundedCache::hitCount)
+                .description("Leituras atendidas pelo cache de contas")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("banco.accounts.cache.gets", cache, BoundedCache::missCount)
+                .description("Leituras atendidas pelo cache de contas")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("banco.accounts.cache.evictions", cache, BoundedCache::evictionCount)
+                .description("Entradas removidas do cache de contas por tamanho ou expiração")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("banco.accounts.cache.size", cache, BoundedCache::size)
+                .description("Entradas no cache de contas")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,228 @@
+package com.bancodigital.service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Cache em memória limitado por tamanho (LRU) e com expiração após a escrita.
+ * <p>
+ * As entradas ficam divididas em segmentos, cada um com seu próprio lock e
+ * sua própria ordem LRU; o limite de tamanho vale por segmento, então o LRU
+ * é aproximado. Caches pequenos usam um segmento só.
+ * <p>
+ * Leituras que carregam do banco usam {@link #get(Object, Function)}: uma
+ * marca de versão é lida antes da carga e o valor só é guardado se a chave
+ * não foi invalidada nesse meio tempo. Cada {@link #invalidate} deixa uma
+ * lápide com a versão da invalidação, de modo que um SELECT que leu o valor
+ * antigo enquanto outra transação fazia o commit não recoloca no cache o que
+ * acabou de ser invalidado, sem descartar as cargas das outras chaves.
+ * {@link #invalidateIf} e {@link #invalidateAll} descartam as cargas em
+ * andamento de todos os segmentos; o número de lápides é limitado e, quando
+ * uma antiga é removida, as cargas iniciadas antes dela no segmento também
+ * são descartadas.
+ */
+public class BoundedCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final Segment<K, V>[] segments;
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, long ttlNanos) {
+        this(maxSize, ttlNanos, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    BoundedCache(int maxSize, long ttlNanos, LongSupplier ticker) {
+        maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlNanos;
+        this.ticker = ticker;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE)));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(maxSize / count);
+        }
+    }
+
+    /**
+     * Devolve o valor em cache ou carrega com {@code loader}. Cargas que
+     * devolvem {@code null} não são guardadas.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadGeneration = generation();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            putIfNotInvalidatedSince(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    /**
+     * Marca de versão, a ser lida antes de uma carga feita fora de
+     * {@link #get(Object, Function)} e passada a {@link #putIfNotInvalidatedSince}.
+     */
+    public long generation() {
+        return version.get();
+    }
+
+    /**
+     * Guarda o valor se a chave não foi invalidada depois de
+     * {@code loadGeneration} ter sido lida.
+     */
+    public boolean putIfNotInvalidatedSince(K key, V value, long loadGeneration) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Long invalidadaEm = segment.tombstones.get(key);
+            if (loadGeneration < segment.floor || (invalidadaEm != null && invalidadaEm > loadGeneration)) {
+                return false;
+            }
+            store(segment, key, value, ttlNanos);
+            return true;
+        }
+    }
+
+    public V getIfPresent(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiraEm - ticker.getAsLong() <= 0) {
+                segment.entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Guarda o valor com expiração própria, limitada ao TTL do cache.
+     */
+    public void put(K key, V value, long ttlNanos) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            store(segment, key, value, ttlNanos);
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.remove(key);
+            // Reinsere para que a lápide vá para o fim da ordem de remoção
+            segment.tombstones.remove(key);
+            segment.tombstones.put(key, version.incrementAndGet());
+            Iterator<Map.Entry<K, Long>> it = segment.tombstones.entrySet().iterator();
+            while (segment.tombstones.size() > segment.maxSize && it.hasNext()) {
+                segment.floor = Math.max(segment.floor, it.next().getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public void invalidateIf(Predicate<V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                discardLoads(segment);
+                segment.entries.values().removeIf(entry -> predicate.test(entry.value));
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                discardLoads(segment);
+                segment.entries.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void store(Segment<K, V> segment, K key, V value, long ttlNanos) {
+        segment.entries.put(key, new Entry<>(value, ticker.getAsLong() + Math.min(ttlNanos, this.ttlNanos)));
+        Iterator<Map.Entry<K, Entry<V>>> it = segment.entries.entrySet().iterator();
+        while (segment.entries.size() > segment.maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // As lápides anteriores deixam de ser necessárias: o piso já descarta essas cargas
+    private void discardLoads(Segment<K, V> segment) {
+        segment.floor = version.incrementAndGet();
+        segment.tombstones.clear();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> {
+
+        private final int maxSize;
+        // accessOrder = true: a iteração começa pela entrada usada há mais tempo
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        // Versão da última invalidação de cada chave, da mais antiga para a mais recente
+        private final LinkedHashMap<K, Long> tombstones = new LinkedHashMap<>();
+        // Cargas com marca anterior ao piso são descartadas
+        private long floor;
+
+        private Segment(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    private record Entry<V>(V value, long expiraEm) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.bancodigital.service.cache;
+
+import com.bancodigital.config.JwtPrincipal;
+import com.bancodigital.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Conferência opcional, com TTL curto, de que o usuário de um token JWT ainda
+ * existe. Desligada por padrão: o token é aceito só pelas claims e um usuário
+ * excluído continua autenticado até o {@code exp}. Ligada, um usuário
+ * excluído deixa de ser aceito em no máximo {@code ttl-seconds}, com uma
+ * consulta por usuário nesse intervalo em vez de uma por requisição.
+ * <p>
+ * Usuários inexistentes também ficam em cache, para que tokens de contas
+ * excluídas não voltem ao banco a cada requisição.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final BoundedCache<String, Optional<JwtPrincipal>> principals;
+
+    public UserPrincipalCache(
+            UserRepository userRepository,
+            @Value("${banco.jwt.user-cache.enabled:false}") boolean enabled,
+            @Value("${banco.jwt.user-cache.max-size:10000}") int maxSize,
+            @Value("${banco.jwt.user-cache.ttl-seconds:30}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.principals = new BoundedCache<>(maxSize, Duration.ofSeconds(ttlSeconds).toNanos());
+        registerMetrics(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<JwtPrincipal> findByEmail(String email) {
+        if (!enabled) {
+            return userRepository.findPrincipalByEmail(email);
+        }
+        return principals.get(email, userRepository::findPrincipalByEmail);
+    }
+
+    /**
+     * Remove os emails do cache ao fim da transação ativa, se ela for
+     * confirmada, para exclusão ou troca de email do usuário. Fora de uma
+     * transação, remove na hora.
+     */
+    public void evictAfterCommit(String... emails) {
+        if (!enabled) {
+            return;
+        }
+        Runnable eviction = () -> Arrays.stream(emails)
+                .filter(Objects::nonNull)
+                .forEach(principals::invalidate);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("banco.jwt.user-cache.gets", principals, BoundedCache::hitCount)
+                .description("Conferências de usuário de token JWT atendidas pelo cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("banco.jwt.user-cache.gets", principals, BoundedCache::missCount)
+                .description("Conferências de usuário de token JWT atendidas pelo cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("banco.jwt.user-cache.size", principals, BoundedCache::size)
+                .description("Usuários de token JWT em cache")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.bancodigital.service.concurrency;
+
+import com.bancodigital.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks por conta, distribuídos em faixas (stripes), usados para serializar
+ * operações que alteram saldo dentro do mesmo processo.
+ * <p>
+ * Os locks são sempre adquiridos em ordem crescente de faixa, o que impede
+ * deadlock entre transferências cruzadas, e liberados somente após o commit
+ * (ou rollback) da transação corrente.
+ */
+@Component
+public class AccountLockManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountLockManager.class);
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter timeoutCounter;
+
+    public AccountLockManager(
+            @Value("${banco.locks.stripes:1024}") int stripeCount,
+            @Value("${banco.locks.timeout-ms:5000}") long timeoutMillis,
+            MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("banco.account.lock.wait")
+                .description("Tempo de espera para adquirir locks de conta")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("banco.account.lock.timeouts")
+                .description("Tentativas de lock de conta que excederam o timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adquire os locks das contas informadas e agenda a liberação para o fim
+     * da transação ativa. Ids nulos são ignorados.
+     */
+    public void lockForTransaction(Long... accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Locks de conta exigem uma transação ativa");
+        }
+
+        int[] ordered = Arrays.stream(accountIds)
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int acquired = 0;
+        long start = System.nanoTime();
+        try {
+            for (int stripe : ordered) {
+                if (!stripes[stripe].tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timeoutCounter.increment();
+                    logger.warn("Timeout ao aguardar lock das contas {}", Arrays.toString(accountIds));
+                    throw new BusinessException("Conta ocupada por outra operação, tente novamente");
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Operação interrompida ao aguardar lock da conta");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (acquired < ordered.length) {
+                release(ordered, acquired);
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(ordered, ordered.length);
+            }
+        });
+    }
+
+    int stripeOf(Long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void release(int[] ordered, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[ordered[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.bancodigital.service.concurrency;
+
+public enum ConcurrencyMode {
+    LOCK,
+    OPTIMISTIC,
+    ATOMIC
+}
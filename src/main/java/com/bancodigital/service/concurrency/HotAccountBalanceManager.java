@@ -0,0 +1,141 @@
+package com.bancodigital.service.concurrency;
+
+import com.bancodigital.model.Account;
+import com.bancodigital.model.AccountBalanceSlot;
+import com.bancodigital.repository.AccountBalanceSlotRepository;
+import com.bancodigital.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sub-saldos para contas que recebem muitos créditos simultâneos.
+ * <p>
+ * Em uma conta com {@code slotsSaldo > 0}, cada crédito incrementa
+ * atomicamente um slot sorteado em {@code tb_account_balance_slots}, sem
+ * lock da conta e sem disputar a linha de {@code tb_accounts}. Débitos
+ * consolidam os slots no saldo principal antes de validar o valor, e um job
+ * periódico faz a mesma consolidação para manter os slots pequenos.
+ * O saldo exato é sempre {@code saldo + soma dos slots}.
+ * <p>
+ * Créditos não pegam o lock da conta, então podem correr junto com uma
+ * reconfiguração. Os slots mantidos não são recriados: um crédito neles só
+ * aguarda o lock da linha. Um crédito em um slot removido, sorteado a partir
+ * da quantidade antiga, falha como conflito de concorrência (409) e é
+ * repetido com a conta recarregada.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotAccountBalanceManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotAccountBalanceManager.class);
+
+    private final AccountBalanceSlotRepository slotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLockManager accountLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> shardedAccountIds = ConcurrentHashMap.newKeySet();
+
+    public boolean isSharded(Account account) {
+        return account.getSlotsSaldo() != null && account.getSlotsSaldo() > 0;
+    }
+
+    /**
+     * Indica, sem consultar o banco, se a conta usa sub-saldos. Usado apenas
+     * para dispensar o lock em créditos; a decisão final é feita sobre a
+     * entidade carregada. Em outras instâncias a informação só é atualizada
+     * pelo {@link #foldAll}; até lá, um crédito sem lock em conta que deixou
+     * de usar sub-saldos é protegido pela versão da conta.
+     */
+    public boolean isKnownSharded(Long accountId) {
+        return accountId != null && shardedAccountIds.contains(accountId);
+    }
+
+    public void credit(Account account, BigDecimal valor) {
+        int slot = ThreadLocalRandom.current().nextInt(account.getSlotsSaldo());
+        if (slotRepository.credit(account.getId(), slot, valor) == 0) {
+            throw new OptimisticLockingFailureException(
+                    "Sub-saldo " + slot + " da conta " + account.getId() + " removido por reconfiguração");
+        }
+    }
+
+    /**
+     * Move o valor acumulado nos slots para o saldo principal. Exige
+     * transação ativa e o lock da conta.
+     */
+    public void fold(Account account) {
+        BigDecimal acumulado = BigDecimal.ZERO;
+        for (AccountBalanceSlot slot : slotRepository.findByAccountIdForUpdate(account.getId())) {
+            if (slot.getSaldo().signum() != 0) {
+                acumulado = acumulado.add(slot.getSaldo());
+                slot.setSaldo(BigDecimal.ZERO);
+            }
+        }
+        if (acumulado.signum() != 0) {
+            account.setSaldo(account.getSaldo().add(acumulado));
+            logger.debug("Consolidados {} em sub-saldos da conta {}", acumulado, account.getId());
+        }
+    }
+
+    public BigDecimal saldoTotal(Account account) {
+        if (!isSharded(account)) {
+            return account.getSaldo();
+        }
+        return account.getSaldo().add(slotRepository.sumSaldoByAccountId(account.getId()));
+    }
+
+    /**
+     * Ativa, redimensiona ou desativa ({@code slots = 0}) os sub-saldos de uma
+     * conta. Exige transação ativa e o lock da conta.
+     */
+    public void configure(Account account, int slots) {
+        int existentes = 0;
+        if (isSharded(account)) {
+            fold(account);
+            existentes = Math.min(account.getSlotsSaldo(), slots);
+            slotRepository.deleteByAccountIdFromSlot(account.getId(), slots);
+        }
+
+        List<AccountBalanceSlot> novos = new ArrayList<>(slots - existentes);
+        for (int i = existentes; i < slots; i++) {
+            novos.add(new AccountBalanceSlot(null, account, i, BigDecimal.ZERO));
+        }
+        slotRepository.saveAll(novos);
+        account.setSlotsSaldo(slots);
+
+        if (slots > 0) {
+            shardedAccountIds.add(account.getId());
+        } else {
+            shardedAccountIds.remove(account.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banco.accounts.hot.fold-interval-ms:5000}")
+    public void foldAll() {
+        List<Long> ids = accountRepository.findShardedAccountIds();
+        shardedAccountIds.retainAll(ids);
+        shardedAccountIds.addAll(ids);
+
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    accountLockManager.lockForTransaction(id);
+                    accountRepository.findById(id).ifPresent(this::fold);
+                });
+            } catch (RuntimeException ex) {
+                logger.warn("Falha ao consolidar sub-saldos da conta {}: {}", id, ex.getMessage());
+            }
+        }
+    }
+}
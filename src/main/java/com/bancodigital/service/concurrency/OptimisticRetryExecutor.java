@@ -0,0 +1,95 @@
+package com.bancodigital.service.concurrency;
+
+import com.bancodigital.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reexecuta uma operação quando ela falha por conflito de versão
+ * ({@code @Version}), com backoff exponencial limitado e jitter.
+ * <p>
+ * Cada tentativa deve abrir sua própria transação, para que os dados sejam
+ * relidos do banco antes de a operação ser reaplicada. Chamado dentro de uma
+ * transação já ativa, executa uma única vez: a transação externa já foi
+ * marcada para rollback, e quem a abriu é quem deve repetir.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter attemptCounter;
+    private final Counter conflictCounter;
+    private final Counter retryCounter;
+    private final Counter exhaustedCounter;
+
+    public OptimisticRetryExecutor(
+            @Value("${banco.transactions.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${banco.transactions.optimistic.initial-backoff-ms:5}") long initialBackoffMillis,
+            @Value("${banco.transactions.optimistic.max-backoff-ms:200}") long maxBackoffMillis,
+            MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.attemptCounter = Counter.builder("banco.transactions.optimistic.attempts")
+                .description("Tentativas de execução em modo otimista")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("banco.transactions.optimistic.conflicts")
+                .description("Tentativas que falharam por conflito de versão")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("banco.transactions.optimistic.retries")
+                .description("Reexecuções após conflito de versão")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("banco.transactions.optimistic.exhausted")
+                .description("Operações abortadas após esgotar as tentativas")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            attemptCounter.increment();
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                conflictCounter.increment();
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    logger.warn("Conflito de concorrência persistente em {} após {} tentativas", operation, attempt);
+                    throw new BusinessException("Conta com alta concorrência, tente novamente");
+                }
+                retryCounter.increment();
+                logger.debug("Conflito de versão em {} (tentativa {}), reexecutando", operation, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Operação interrompida durante nova tentativa");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.bancodigital.service.idempotency;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.model.IdempotencyKey;
+import com.bancodigital.model.IdempotencyKeyId;
+import com.bancodigital.repository.IdempotencyKeyRepository;
+import com.bancodigital.service.concurrency.OptimisticRetryExecutor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Garante que uma transação enviada com o mesmo {@code Idempotency-Key} pelo
+ * mesmo usuário seja executada uma única vez.
+ * <p>
+ * A chave é gravada em {@code tb_idempotency_keys} na mesma transação do
+ * banco que efetiva a operação, com um INSERT que falha na chave primária se
+ * ela já existir. Ou as duas coisas são confirmadas juntas ou nenhuma é, em
+ * qualquer instância: uma repetição concorrente perde no INSERT, sua
+ * transação é desfeita e ela devolve a resposta gravada pela outra. Falhas
+ * não são guardadas: o cliente pode repetir a chave depois de um erro.
+ * <p>
+ * O índice em memória só coordena requisições simultâneas nesta instância,
+ * que aguardam a primeira em vez de disputar a chave no banco; perder uma
+ * entrada dele não permite reexecução.
+ * <p>
+ * Com o ledger em memória ativo, a operação é confirmada pelo journal e não
+ * pelo banco; uma queda entre o fsync do journal e o commit da chave ainda
+ * permite que a repetição seja executada.
+ */
+@Component
+public class IdempotencyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyManager.class);
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final Duration ttl;
+    private final int maxEntries;
+    // Ordem de inserção = ordem de expiração, já que o TTL é fixo
+    private final LinkedHashMap<IdempotencyKeyId, InFlight> index = new LinkedHashMap<>();
+
+    public IdempotencyManager(
+            IdempotencyKeyRepository repository,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            OptimisticRetryExecutor optimisticRetryExecutor,
+            @Value("${banco.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${banco.idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Executa {@code action} uma única vez para a chave do usuário. A ação
+     * deve participar da transação aberta aqui (propagação {@code REQUIRED}).
+     */
+    public Result execute(String usuario, String key, TransactionRequestDTO request,
+                          Supplier<TransactionResponseDTO> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+        IdempotencyKeyId id = new IdempotencyKeyId(usuario, key);
+        String hash = hash(request);
+        LocalDateTime agora = LocalDateTime.now();
+
+        InFlight existing;
+        InFlight own = new InFlight(hash, agora.plus(ttl));
+        synchronized (index) {
+            existing = index.get(id);
+            if (existing != null && existing.expiraEm.isBefore(agora)) {
+                index.remove(id);
+                existing = null;
+            }
+            if (existing == null) {
+                index.put(id, own);
+                evict(agora);
+            }
+        }
+
+        if (existing != null) {
+            checkSameRequest(existing.hash, hash);
+            logger.info("Requisição repetida com Idempotency-Key {}, reaproveitando resultado", key);
+            return new Result(await(existing.resultado), true);
+        }
+
+        try {
+            Result result;
+            try {
+                // Conflitos de versão são repetidos aqui, com a chave, e não dentro da transação já aberta
+                result = optimisticRetryExecutor.execute("idempotency",
+                        () -> transactionTemplate.execute(status -> executeOnce(id, hash, agora, own.expiraEm, action)));
+            } catch (DataIntegrityViolationException ex) {
+                logger.info("Idempotency-Key {} gravada por outra requisição, reaproveitando resultado", key);
+                result = transactionTemplate.execute(status -> repository.findById(id)
+                        .map(stored -> replay(stored, hash))
+                        .orElseThrow(() -> ex));
+            }
+            own.resultado.complete(result.response());
+            return result;
+        } catch (RuntimeException ex) {
+            synchronized (index) {
+                index.remove(id, own);
+            }
+            own.resultado.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banco.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (index) {
+            index.values().removeIf(entry -> entry.resultado.isDone() && entry.expiraEm.isBefore(agora));
+        }
+        int removidas = repository.deleteExpired(agora);
+        if (removidas > 0) {
+            logger.info("{} chaves de idempotência expiradas removidas", removidas);
+        }
+    }
+
+    private void evict(LocalDateTime agora) {
+        Iterator<Map.Entry<IdempotencyKeyId, InFlight>> it = index.entrySet().iterator();
+        while (index.size() > maxEntries && it.hasNext()) {
+            InFlight entry = it.next().getValue();
+            // Execuções em andamento ficam no índice para que as repetições aguardem por elas
+            if (entry.resultado.isDone() || entry.expiraEm.isBefore(agora)) {
+                it.remove();
+            }
+        }
+    }
+
+    private Result executeOnce(IdempotencyKeyId id, String hash, LocalDateTime agora, LocalDateTime expiraEm,
+                               Supplier<TransactionResponseDTO> action) {
+        // Uma chave expirada que o purge ainda não removeu não impede o novo uso
+        repository.deleteIfExpired(id, agora);
+        Optional<IdempotencyKey> stored = repository.findById(id);
+        if (stored.isPresent()) {
+            return replay(stored.get(), hash);
+        }
+
+        TransactionResponseDTO response = action.get();
+        repository.insert(id.getUsuario(), id.getChave(), hash, response.getId(), serialize(response), agora, expiraEm);
+        return new Result(response, false);
+    }
+
+    private Result replay(IdempotencyKey stored, String hash) {
+        checkSameRequest(stored.getHashRequisicao(), hash);
+        return new Result(deserialize(stored.getResposta()), true);
+    }
+
+    private String serialize(TransactionResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar a resposta da Idempotency-Key", ex);
+        }
+    }
+
+    private TransactionResponseDTO deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, TransactionResponseDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Resposta gravada para Idempotency-Key ilegível", ex);
+        }
+    }
+
+    private static TransactionResponseDTO await(CompletableFuture<TransactionResponseDTO> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static void checkSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new BusinessException("Idempotency-Key já utilizada com uma requisição diferente");
+        }
+    }
+
+    private static String hash(TransactionRequestDTO request) {
+        String canonical = String.join("|",
+                String.valueOf(request.getTipo()),
+                request.getValor() != null ? request.getValor().stripTrailingZeros().toPlainString() : "",
+                String.valueOf(request.getDescricao()),
+                String.valueOf(request.getAccountId()),
+                String.valueOf(request.getAccountDestinoId()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Result(TransactionResponseDTO response, boolean replayed) {
+    }
+
+    private static final class InFlight {
+
+        private final String hash;
+        private final LocalDateTime expiraEm;
+        private final CompletableFuture<TransactionResponseDTO> resultado = new CompletableFuture<>();
+
+        private InFlight(String hash, LocalDateTime expiraEm) {
+            this.hash = hash;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
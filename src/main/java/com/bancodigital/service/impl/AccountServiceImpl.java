@@ -2,23 +2,40 @@ package com.bancodigital.service.impl;
 
 import com.bancodigital.dto.request.AccountRequestDTO;
 import com.bancodigital.dto.response.AccountResponseDTO;
+import com.bancodigital.dto.response.AccountSummaryItemDTO;
+import com.bancodigital.dto.response.AccountSummaryResponseDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
 import com.bancodigital.exception.BusinessException;
 import com.bancodigital.exception.ResourceNotFoundException;
 import com.bancodigital.model.Account;
 import com.bancodigital.model.User;
+import com.bancodigital.model.enums.MovementCategory;
 import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.repository.DailyRollupRepository;
 import com.bancodigital.repository.UserRepository;
 import com.bancodigital.service.AccountService;
+import com.bancodigital.service.cache.AccountViewCache;
+import com.bancodigital.service.concurrency.AccountLockManager;
+import com.bancodigital.service.concurrency.HotAccountBalanceManager;
+import com.bancodigital.service.ledger.LedgerEngine;
+import com.bancodigital.service.pagination.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +46,14 @@ public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final HotAccountBalanceManager hotAccountBalanceManager;
+    private final AccountLockManager accountLockManager;
+    private final LedgerEngine ledgerEngine;
+    private final AccountViewCache accountViewCache;
+    private final DailyRollupRepository dailyRollupRepository;
+
+    @Value("${banco.accounts.hot.max-slots:64}")
+    private int maxSlotsSaldo = 64;
 
     @Override
     @Transactional
@@ -44,6 +69,9 @@ public class AccountServiceImpl implements AccountService {
 
         Account account = convertToEntity(accountRequestDTO, user);
         Account savedAccount = accountRepository.save(account);
+        // Força o INSERT agora para que createdAt já venha preenchido
+        accountRepository.flush();
+        accountViewCache.evictUserAfterCommit(user.getId());
 
         logger.info("Conta criada com sucesso. ID: {}", savedAccount.getId());
         return convertToResponseDTO(savedAccount);
@@ -53,17 +81,18 @@ public class AccountServiceImpl implements AccountService {
     @Transactional(readOnly = true)
     public AccountResponseDTO getAccountById(Long id) {
         logger.debug("Buscando conta com ID: {}", id);
-        Account account = findAccountById(id);
-        return convertToResponseDTO(account);
+        return accountViewCache.findById(id)
+                .map(this::comSaldoEmMemoria)
+                .orElseThrow(() -> new ResourceNotFoundException("Conta não encontrada com ID: " + id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AccountResponseDTO> getAllAccounts() {
         logger.debug("Listando todas as contas");
-        return accountRepository.findAll()
+        return accountRepository.findAllResponses()
                 .stream()
-                .map(this::convertToResponseDTO)
+                .map(this::comSaldoEmMemoria)
                 .collect(Collectors.toList());
     }
 
@@ -72,22 +101,67 @@ public class AccountServiceImpl implements AccountService {
     public Page<AccountResponseDTO> getAllAccountsPaginated(Pageable pageable) {
         logger.debug("Listando contas com paginação: página {}, tamanho {}",
                 pageable.getPageNumber(), pageable.getPageSize());
-        return accountRepository.findAll(pageable)
-                .map(this::convertToResponseDTO);
+        return accountRepository.findAllResponses(pageable)
+                .map(this::comSaldoEmMemoria);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AccountResponseDTO> getAllAccountsByCursor(String cursor, int size) {
+        KeysetCursor posicao = KeysetCursor.decode(cursor);
+        Limit limit = KeysetCursor.limitFor(size);
+        logger.debug("Listando contas por cursor: {}, tamanho {}", posicao, size);
+
+        List<AccountResponseDTO> accounts = posicao == null
+                ? accountRepository.findPage(limit)
+                : accountRepository.findPageAfter(posicao.createdAt(), posicao.id(), limit);
+        return KeysetCursor.toPage(accounts, size,
+                account -> new KeysetCursor(account.getCreatedAt(), account.getId()), this::comSaldoEmMemoria);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AccountResponseDTO> getAccountsByUserId(Long userId) {
         logger.debug("Buscando contas do usuário: {}", userId);
-        findUserById(userId);
+        List<AccountResponseDTO> accounts = accountViewCache.findByUserId(userId);
+        if (accounts.isEmpty()) {
+            // Sem contas, o usuário pode não existir: só aqui vale a consulta extra para responder 404
+            findUserById(userId);
+        }
 
-        return accountRepository.findByUserId(userId)
-                .stream()
-                .map(this::convertToResponseDTO)
+        return accounts.stream()
+                .map(this::comSaldoEmMemoria)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AccountSummaryResponseDTO getAccountSummary(Long id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("Data inicial deve ser anterior ou igual à data final");
+        }
+        logger.debug("Resumindo movimentação da conta {} de {} a {}", id, from, to);
+        if (accountViewCache.findById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Conta não encontrada com ID: " + id);
+        }
+
+        // Dias já consolidados vêm dos totais diários; o restante (em geral só hoje) das postings
+        Map<MovementCategory, AccountSummaryItemDTO> totais = new EnumMap<>(MovementCategory.class);
+        LocalDate inicioNaoConsolidado = from;
+        Optional<LocalDate> ultimoConsolidado = dailyRollupRepository.findLastFoldedDay();
+        if (ultimoConsolidado.isPresent() && !from.isAfter(ultimoConsolidado.get())) {
+            LocalDate fimConsolidado = to.isBefore(ultimoConsolidado.get()) ? to : ultimoConsolidado.get();
+            somar(totais, dailyRollupRepository.sumFolded(id, from, fimConsolidado));
+            inicioNaoConsolidado = fimConsolidado.plusDays(1);
+        }
+        if (!inicioNaoConsolidado.isAfter(to)) {
+            somar(totais, dailyRollupRepository.sumLive(id, inicioNaoConsolidado.atStartOfDay(),
+                    to.plusDays(1).atStartOfDay()));
+        }
+
+        return new AccountSummaryResponseDTO(id, from, to, new ArrayList<>(totais.values()));
+    }
+
     @Override
     @Transactional
     public AccountResponseDTO updateAccount(Long id, AccountRequestDTO accountRequestDTO) {
@@ -101,9 +175,15 @@ public class AccountServiceImpl implements AccountService {
         }
 
         User user = findUserById(accountRequestDTO.getUserId());
+        Long titularAnterior = account.getUser().getId();
 
         updateAccountFields(account, accountRequestDTO, user);
         Account updatedAccount = accountRepository.save(account);
+        accountViewCache.evictAfterCommit(id);
+        if (!titularAnterior.equals(user.getId())) {
+            accountViewCache.evictUserAfterCommit(titularAnterior);
+            accountViewCache.evictUserAfterCommit(user.getId());
+        }
 
         logger.info("Conta {} atualizada com sucesso", id);
         return convertToResponseDTO(updatedAccount);
@@ -115,15 +195,67 @@ public class AccountServiceImpl implements AccountService {
         logger.info("Tentando deletar conta com ID: {}", id);
         Account account = findAccountById(id);
 
-        if (account.getSaldo().compareTo(BigDecimal.ZERO) > 0) {
-            logger.warn("Tentativa de deletar conta {} com saldo positivo: {}", id, account.getSaldo());
+        BigDecimal saldo = saldoTotal(account);
+        if (saldo.compareTo(BigDecimal.ZERO) > 0) {
+            logger.warn("Tentativa de deletar conta {} com saldo positivo: {}", id, saldo);
             throw new BusinessException("Não é possível excluir conta com saldo positivo");
         }
 
         accountRepository.delete(account);
+        accountViewCache.evictAfterCommit(id);
+        accountViewCache.evictUserAfterCommit(account.getUser().getId());
         logger.info("Conta {} deletada com sucesso", id);
     }
 
+    @Override
+    @Transactional
+    public AccountResponseDTO configureBalanceSlots(Long id, int slots) {
+        logger.info("Configurando {} sub-saldos para a conta {}", slots, id);
+        if (slots < 0 || slots > maxSlotsSaldo) {
+            throw new BusinessException("Quantidade de sub-saldos deve estar entre 0 e " + maxSlotsSaldo);
+        }
+        if (ledgerEngine.isEnabled()) {
+            throw new BusinessException("Sub-saldos não são usados com o ledger em memória ativo");
+        }
+
+        accountLockManager.lockForTransaction(id);
+        Account account = findAccountById(id);
+        hotAccountBalanceManager.configure(account, slots);
+        accountViewCache.evictAfterCommit(id);
+
+        return convertToResponseDTO(account);
+    }
+
+    /**
+     * Ajusta uma resposta projetada pelo repositório (que já inclui os
+     * sub-saldos) com o saldo do ledger em memória, quando ativo.
+     */
+    private AccountResponseDTO comSaldoEmMemoria(AccountResponseDTO response) {
+        BigDecimal saldoLedger = ledgerEngine.saldoEmMemoria(response.getId());
+        if (saldoLedger != null) {
+            response.setSaldo(saldoLedger);
+        }
+        return response;
+    }
+
+    private static void somar(Map<MovementCategory, AccountSummaryItemDTO> totais, List<AccountSummaryItemDTO> itens) {
+        for (AccountSummaryItemDTO item : itens) {
+            totais.merge(item.getCategoria(), item, (atual, novo) -> new AccountSummaryItemDTO(atual.getCategoria(),
+                    atual.getQuantidade() + novo.getQuantidade(), atual.getValor().add(novo.getValor())));
+        }
+    }
+
+    private BigDecimal saldoTotal(Account account) {
+        // Com o ledger ativo, o saldo em memória está à frente do que já foi projetado no banco
+        BigDecimal saldoLedger = ledgerEngine.saldoEmMemoria(account.getId());
+        if (saldoLedger != null) {
+            return saldoLedger;
+        }
+        return hotAccountBalanceManager.isSharded(account)
+                ? hotAccountBalanceManager.saldoTotal(account)
+                : account.getSaldo();
+    }
+
     private Account findAccountById(Long id) {
         return accountRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Conta não encontrada com ID: " + id));
@@ -154,7 +286,7 @@ public class AccountServiceImpl implements AccountService {
                 account.getId(),
                 account.getNumeroConta(),
                 account.getAgencia(),
-                account.getSaldo(),
+                saldoTotal(account),
                 account.getUser().getId(),
                 account.getUser().getNome(),
                 account.getCreatedAt()
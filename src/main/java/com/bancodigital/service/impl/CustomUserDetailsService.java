@@ -1,21 +1,47 @@
 package com.bancodigital.service.impl;
 
+import com.bancodigital.model.User;
 import com.bancodigital.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com email: " + email));
     }
+
+    /**
+     * Chamado pelo {@code DaoAuthenticationProvider} após um login válido
+     * cujo hash foi gerado com outro custo do BCrypt, já com o hash novo.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updateSenhaByEmail(user.getUsername(), newPassword) > 0) {
+            meterRegistry.counter("banco.security.password.rehash").increment();
+            logger.info("Hash de senha do usuário {} regravado com o custo atual", user.getUsername());
+        }
+        if (user instanceof User entity) {
+            entity.setSenha(newPassword);
+        }
+        return user;
+    }
 }
@@ -1,72 +1,411 @@
 package com.bancodigital.service.impl;
 
 import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
+import com.bancodigital.dto.response.TransactionBatchItemResultDTO;
+import com.bancodigital.dto.response.TransactionBatchResponseDTO;
 import com.bancodigital.dto.response.TransactionResponseDTO;
 import com.bancodigital.exception.BusinessException;
+import com.bancodigital.exception.OutcomeUnknownException;
 import com.bancodigital.exception.ResourceNotFoundException;
 import com.bancodigital.model.Account;
+import com.bancodigital.model.Posting;
 import com.bancodigital.model.Transaction;
+import com.bancodigital.model.enums.BatchItemStatus;
+import com.bancodigital.model.enums.BatchMode;
+import com.bancodigital.model.enums.ExportFormat;
 import com.bancodigital.model.enums.TransactionType;
 import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.repository.AtomicTransactionRepository;
+import com.bancodigital.repository.PostingBatchRepository;
+import com.bancodigital.repository.TransactionBatchRepository;
 import com.bancodigital.repository.TransactionRepository;
 import com.bancodigital.service.TransactionService;
+import com.bancodigital.service.archive.TransactionArchive;
+import com.bancodigital.service.cache.AccountViewCache;
+import com.bancodigital.service.concurrency.AccountLockManager;
+import com.bancodigital.service.concurrency.ConcurrencyMode;
+import com.bancodigital.service.concurrency.HotAccountBalanceManager;
+import com.bancodigital.service.concurrency.OptimisticRetryExecutor;
+import com.bancodigital.service.ledger.LedgerEngine;
+import com.bancodigital.service.pagination.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "id,tipo,valor,tarifa,descricao,accountId,numeroConta,accountDestinoId,createdAt\n";
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final AccountLockManager accountLockManager;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final Validator validator;
+    private final HotAccountBalanceManager hotAccountBalanceManager;
+    private final LedgerEngine ledgerEngine;
+    private final AtomicTransactionRepository atomicTransactionRepository;
+    private final PostingBatchRepository postingBatchRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final AccountViewCache accountViewCache;
+    private final TransactionArchive transactionArchive;
+
+    @Value("${banco.transactions.concurrency-mode:LOCK}")
+    private ConcurrencyMode concurrencyMode = ConcurrencyMode.LOCK;
+
+    @Value("${banco.transactions.batch.max-size:5000}")
+    private int maxBatchSize = 5000;
+
+    @Value("${banco.transactions.tarifa.transferencia:0.00}")
+    private BigDecimal tarifaTransferencia = BigDecimal.ZERO;
+
+    @Value("${banco.transactions.tarifa.conta-id:#{null}}")
+    private Long contaTarifasId;
+
+    @PostConstruct
+    void validateTarifaConfig() {
+        if (tarifaTransferencia.signum() <= 0) {
+            return;
+        }
+        if (contaTarifasId == null) {
+            throw new IllegalStateException("banco.transactions.tarifa.conta-id é obrigatório com tarifa de transferência");
+        }
+        if (concurrencyMode == ConcurrencyMode.ATOMIC || ledgerEngine.isEnabled()) {
+            throw new IllegalStateException("Tarifa de transferência não é suportada no modo ATOMIC nem com o ledger em memória");
+        }
+    }
 
     @Override
-    @Transactional
     public TransactionResponseDTO createTransaction(TransactionRequestDTO transactionRequestDTO) {
         logger.info("Criando nova transação do tipo: {} para conta: {}",
                 transactionRequestDTO.getTipo(), transactionRequestDTO.getAccountId());
 
+        if (ledgerEngine.isEnabled()) {
+            return ledgerEngine.submit(transactionRequestDTO);
+        }
+
+        if (concurrencyMode == ConcurrencyMode.ATOMIC && !envolveSubSaldos(transactionRequestDTO)) {
+            return executeAtomic(transactionRequestDTO);
+        }
+
+        if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+            return optimisticRetryExecutor.execute("createTransaction",
+                    () -> transactionTemplate.execute(status -> executeTransaction(transactionRequestDTO)));
+        }
+
+        return transactionTemplate.execute(status -> {
+            accountLockManager.lockForTransaction(lockableAccountIds(transactionRequestDTO));
+            return executeTransaction(transactionRequestDTO);
+        });
+    }
+
+    private Long[] lockableAccountIds(TransactionRequestDTO dto) {
+        // Créditos em contas com sub-saldos são incrementos atômicos e dispensam o lock
+        Long origem = dto.getTipo() == TransactionType.DEPOSITO
+                && hotAccountBalanceManager.isKnownSharded(dto.getAccountId()) ? null : dto.getAccountId();
+        Long destino = hotAccountBalanceManager.isKnownSharded(dto.getAccountDestinoId())
+                ? null : dto.getAccountDestinoId();
+        return new Long[]{origem, destino};
+    }
+
+    private boolean envolveSubSaldos(TransactionRequestDTO dto) {
+        return hotAccountBalanceManager.isKnownSharded(dto.getAccountId())
+                || hotAccountBalanceManager.isKnownSharded(dto.getAccountDestinoId());
+    }
+
+    private TransactionResponseDTO executeAtomic(TransactionRequestDTO dto) {
+        if (dto.getTipo() == TransactionType.TRANSFERENCIA) {
+            if (dto.getAccountDestinoId() == null) {
+                throw new BusinessException("Conta destino é obrigatória para transferências");
+            }
+            if (dto.getAccountId().equals(dto.getAccountDestinoId())) {
+                throw new BusinessException("Conta origem e destino não podem ser iguais");
+            }
+        }
+
+        Optional<AtomicTransactionRepository.Resultado> resultado = switch (dto.getTipo()) {
+            case DEPOSITO -> atomicTransactionRepository.depositar(
+                    dto.getAccountId(), dto.getValor(), dto.getDescricao());
+            case SAQUE -> atomicTransactionRepository.sacar(
+                    dto.getAccountId(), dto.getValor(), dto.getDescricao());
+            case TRANSFERENCIA -> atomicTransactionRepository.transferir(
+                    dto.getAccountId(), dto.getAccountDestinoId(), dto.getValor(), dto.getDescricao());
+        };
+
+        // Nada foi alterado: só agora se consulta o banco para explicar o motivo
+        AtomicTransactionRepository.Resultado gravado = resultado.orElseThrow(() -> atomicFailure(dto));
+        accountViewCache.evictAfterCommit(dto.getAccountId(), dto.getAccountDestinoId());
+
+        logger.info("Transação criada com sucesso. ID: {}", gravado.transactionId());
+        return new TransactionResponseDTO(gravado.transactionId(), dto.getTipo(), dto.getValor(), dto.getDescricao(),
+                dto.getAccountId(), gravado.numeroConta(), dto.getAccountDestinoId(), gravado.createdAt(), null);
+    }
+
+    private RuntimeException atomicFailure(TransactionRequestDTO dto) {
+        if (!accountRepository.existsById(dto.getAccountId())) {
+            return new ResourceNotFoundException("Conta não encontrada com ID: " + dto.getAccountId());
+        }
+        if (dto.getTipo() == TransactionType.TRANSFERENCIA && !accountRepository.existsById(dto.getAccountDestinoId())) {
+            return new ResourceNotFoundException("Conta não encontrada com ID: " + dto.getAccountDestinoId());
+        }
+        logger.warn("Saldo insuficiente na conta {} para {} de {}", dto.getAccountId(), dto.getTipo(), dto.getValor());
+        return new BusinessException(dto.getTipo() == TransactionType.SAQUE
+                ? "Saldo insuficiente para realizar o saque"
+                : "Saldo insuficiente para realizar a transferência");
+    }
+
+    private TransactionResponseDTO executeTransaction(TransactionRequestDTO transactionRequestDTO) {
         Account account = findAccountById(transactionRequestDTO.getAccountId());
 
+        if (transactionRequestDTO.getTipo() != TransactionType.DEPOSITO
+                && hotAccountBalanceManager.isSharded(account)) {
+            hotAccountBalanceManager.fold(account);
+        }
+
         validateTransaction(transactionRequestDTO, account);
 
-        Transaction transaction = convertToEntity(transactionRequestDTO, account);
+        Account accountDestino = transactionRequestDTO.getTipo() == TransactionType.TRANSFERENCIA
+                ? findAccountById(transactionRequestDTO.getAccountDestinoId())
+                : null;
 
-        processTransaction(transaction, account, transactionRequestDTO);
+        Transaction transaction = convertToEntity(transactionRequestDTO, account);
+        processTransaction(transaction, account, accountDestino, transactionRequestDTO, true);
+        if (accountDestino != null) {
+            accountRepository.save(accountDestino);
+        }
 
         Transaction savedTransaction = transactionRepository.save(transaction);
         accountRepository.save(account);
+        // Ids são gerados em memória: o flush grava e preenche createdAt antes da resposta
+        transactionRepository.flush();
+        postingBatchRepository.insertAll(Posting.legsOf(savedTransaction, contaTarifasId));
+        if (savedTransaction.getTarifa() != null) {
+            accountRepository.creditarSaldo(contaTarifasId, savedTransaction.getTarifa());
+        }
+        accountViewCache.evictAfterCommit(account.getId(), transactionRequestDTO.getAccountDestinoId(),
+                savedTransaction.getTarifa() != null ? contaTarifasId : null);
 
         logger.info("Transação criada com sucesso. ID: {}", savedTransaction.getId());
         return convertToResponseDTO(savedTransaction);
     }
 
+    @Override
+    public TransactionBatchResponseDTO createTransactionsBatch(List<TransactionRequestDTO> requests, BatchMode mode) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("Lote de transações vazio");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BusinessException("Lote excede o limite de " + maxBatchSize + " transações");
+        }
+
+        logger.info("Processando lote de {} transações no modo {}", requests.size(), mode);
+        if (ledgerEngine.isEnabled()) {
+            return submitBatchToLedger(requests, mode);
+        }
+        return transactionTemplate.execute(status -> executeBatch(requests, mode, status));
+    }
+
+    private TransactionBatchResponseDTO executeBatch(List<TransactionRequestDTO> requests, BatchMode mode,
+                                                     TransactionStatus status) {
+        Long[] accountIds = requests.stream()
+                .flatMap(dto -> Stream.of(dto.getAccountId(), dto.getAccountDestinoId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(Long[]::new);
+
+        accountLockManager.lockForTransaction(accountIds);
+
+        Map<Long, Account> accounts = accountRepository.findAllById(Arrays.asList(accountIds))
+                .stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        // Com todas as contas travadas, os sub-saldos são consolidados e o lote opera só em memória
+        accounts.values().stream()
+                .filter(hotAccountBalanceManager::isSharded)
+                .forEach(hotAccountBalanceManager::fold);
+
+        List<Transaction> processadas = new ArrayList<>(requests.size());
+        List<Transaction> lancamentos = new ArrayList<>(requests.size());
+        List<String> erros = new ArrayList<>(requests.size());
+        BigDecimal tarifas = BigDecimal.ZERO;
+        int rejeitadas = 0;
+
+        for (TransactionRequestDTO dto : requests) {
+            try {
+                validateConstraints(dto);
+                Account account = findBatchAccount(accounts, dto.getAccountId());
+                validateTransaction(dto, account);
+                Account accountDestino = dto.getTipo() == TransactionType.TRANSFERENCIA
+                        ? findBatchAccount(accounts, dto.getAccountDestinoId())
+                        : null;
+
+                Transaction transaction = convertToEntity(dto, account);
+                processTransaction(transaction, account, accountDestino, dto, false);
+                if (transaction.getTarifa() != null) {
+                    tarifas = tarifas.add(transaction.getTarifa());
+                }
+
+                lancamentos.add(transaction);
+                processadas.add(transaction);
+                erros.add(null);
+            } catch (BusinessException | ResourceNotFoundException ex) {
+                rejeitadas++;
+                processadas.add(null);
+                erros.add(ex.getMessage());
+            }
+        }
+
+        boolean cancelado = mode == BatchMode.ALL_OR_NOTHING && rejeitadas > 0;
+        if (cancelado) {
+            logger.warn("Lote cancelado: {} de {} transações rejeitadas", rejeitadas, requests.size());
+            status.setRollbackOnly();
+        } else {
+            transactionBatchRepository.insertAll(lancamentos);
+            postingBatchRepository.insertAll(lancamentos.stream()
+                    .flatMap(lancamento -> Posting.legsOf(lancamento, contaTarifasId).stream())
+                    .toList());
+            creditarTarifasDoLote(accounts, tarifas);
+            accountViewCache.evictAfterCommit(accountIds);
+            if (tarifas.signum() != 0) {
+                accountViewCache.evictAfterCommit(contaTarifasId);
+            }
+            logger.info("Lote processado. {} transações gravadas, {} rejeitadas",
+                    requests.size() - rejeitadas, rejeitadas);
+        }
+
+        List<TransactionBatchItemResultDTO> resultados = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Transaction transaction = processadas.get(i);
+            if (transaction == null) {
+                resultados.add(new TransactionBatchItemResultDTO(i, BatchItemStatus.REJEITADA, null, erros.get(i)));
+            } else if (cancelado) {
+                resultados.add(new TransactionBatchItemResultDTO(i, BatchItemStatus.CANCELADA, null,
+                        "Lote cancelado por falha em outra transação"));
+            } else {
+                resultados.add(new TransactionBatchItemResultDTO(i, BatchItemStatus.PROCESSADA,
+                        convertToResponseDTO(transaction), null));
+            }
+        }
+
+        int gravadas = cancelado ? 0 : requests.size() - rejeitadas;
+        return new TransactionBatchResponseDTO(mode, requests.size(), gravadas, rejeitadas, resultados);
+    }
+
+    private void creditarTarifasDoLote(Map<Long, Account> accounts, BigDecimal tarifas) {
+        if (tarifas.signum() == 0) {
+            return;
+        }
+        // Se a conta de tarifas já está carregada (e travada) no lote, o crédito vai para a entidade,
+        // senão um UPDATE atômico sobrescreveria ou seria sobrescrito pelo flush dela
+        Account contaTarifas = accounts.get(contaTarifasId);
+        if (contaTarifas != null) {
+            contaTarifas.setSaldo(contaTarifas.getSaldo().add(tarifas));
+        } else {
+            accountRepository.creditarSaldo(contaTarifasId, tarifas);
+        }
+    }
+
+    private TransactionBatchResponseDTO submitBatchToLedger(List<TransactionRequestDTO> requests, BatchMode mode) {
+        // O ledger confirma cada lançamento isoladamente; não há como desfazer os já aceitos
+        if (mode == BatchMode.ALL_OR_NOTHING) {
+            throw new BusinessException("Modo ALL_OR_NOTHING indisponível com o ledger em memória, use BEST_EFFORT");
+        }
+
+        List<CompletableFuture<TransactionResponseDTO>> futures = new ArrayList<>(requests.size());
+        for (TransactionRequestDTO dto : requests) {
+            try {
+                validateConstraints(dto);
+                futures.add(ledgerEngine.submitAsync(dto));
+            } catch (BusinessException ex) {
+                futures.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+
+        List<TransactionBatchItemResultDTO> resultados = new ArrayList<>(requests.size());
+        int rejeitadas = 0;
+        int indeterminadas = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                resultados.add(new TransactionBatchItemResultDTO(i, BatchItemStatus.PROCESSADA,
+                        futures.get(i).join(), null));
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof OutcomeUnknownException) {
+                    indeterminadas++;
+                    resultados.add(new TransactionBatchItemResultDTO(i, BatchItemStatus.INDETERMINADA, null,
+                            ex.getCause().getMessage()));
+                    continue;
+                }
+                rejeitadas++;
+                resultados.add(new TransactionBatchItemResultDTO(i, BatchItemStatus.REJEITADA, null,
+                        ex.getCause().getMessage()));
+            }
+        }
+
+        int processadas = requests.size() - rejeitadas - indeterminadas;
+        logger.info("Lote enviado ao ledger. {} transações aceitas, {} rejeitadas, {} indeterminadas",
+                processadas, rejeitadas, indeterminadas);
+        return new TransactionBatchResponseDTO(mode, requests.size(), processadas, rejeitadas, resultados);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public TransactionResponseDTO getTransactionById(Long id) {
         logger.debug("Buscando transação com ID: {}", id);
-        Transaction transaction = findTransactionById(id);
-        return convertToResponseDTO(transaction);
+        return transactionRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada com ID: " + id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransactionResponseDTO> getAllTransactions() {
         logger.debug("Listando todas as transações");
-        return transactionRepository.findAll()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return transactionRepository.findAllResponses();
     }
 
     @Override
@@ -74,20 +413,202 @@ public class TransactionServiceImpl implements TransactionService {
     public Page<TransactionResponseDTO> getAllTransactionsPaginated(Pageable pageable) {
         logger.debug("Listando transações com paginação: página {}, tamanho {}",
                 pageable.getPageNumber(), pageable.getPageSize());
-        return transactionRepository.findAll(pageable)
-                .map(this::convertToResponseDTO);
+        return transactionRepository.findAllResponses(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<TransactionResponseDTO> getAllTransactionsByCursor(String cursor, int size) {
+        KeysetCursor posicao = KeysetCursor.decode(cursor);
+        Limit limit = KeysetCursor.limitFor(size);
+        logger.debug("Listando transações por cursor: {}, tamanho {}", posicao, size);
+
+        List<TransactionResponseDTO> transactions = posicao == null
+                ? transactionRepository.findPage(limit)
+                : transactionRepository.findPageBefore(posicao.createdAt(), posicao.id(), limit);
+        return KeysetCursor.toPage(transactions, size, TransactionServiceImpl::cursorOf, Function.identity());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransactionResponseDTO> getTransactionsByAccountId(Long accountId) {
         logger.debug("Buscando transações da conta: {}", accountId);
-        findAccountById(accountId);
+        requireAccount(accountId);
+        return statement(accountId);
+    }
 
-        return transactionRepository.findByAccountIdOrderByCreatedAtDesc(accountId)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<TransactionResponseDTO>> getTransactionsByAccountIdIfModified(Long accountId,
+                                                                                     Predicate<String> notModified) {
+        // Lida antes do extrato e na mesma conexão, a versão nunca é mais nova que o conteúdo devolvido
+        String versao = transactionRepository.findStatementVersion(accountId)
+                .map(v -> v.getVersion() + "|" + v.getSubSaldos().toPlainString() + "|" + v.getUltimoLancamento())
+                .orElseThrow(() -> new ResourceNotFoundException("Conta não encontrada com ID: " + accountId));
+        if (notModified.test(versao)) {
+            logger.debug("Extrato da conta {} não modificado", accountId);
+            return Optional.empty();
+        }
+        logger.debug("Buscando transações da conta: {}", accountId);
+        return Optional.of(statement(accountId));
+    }
+
+    private List<TransactionResponseDTO> statement(Long accountId) {
+        List<TransactionResponseDTO> recentes = transactionRepository.findStatementByAccountId(accountId);
+        Optional<LocalDateTime> fronteira = transactionArchive.boundary();
+        if (fronteira.isEmpty()) {
+            return recentes;
+        }
+        List<TransactionResponseDTO> extrato = notArchived(recentes, fronteira.get());
+        List<TransactionResponseDTO> arquivadas = new ArrayList<>(
+                transactionArchive.findStatement(accountId, null, fronteira.get()));
+        Collections.reverse(arquivadas);
+        extrato.addAll(arquivadas);
+        return extrato;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<TransactionResponseDTO> getTransactionsByAccountIdByCursor(Long accountId, String cursor,
+                                                                                             int size) {
+        KeysetCursor posicao = KeysetCursor.decode(cursor);
+        Limit limit = KeysetCursor.limitFor(size);
+        logger.debug("Buscando extrato da conta {} por cursor: {}, tamanho {}", accountId, posicao, size);
+        requireAccount(accountId);
+
+        return KeysetCursor.toPage(statementPage(accountId, posicao, limit), size,
+                TransactionServiceImpl::cursorOf, Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void validateStatementExport(Long accountId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("Data inicial deve ser anterior ou igual à data final");
+        }
+        requireAccount(accountId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStatement(Long accountId, LocalDate from, LocalDate to, ExportFormat format,
+                                OutputStream output) throws IOException {
+        logger.info("Exportando extrato da conta {} de {} a {} em {}", accountId, from, to, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        LocalDateTime inicio = from.atStartOfDay();
+        LocalDateTime fim = to.plusDays(1).atStartOfDay();
+        long linhas = 0;
+
+        // Os dias arquivados vêm antes, lidos um segmento por vez
+        Optional<LocalDateTime> fronteira = transactionArchive.boundary();
+        if (fronteira.isPresent() && inicio.isBefore(fronteira.get())) {
+            LocalDateTime fimArquivo = fim.isBefore(fronteira.get()) ? fim : fronteira.get();
+            try (Stream<TransactionResponseDTO> arquivadas =
+                         transactionArchive.streamStatement(accountId, inicio, fimArquivo)) {
+                Iterator<TransactionResponseDTO> iterator = arquivadas.iterator();
+                while (iterator.hasNext()) {
+                    writeExportLine(writer, format, iterator.next());
+                    linhas++;
+                }
+            }
+        }
+
+        try (Stream<Transaction> transactions = transactionRepository.streamByAccountIdAndCreatedAtBetween(
+                accountId, inicio, fim)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                TransactionResponseDTO dto = convertToResponseDTO(transaction);
+                // Sem o detach, o contexto de persistência acumularia todas as linhas até o fim da exportação
+                entityManager.detach(transaction);
+                entityManager.detach(transaction.getAccount());
+
+                if (fronteira.isPresent() && dto.getCreatedAt().isBefore(fronteira.get())) {
+                    continue;
+                }
+                writeExportLine(writer, format, dto);
+                linhas++;
+            }
+        }
+        writer.flush();
+        logger.info("Extrato da conta {} exportado: {} linhas", accountId, linhas);
+    }
+
+    private void writeExportLine(Writer writer, ExportFormat format, TransactionResponseDTO dto) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, dto);
+        } else {
+            writer.write(objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, TransactionResponseDTO dto) throws IOException {
+        writer.write(String.join(",",
+                String.valueOf(dto.getId()),
+                dto.getTipo().name(),
+                dto.getValor().toPlainString(),
+                dto.getTarifa() != null ? dto.getTarifa().toPlainString() : "",
+                csvText(dto.getDescricao()),
+                String.valueOf(dto.getAccountId()),
+                csvText(dto.getNumeroConta()),
+                dto.getAccountDestinoId() != null ? String.valueOf(dto.getAccountDestinoId()) : "",
+                String.valueOf(dto.getCreatedAt())));
+        writer.write('\n');
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Página do extrato lida do banco e, quando ela alcança a fronteira do
+     * arquivo frio, completada com os dias arquivados.
+     */
+    private List<TransactionResponseDTO> statementPage(Long accountId, KeysetCursor posicao, Limit limit) {
+        Optional<LocalDateTime> fronteira = transactionArchive.boundary();
+        boolean soArquivo = posicao != null && fronteira.isPresent() && posicao.createdAt().isBefore(fronteira.get());
+        List<TransactionResponseDTO> recentes;
+        if (soArquivo) {
+            recentes = List.of();
+        } else if (posicao == null) {
+            recentes = transactionRepository.findStatementPage(accountId, limit);
+        } else {
+            recentes = transactionRepository.findStatementPageBefore(accountId, posicao.createdAt(), posicao.id(), limit);
+        }
+
+        // Relida depois da consulta: um dia arquivado nesse meio tempo é servido só pelo arquivo
+        fronteira = transactionArchive.boundary();
+        if (fronteira.isEmpty()) {
+            return recentes;
+        }
+        List<TransactionResponseDTO> pagina = notArchived(recentes, fronteira.get());
+        if (pagina.size() < limit.max()) {
+            boolean antesDaFronteira = posicao != null && posicao.createdAt().isBefore(fronteira.get());
+            pagina.addAll(transactionArchive.findStatementPageBefore(accountId,
+                    antesDaFronteira ? posicao.createdAt() : fronteira.get(),
+                    antesDaFronteira ? posicao.id() : Long.MIN_VALUE,
+                    limit.max() - pagina.size()));
+        }
+        return pagina;
+    }
+
+    private static List<TransactionResponseDTO> notArchived(List<TransactionResponseDTO> transactions,
+                                                            LocalDateTime fronteira) {
+        return transactions.stream()
+                .filter(transaction -> !transaction.getCreatedAt().isBefore(fronteira))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static KeysetCursor cursorOf(TransactionResponseDTO transaction) {
+        return new KeysetCursor(transaction.getCreatedAt(), transaction.getId());
     }
 
     private void validateTransaction(TransactionRequestDTO dto, Account account) {
@@ -103,9 +624,11 @@ public class TransactionServiceImpl implements TransactionService {
             if (dto.getAccountDestinoId() == null) {
                 throw new BusinessException("Conta destino é obrigatória para transferências");
             }
-            if (account.getSaldo().compareTo(dto.getValor()) < 0) {
+            BigDecimal tarifa = tarifaPara(dto);
+            BigDecimal debito = tarifa != null ? dto.getValor().add(tarifa) : dto.getValor();
+            if (account.getSaldo().compareTo(debito) < 0) {
                 logger.warn("Saldo insuficiente para transferência. Saldo: {}, Valor: {}",
-                        account.getSaldo(), dto.getValor());
+                        account.getSaldo(), debito);
                 throw new BusinessException("Saldo insuficiente para realizar a transferência");
             }
             if (dto.getAccountId().equals(dto.getAccountDestinoId())) {
@@ -114,11 +637,30 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
-    private void processTransaction(Transaction transaction, Account account, TransactionRequestDTO dto) {
+    private void validateConstraints(TransactionRequestDTO dto) {
+        Set<ConstraintViolation<TransactionRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BusinessException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private Account findBatchAccount(Map<Long, Account> accounts, Long id) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            throw new ResourceNotFoundException("Conta não encontrada com ID: " + id);
+        }
+        return account;
+    }
+
+    private void processTransaction(Transaction transaction, Account account, Account accountDestino,
+                                    TransactionRequestDTO dto, boolean usarSubSaldos) {
         switch (dto.getTipo()) {
             case DEPOSITO:
                 logger.debug("Processando depósito de {} na conta {}", dto.getValor(), account.getId());
-                account.setSaldo(account.getSaldo().add(dto.getValor()));
+                creditar(account, dto.getValor(), usarSubSaldos);
                 break;
 
             case SAQUE:
@@ -129,25 +671,41 @@ public class TransactionServiceImpl implements TransactionService {
             case TRANSFERENCIA:
                 logger.debug("Processando transferência de {} da conta {} para conta {}",
                         dto.getValor(), account.getId(), dto.getAccountDestinoId());
-                Account accountDestino = findAccountById(dto.getAccountDestinoId());
                 account.setSaldo(account.getSaldo().subtract(dto.getValor()));
-                accountDestino.setSaldo(accountDestino.getSaldo().add(dto.getValor()));
-                accountRepository.save(accountDestino);
-
-                Transaction transactionDestino = new Transaction();
-                transactionDestino.setTipo(TransactionType.DEPOSITO);
-                transactionDestino.setValor(dto.getValor());
-                transactionDestino.setDescricao("Transferência recebida de conta " + account.getNumeroConta());
-                transactionDestino.setAccount(accountDestino);
-                transactionDestino.setAccountDestinoId(account.getId());
-                transactionRepository.save(transactionDestino);
+                if (transaction.getTarifa() != null) {
+                    account.setSaldo(account.getSaldo().subtract(transaction.getTarifa()));
+                }
+                creditar(accountDestino, dto.getValor(), usarSubSaldos);
                 break;
+
+            default:
+                throw new BusinessException("Tipo de transação não suportado: " + dto.getTipo());
         }
     }
 
-    private Transaction findTransactionById(Long id) {
-        return transactionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada com ID: " + id));
+    private BigDecimal tarifaPara(TransactionRequestDTO dto) {
+        // Movimentações da própria conta de tarifas não são tarifadas
+        if (dto.getTipo() != TransactionType.TRANSFERENCIA || tarifaTransferencia.signum() <= 0
+                || Objects.equals(dto.getAccountId(), contaTarifasId)
+                || Objects.equals(dto.getAccountDestinoId(), contaTarifasId)) {
+            return null;
+        }
+        return tarifaTransferencia;
+    }
+
+    private void creditar(Account account, BigDecimal valor, boolean usarSubSaldos) {
+        if (usarSubSaldos && hotAccountBalanceManager.isSharded(account)) {
+            hotAccountBalanceManager.credit(account, valor);
+        } else {
+            account.setSaldo(account.getSaldo().add(valor));
+        }
+    }
+
+    // Só confere a existência da conta, o que o cache de contas responde sem ir ao banco
+    private void requireAccount(Long id) {
+        if (accountViewCache.findById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Conta não encontrada com ID: " + id);
+        }
     }
 
     private Account findAccountById(Long id) {
@@ -162,6 +720,7 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setDescricao(dto.getDescricao());
         transaction.setAccount(account);
         transaction.setAccountDestinoId(dto.getAccountDestinoId());
+        transaction.setTarifa(tarifaPara(dto));
         return transaction;
     }
 
@@ -174,7 +733,8 @@ public class TransactionServiceImpl implements TransactionService {
                 transaction.getAccount().getId(),
                 transaction.getAccount().getNumeroConta(),
                 transaction.getAccountDestinoId(),
-                transaction.getCreatedAt()
+                transaction.getCreatedAt(),
+                transaction.getTarifa()
         );
     }
 }
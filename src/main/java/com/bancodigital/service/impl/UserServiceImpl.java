@@ -7,6 +7,9 @@ import com.bancodigital.exception.ResourceNotFoundException;
 import com.bancodigital.model.User;
 import com.bancodigital.repository.UserRepository;
 import com.bancodigital.service.UserService;
+import com.bancodigital.service.cache.AccountViewCache;
+import com.bancodigital.service.cache.UserPrincipalCache;
+import com.bancodigital.service.search.UserSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +20,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +29,9 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AccountViewCache accountViewCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     @Transactional
@@ -36,9 +41,11 @@ public class UserServiceImpl implements UserService {
 
         User user = convertToEntity(userRequestDTO);
         User savedUser = userRepository.save(user);
+        UserResponseDTO response = convertToResponseDTO(savedUser);
+        userSearchIndex.indexAfterCommit(response);
 
         logger.info("Usuário criado com sucesso. ID: {}", savedUser.getId());
-        return convertToResponseDTO(savedUser);
+        return response;
     }
 
     @Override
@@ -53,10 +60,7 @@ public class UserServiceImpl implements UserService {
     @Transactional(readOnly = true)
     public List<UserResponseDTO> getAllUsers() {
         logger.debug("Listando todos os usuários");
-        return userRepository.findAll()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return userRepository.findAllResponses();
     }
 
     @Override
@@ -64,8 +68,17 @@ public class UserServiceImpl implements UserService {
     public Page<UserResponseDTO> getAllUsersPaginated(Pageable pageable) {
         logger.debug("Listando usuários com paginação: página {}, tamanho {}",
                 pageable.getPageNumber(), pageable.getPageSize());
-        return userRepository.findAll(pageable)
-                .map(this::convertToResponseDTO);
+        return userRepository.findAllResponses(pageable);
+    }
+
+    @Override
+    public List<UserResponseDTO> searchUsers(String query, int limit) {
+        String termo = query == null ? "" : query.strip();
+        if (termo.length() < 2) {
+            throw new BusinessException("A busca deve ter ao menos 2 caracteres");
+        }
+        logger.debug("Buscando usuários por: {}", termo);
+        return userSearchIndex.search(termo, limit);
     }
 
     @Override
@@ -86,11 +99,17 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("Email já cadastrado");
         }
 
+        String emailAnterior = user.getEmail();
         updateUserFields(user, userRequestDTO);
         User updatedUser = userRepository.save(user);
+        // O nome do titular faz parte das contas em cache
+        accountViewCache.evictUserAfterCommit(id);
+        userPrincipalCache.evictAfterCommit(emailAnterior, updatedUser.getEmail());
+        UserResponseDTO response = convertToResponseDTO(updatedUser);
+        userSearchIndex.indexAfterCommit(response);
 
         logger.info("Usuário {} atualizado com sucesso", id);
-        return convertToResponseDTO(updatedUser);
+        return response;
     }
 
     @Override
@@ -105,6 +124,9 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.delete(user);
+        accountViewCache.evictUserAfterCommit(id);
+        userSearchIndex.removeAfterCommit(id);
+        userPrincipalCache.evictAfterCommit(user.getEmail());
         logger.info("Usuário {} deletado com sucesso", id);
     }
 
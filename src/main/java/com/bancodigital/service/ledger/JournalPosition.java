@@ -0,0 +1,10 @@
+package com.bancodigital.service.ledger;
+
+public record JournalPosition(long segment, int offset) implements Comparable<JournalPosition> {
+
+    @Override
+    public int compareTo(JournalPosition other) {
+        int bySegment = Long.compare(segment, other.segment);
+        return bySegment != 0 ? bySegment : Integer.compare(offset, other.offset);
+    }
+}
@@ -0,0 +1,424 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.exception.OutcomeUnknownException;
+import com.bancodigital.exception.ResourceNotFoundException;
+import com.bancodigital.model.Account;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.repository.LedgerOffsetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger em memória com escritor único por partição.
+ * <p>
+ * As contas são distribuídas entre partições fixas; cada partição tem uma
+ * thread que é a única a alterar o saldo das suas contas. Toda operação é
+ * anexada ao {@link LedgerJournal} e a resposta só é liberada depois do
+ * fsync do grupo em que ela entrou. O {@link LedgerProjector} grava o
+ * journal em {@code tb_transactions}/{@code tb_accounts} de forma assíncrona.
+ * <p>
+ * Transferências são validadas e debitadas na partição da conta origem; o
+ * registro no journal descreve o lançamento inteiro, e o crédito é repassado
+ * à partição destino somente após o fsync.
+ * <p>
+ * Qualquer falha do journal para o ledger inteiro: nenhuma partição aceita
+ * ou processa comandos até o reinício, que refaz os saldos a partir do
+ * journal. Os comandos já anexados e ainda sem fsync terminam com
+ * {@link OutcomeUnknownException}, já que o fsync de outra partição pode
+ * tê-los tornado duráveis; enquanto isso, os saldos vêm do banco.
+ */
+@Component
+public class LedgerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    static final String OFFSET_NAME = "ledger-projector";
+
+    private final AccountRepository accountRepository;
+    private final LedgerOffsetRepository offsetRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final boolean enabled;
+    private final Path journalDirectory;
+    private final int segmentSize;
+    private final int groupSize;
+    private final int queueCapacity;
+    private final Map<Long, AccountState> accounts = new ConcurrentHashMap<>();
+
+    private LedgerJournal journal;
+    private Partition[] partitions;
+    private volatile RuntimeException failure;
+
+    public LedgerEngine(
+            AccountRepository accountRepository,
+            LedgerOffsetRepository offsetRepository,
+            SnowflakeIdGenerator idGenerator,
+            @Value("${banco.ledger.engine.enabled:false}") boolean enabled,
+            @Value("${banco.ledger.engine.journal-dir:./data/ledger}") String journalDirectory,
+            @Value("${banco.ledger.engine.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${banco.ledger.engine.partitions:4}") int partitionCount,
+            @Value("${banco.ledger.engine.group-size:256}") int groupSize,
+            @Value("${banco.ledger.engine.queue-capacity:10000}") int queueCapacity) {
+        this.accountRepository = accountRepository;
+        this.offsetRepository = offsetRepository;
+        this.idGenerator = idGenerator;
+        this.enabled = enabled;
+        this.journalDirectory = Path.of(journalDirectory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.groupSize = Math.max(1, groupSize);
+        this.queueCapacity = queueCapacity;
+        this.partitions = new Partition[Math.max(1, partitionCount)];
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new LedgerJournal(journalDirectory, segmentSize);
+        replay();
+
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i);
+            partitions[i].thread.start();
+        }
+        logger.info("Ledger em memória iniciado com {} partições", partitions.length);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        for (Partition partition : partitions) {
+            partition.running = false;
+        }
+        for (Partition partition : partitions) {
+            partition.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    LedgerJournal journal() {
+        return journal;
+    }
+
+    public TransactionResponseDTO submit(TransactionRequestDTO dto) {
+        try {
+            return submitAsync(dto).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public CompletableFuture<TransactionResponseDTO> submitAsync(TransactionRequestDTO dto) {
+        if (!enabled) {
+            throw new IllegalStateException("Ledger em memória desabilitado");
+        }
+        CompletableFuture<TransactionResponseDTO> future = new CompletableFuture<>();
+        if (dto.getAccountId() == null) {
+            future.completeExceptionally(new BusinessException("ID da conta é obrigatório"));
+            return future;
+        }
+        Partition partition = partitionOf(dto.getAccountId());
+        if (!partition.running) {
+            future.completeExceptionally(unavailable());
+            return future;
+        }
+        if (partition.queue.size() >= queueCapacity) {
+            future.completeExceptionally(new BusinessException("Ledger sobrecarregado, tente novamente"));
+            return future;
+        }
+        Command command = new Command(dto, future);
+        partition.queue.add(command);
+        // A partição pode ter parado e esvaziado a fila entre a verificação e o add
+        if (!partition.running && partition.queue.remove(command)) {
+            future.completeExceptionally(unavailable());
+        }
+        return future;
+    }
+
+    /**
+     * Saldo em memória, ou {@code null} se a conta ainda não foi carregada
+     * pelo ledger (nesse caso o saldo do banco está atualizado).
+     */
+    public BigDecimal saldoEmMemoria(Long accountId) {
+        // Depois de uma falha do journal o saldo em memória não é confiável; o banco recebe o que ficou durável
+        AccountState state = enabled && failure == null ? accounts.get(accountId) : null;
+        return state != null ? BigDecimal.valueOf(state.saldoCentavos, 2) : null;
+    }
+
+    private void replay() {
+        JournalPosition position = projectedPosition();
+        int replayed = 0;
+        List<LedgerJournal.Entry> entries;
+        while (!(entries = journal.read(position, 1000)).isEmpty()) {
+            for (LedgerJournal.Entry entry : entries) {
+                LedgerRecord record = entry.record();
+                AccountState origem = state(record.accountId());
+                origem.saldoCentavos += record.tipo() == TransactionType.DEPOSITO
+                        ? record.valorCentavos() : -record.valorCentavos();
+                if (record.tipo() == TransactionType.TRANSFERENCIA) {
+                    state(record.accountDestinoId()).saldoCentavos += record.valorCentavos();
+                }
+                position = entry.next();
+                replayed++;
+            }
+        }
+        logger.info("Replay do journal concluído: {} lançamentos ainda não projetados", replayed);
+    }
+
+    /**
+     * Data do lançamento mais antigo que já está no journal mas ainda não foi
+     * projetado no banco; vazio se não há nenhum (ou o ledger está desabilitado).
+     */
+    public Optional<LocalDateTime> oldestUnprojected() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return journal.read(projectedPosition(), 1).stream()
+                .findFirst()
+                .map(entry -> LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.record().timestamp()), ZONE));
+    }
+
+    JournalPosition projectedPosition() {
+        return offsetRepository.findById(OFFSET_NAME)
+                .map(offset -> new JournalPosition(offset.getSegmento(), offset.getPosicao()))
+                .orElseGet(journal::firstPosition);
+    }
+
+    private AccountState state(long accountId) {
+        return accounts.computeIfAbsent(accountId, id -> {
+            Account account = accountRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Conta não encontrada com ID: " + id));
+            return new AccountState(account.getNumeroConta(), toCentavos(account.getSaldo()));
+        });
+    }
+
+    private void failStop(RuntimeException cause) {
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+            failure = cause;
+        }
+        logger.error("Falha no journal do ledger em memória: todas as partições foram paradas. "
+                + "Reinicie a aplicação para refazer os saldos a partir do journal", cause);
+        for (Partition partition : partitions) {
+            partition.running = false;
+        }
+    }
+
+    private static BusinessException unavailable() {
+        return new BusinessException("Ledger indisponível, tente novamente");
+    }
+
+    private static OutcomeUnknownException outcomeUnknown() {
+        return new OutcomeUnknownException(
+                "Não foi possível confirmar a transação; consulte o extrato antes de repetir");
+    }
+
+    private Partition partitionOf(long accountId) {
+        return partitions[(int) Math.floorMod(accountId * 0x9E3779B97F4A7C15L >>> 32, partitions.length)];
+    }
+
+    private static long toCentavos(BigDecimal valor) {
+        try {
+            return valor.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new BusinessException("Valor deve ter no máximo duas casas decimais");
+        }
+    }
+
+    private static final class AccountState {
+
+        private final String numeroConta;
+        // Alterado apenas pela thread da partição dona da conta
+        private volatile long saldoCentavos;
+
+        private AccountState(String numeroConta, long saldoCentavos) {
+            this.numeroConta = numeroConta;
+            this.saldoCentavos = saldoCentavos;
+        }
+    }
+
+    private record Command(TransactionRequestDTO dto, CompletableFuture<TransactionResponseDTO> future) {
+    }
+
+    private record Credit(long accountId, long valorCentavos) {
+    }
+
+    private record Applied(Command command, TransactionResponseDTO response, Credit credit) {
+    }
+
+    private final class Partition implements Runnable {
+
+        // Sem limite para que créditos repassados entre partições nunca bloqueiem;
+        // o limite de comandos é aplicado em submitAsync
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Partition(int index) {
+            this.thread = new Thread(this, "ledger-partition-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Object> group = new ArrayList<>(groupSize);
+            List<Applied> applied = new ArrayList<>(groupSize);
+            while (running) {
+                try {
+                    Object first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    group.add(first);
+                    queue.drainTo(group, groupSize - 1);
+
+                    for (Object item : group) {
+                        if (failure != null) {
+                            break;
+                        }
+                        if (item instanceof Credit credit) {
+                            accounts.get(credit.accountId()).saldoCentavos += credit.valorCentavos();
+                        } else {
+                            apply((Command) item, applied);
+                        }
+                    }
+
+                    if (!applied.isEmpty()) {
+                        journal.force();
+                        for (Applied result : applied) {
+                            if (result.credit() != null) {
+                                partitionOf(result.credit().accountId()).queue.add(result.credit());
+                            }
+                            result.command().future().complete(result.response());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                } catch (RuntimeException e) {
+                    failStop(e);
+                    // Já estão no journal e podem ficar duráveis pelo fsync de outra partição
+                    applied.forEach(result -> result.command().future().completeExceptionally(outcomeUnknown()));
+                } finally {
+                    // Comandos do grupo que não chegaram a ser anexados (sem efeito se já concluídos)
+                    for (Object item : group) {
+                        if (item instanceof Command command) {
+                            command.future().completeExceptionally(unavailable());
+                        }
+                    }
+                    group.clear();
+                    applied.clear();
+                }
+            }
+
+            // Créditos pendentes só afetam a memória, descartada no reinício; o journal já os contém
+            Object pendente;
+            while ((pendente = queue.poll()) != null) {
+                if (pendente instanceof Command command) {
+                    command.future().completeExceptionally(unavailable());
+                }
+            }
+        }
+
+        private void apply(Command command, List<Applied> applied) {
+            TransactionRequestDTO dto = command.dto();
+            try {
+                long valor = toCentavos(dto.getValor());
+                AccountState origem = state(dto.getAccountId());
+                AccountState destino = null;
+
+                switch (dto.getTipo()) {
+                    case SAQUE -> {
+                        if (origem.saldoCentavos < valor) {
+                            throw new BusinessException("Saldo insuficiente para realizar o saque");
+                        }
+                    }
+                    case TRANSFERENCIA -> {
+                        if (dto.getAccountDestinoId() == null) {
+                            throw new BusinessException("Conta destino é obrigatória para transferências");
+                        }
+                        if (origem.saldoCentavos < valor) {
+                            throw new BusinessException("Saldo insuficiente para realizar a transferência");
+                        }
+                        if (dto.getAccountId().equals(dto.getAccountDestinoId())) {
+                            throw new BusinessException("Conta origem e destino não podem ser iguais");
+                        }
+                        // Carrega o destino antes de gravar no journal, para que a projeção não seja contada duas vezes
+                        destino = state(dto.getAccountDestinoId());
+                    }
+                }
+
+                long timestamp = System.currentTimeMillis();
+                LedgerRecord record = new LedgerRecord(
+                        idGenerator.nextId(),
+                        dto.getTipo(),
+                        dto.getAccountId(),
+                        destino != null ? dto.getAccountDestinoId() : 0L,
+                        valor,
+                        timestamp,
+                        dto.getDescricao());
+                // O saldo só muda depois que o registro entrou no journal: uma falha
+                // ao gravar (descrição longa, erro ao abrir segmento) não deixa o
+                // saldo em memória diferente do journal e do banco
+                journal.append(record);
+                origem.saldoCentavos += dto.getTipo() == TransactionType.DEPOSITO ? valor : -valor;
+
+                TransactionResponseDTO response = new TransactionResponseDTO(
+                        record.transactionId(),
+                        dto.getTipo(),
+                        dto.getValor(),
+                        dto.getDescricao(),
+                        dto.getAccountId(),
+                        origem.numeroConta,
+                        dto.getAccountDestinoId(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZONE),
+                        null);
+                Credit credit = destino != null ? new Credit(dto.getAccountDestinoId(), valor) : null;
+                applied.add(new Applied(command, response, credit));
+            } catch (BusinessException | ResourceNotFoundException ex) {
+                command.future().completeExceptionally(ex);
+            } catch (IllegalArgumentException ex) {
+                command.future().completeExceptionally(new BusinessException(ex.getMessage()));
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.model.enums.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only em arquivos mapeados em memória, dividido em segmentos
+ * de tamanho fixo.
+ * <p>
+ * Formato de cada registro: {@code [int tamanho][int crc32][payload]}. Um
+ * tamanho {@code 0} marca o fim dos dados gravados e {@code -1} indica que o
+ * restante do segmento foi pulado. Na abertura, o primeiro registro com CRC
+ * inválido é tratado como fim do journal (escrita interrompida).
+ */
+public class LedgerJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+
+    static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x4C444752; // "LDGR"
+    private static final int RECORD_OVERHEAD = 8;
+    private static final int FIXED_PAYLOAD = 8 + 1 + 8 + 8 + 8 + 8 + 2;
+    // Mesmo limite de tb_transactions.descricao (VARCHAR(500)): um registro aceito
+    // aqui sempre pode ser projetado. Em UTF-8, cada char UTF-16 ocupa até 3 bytes
+    static final int MAX_DESCRICAO_CHARS = 500;
+    private static final int MAX_DESCRICAO_BYTES = MAX_DESCRICAO_CHARS * 3;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private volatile Segment current;
+    private int writeOffset;
+    private volatile JournalPosition durable;
+
+    public LedgerJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_OVERHEAD + FIXED_PAYLOAD + MAX_DESCRICAO_BYTES) {
+            throw new IllegalArgumentException("Segmento do journal muito pequeno: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".journal")).toList()) {
+                long number = Long.parseLong(file.getFileName().toString().replaceAll("\\D", ""));
+                segments.put(number, Segment.open(file, segmentSize, false));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            current = createSegment(1);
+            writeOffset = HEADER_SIZE;
+        } else {
+            current = segments.lastEntry().getValue();
+            writeOffset = recoverWriteOffset(current);
+        }
+        durable = new JournalPosition(current.number, writeOffset);
+        logger.info("Journal do ledger aberto em {} (segmento {}, offset {})", directory, current.number, writeOffset);
+    }
+
+    public synchronized JournalPosition append(LedgerRecord record) {
+        byte[] descricao = encode(record.descricao());
+        int payloadSize = FIXED_PAYLOAD + descricao.length;
+        int recordSize = RECORD_OVERHEAD + payloadSize;
+
+        if (writeOffset + recordSize + 4 > segmentSize) {
+            roll();
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+        payload.putLong(record.transactionId());
+        payload.put((byte) record.tipo().ordinal());
+        payload.putLong(record.accountId());
+        payload.putLong(record.accountDestinoId());
+        payload.putLong(record.valorCentavos());
+        payload.putLong(record.timestamp());
+        payload.putShort((short) descricao.length);
+        payload.put(descricao);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+
+        MappedByteBuffer buffer = current.buffer;
+        buffer.put(writeOffset + RECORD_OVERHEAD, payload.array());
+        buffer.putInt(writeOffset + 4, (int) crc.getValue());
+        // O tamanho é gravado por último: enquanto for 0 o registro não existe
+        buffer.putInt(writeOffset, payloadSize);
+        writeOffset += recordSize;
+
+        return new JournalPosition(current.number, writeOffset);
+    }
+
+    /**
+     * Força para o disco tudo o que foi anexado até agora.
+     */
+    public void force() {
+        JournalPosition target;
+        Segment segment;
+        synchronized (this) {
+            target = new JournalPosition(current.number, writeOffset);
+            segment = current;
+        }
+        segment.buffer.force();
+        synchronized (this) {
+            if (target.compareTo(durable) > 0) {
+                durable = target;
+            }
+        }
+    }
+
+    public JournalPosition durablePosition() {
+        return durable;
+    }
+
+    public JournalPosition firstPosition() {
+        return new JournalPosition(segments.firstKey(), HEADER_SIZE);
+    }
+
+    /**
+     * Lê até {@code max} registros a partir de {@code from}, limitados à
+     * posição durável.
+     */
+    public List<Entry> read(JournalPosition from, int max) {
+        JournalPosition limit = durable;
+        List<Entry> entries = new ArrayList<>();
+        long segmentNumber = from.segment();
+        int offset = from.offset();
+
+        while (entries.size() < max && new JournalPosition(segmentNumber, offset).compareTo(limit) < 0) {
+            Segment segment = segments.get(segmentNumber);
+            if (segment == null) {
+                break;
+            }
+            int length = segment.buffer.getInt(offset);
+            if (length == END_OF_SEGMENT || length == 0) {
+                if (segmentNumber >= limit.segment()) {
+                    break;
+                }
+                segmentNumber++;
+                offset = HEADER_SIZE;
+                continue;
+            }
+            LedgerRecord record = decode(segment.buffer, offset + RECORD_OVERHEAD, length);
+            offset += RECORD_OVERHEAD + length;
+            entries.add(new Entry(record, new JournalPosition(segmentNumber, offset)));
+        }
+        return entries;
+    }
+
+    /**
+     * Remove segmentos totalmente projetados, anteriores ao informado.
+     */
+    public void deleteSegmentsBefore(long segmentNumber) {
+        for (Long number : List.copyOf(segments.keySet())) {
+            if (number >= segmentNumber || number == current.number) {
+                continue;
+            }
+            Segment segment = segments.remove(number);
+            try {
+                segment.close();
+                Files.deleteIfExists(segment.file);
+                logger.info("Segmento {} do journal removido", number);
+            } catch (IOException e) {
+                logger.warn("Falha ao remover segmento {} do journal: {}", number, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        current.buffer.force();
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private void roll() {
+        current.buffer.putInt(writeOffset, END_OF_SEGMENT);
+        current.buffer.force();
+        current = createSegment(current.number + 1);
+        writeOffset = HEADER_SIZE;
+    }
+
+    private Segment createSegment(long number) {
+        try {
+            Path file = directory.resolve(String.format("ledger-%020d.journal", number));
+            Segment segment = Segment.open(file, segmentSize, true);
+            segment.buffer.putInt(0, MAGIC);
+            segment.buffer.putLong(4, number);
+            segment.buffer.force();
+            segments.put(number, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar segmento do journal", e);
+        }
+    }
+
+    private int recoverWriteOffset(Segment segment) {
+        if (segment.buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Arquivo de journal inválido: " + segment.file);
+        }
+        int offset = HEADER_SIZE;
+        while (offset + RECORD_OVERHEAD < segmentSize) {
+            int length = segment.buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_OVERHEAD + length > segmentSize
+                    || !checksumMatches(segment.buffer, offset, length)) {
+                break;
+            }
+            offset += RECORD_OVERHEAD + length;
+        }
+        // Descarta restos de uma escrita interrompida depois do último registro válido
+        for (int i = offset; i < segmentSize; i++) {
+            segment.buffer.put(i, (byte) 0);
+        }
+        segment.buffer.force();
+        return offset;
+    }
+
+    private static boolean checksumMatches(MappedByteBuffer buffer, int offset, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(offset + RECORD_OVERHEAD, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    private static LedgerRecord decode(MappedByteBuffer buffer, int offset, int length) {
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        buffer.get(offset, payload.array());
+        long transactionId = payload.getLong();
+        TransactionType tipo = TransactionType.values()[payload.get()];
+        long accountId = payload.getLong();
+        long accountDestinoId = payload.getLong();
+        long valorCentavos = payload.getLong();
+        long timestamp = payload.getLong();
+        byte[] descricao = new byte[payload.getShort()];
+        payload.get(descricao);
+        return new LedgerRecord(transactionId, tipo, accountId, accountDestinoId,
+                valorCentavos, timestamp, descricao.length == 0 ? null : new String(descricao, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] encode(String descricao) {
+        if (descricao == null) {
+            return new byte[0];
+        }
+        if (descricao.length() > MAX_DESCRICAO_CHARS) {
+            throw new IllegalArgumentException("Descrição deve ter no máximo " + MAX_DESCRICAO_CHARS + " caracteres");
+        }
+        return descricao.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record Entry(LedgerRecord record, JournalPosition next) {
+    }
+
+    private static final class Segment implements Closeable {
+
+        private final long number;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long number, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int size, boolean create) throws IOException {
+            FileChannel channel = create
+                    ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            long number = Long.parseLong(file.getFileName().toString().replaceAll("\\D", ""));
+            return new Segment(number, file, channel, buffer);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.model.Account;
+import com.bancodigital.model.LedgerOffset;
+import com.bancodigital.model.Posting;
+import com.bancodigital.model.Transaction;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.repository.LedgerOffsetRepository;
+import com.bancodigital.repository.PostingBatchRepository;
+import com.bancodigital.repository.TransactionBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Projeta o journal do {@link LedgerEngine} nas tabelas relacionais.
+ * <p>
+ * Cada rodada lê um bloco de registros duráveis a partir da última posição
+ * projetada e, numa única transação, insere os lançamentos e suas postings,
+ * aplica os deltas agregados de saldo por conta e grava a nova posição em
+ * {@code tb_ledger_offsets}. Se a transação falhar, os registros daquele
+ * bloco passam a ser projetados um a um, para que os anteriores ao registro
+ * com problema avancem e o log aponte qual é ele, e as rodadas seguintes
+ * esperam cada vez mais (até {@code projection-max-backoff-ms}) antes de tentar de novo.
+ */
+@Component
+public class LedgerProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerProjector.class);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final String UPDATE_SALDO_SQL =
+            "UPDATE tb_accounts SET saldo = saldo + ?, version = version + 1 WHERE id = ?";
+
+    private final LedgerEngine ledgerEngine;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final PostingBatchRepository postingBatchRepository;
+    private final LedgerOffsetRepository offsetRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final long maxBackoffMs;
+
+    private JournalPosition projected;
+    // Fim do último bloco que falhou: até lá, um registro por transação
+    private JournalPosition isolarAte;
+    private int falhasSeguidas;
+    private long proximaTentativaNanos;
+
+    public LedgerProjector(
+            LedgerEngine ledgerEngine,
+            TransactionBatchRepository transactionBatchRepository,
+            PostingBatchRepository postingBatchRepository,
+            LedgerOffsetRepository offsetRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${banco.ledger.engine.projection-block-size:2000}") int blockSize,
+            @Value("${banco.ledger.engine.projection-max-backoff-ms:60000}") long maxBackoffMs) {
+        this.ledgerEngine = ledgerEngine;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.postingBatchRepository = postingBatchRepository;
+        this.offsetRepository = offsetRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blockSize = Math.max(1, blockSize);
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${banco.ledger.engine.projection-interval-ms:200}")
+    public void project() {
+        if (!ledgerEngine.isEnabled()) {
+            return;
+        }
+        if (falhasSeguidas > 0 && System.nanoTime() - proximaTentativaNanos < 0) {
+            return;
+        }
+        try {
+            if (projected == null) {
+                projected = ledgerEngine.projectedPosition();
+            }
+            long segmentoInicial = projected.segment();
+
+            List<LedgerJournal.Entry> block;
+            while (!(block = ledgerEngine.journal().read(projected, tamanhoDoBloco())).isEmpty()) {
+                List<LedgerJournal.Entry> entries = block;
+                JournalPosition next = entries.get(entries.size() - 1).next();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> projectBlock(entries, next));
+                } catch (RuntimeException ex) {
+                    falhou(entries, next, ex);
+                    return;
+                }
+                projected = next;
+                falhasSeguidas = 0;
+                logger.debug("Projetados {} lançamentos do journal até {}", entries.size(), next);
+            }
+
+            if (projected.segment() > segmentoInicial) {
+                ledgerEngine.journal().deleteSegmentsBefore(projected.segment());
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao projetar o journal do ledger: {}", ex.getMessage());
+        }
+    }
+
+    private int tamanhoDoBloco() {
+        if (isolarAte != null && projected.compareTo(isolarAte) >= 0) {
+            isolarAte = null;
+        }
+        return isolarAte != null ? 1 : blockSize;
+    }
+
+    private void falhou(List<LedgerJournal.Entry> entries, JournalPosition next, RuntimeException ex) {
+        falhasSeguidas++;
+        long esperaMs = Math.min(maxBackoffMs, 1_000L << Math.min(falhasSeguidas - 1, 6));
+        proximaTentativaNanos = System.nanoTime() + esperaMs * 1_000_000;
+        if (entries.size() > 1) {
+            isolarAte = next;
+            logger.warn("Falha ao projetar {} lançamentos a partir de {}, projetando um a um: {}",
+                    entries.size(), projected, ex.getMessage());
+        } else {
+            logger.error("Lançamento {} em {} não pôde ser projetado ({} falhas seguidas, nova tentativa em {} ms): {}",
+                    entries.get(0).record().transactionId(), projected, falhasSeguidas, esperaMs, ex.getMessage());
+        }
+    }
+
+    private void projectBlock(List<LedgerJournal.Entry> entries, JournalPosition next) {
+        List<Transaction> lancamentos = new ArrayList<>(entries.size());
+        List<Posting> postings = new ArrayList<>(entries.size() * 2);
+        // Ordenado por id para que o UPDATE das contas siga sempre a mesma ordem
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+
+        for (LedgerJournal.Entry entry : entries) {
+            LedgerRecord record = entry.record();
+            BigDecimal valor = BigDecimal.valueOf(record.valorCentavos(), 2);
+            LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZONE);
+            boolean transferencia = record.tipo() == TransactionType.TRANSFERENCIA;
+
+            Transaction lancamento = lancamento(record.transactionId(), record.tipo(), valor, descricao(record),
+                    record.accountId(), transferencia ? record.accountDestinoId() : null, createdAt);
+            lancamentos.add(lancamento);
+            // O ledger em memória não cobra tarifa, então não há conta de tarifas
+            for (Posting posting : Posting.legsOf(lancamento, null)) {
+                postings.add(posting);
+                deltas.merge(posting.getAccount().getId(), posting.getValor(), BigDecimal::add);
+            }
+        }
+
+        transactionBatchRepository.insertAll(lancamentos);
+        postingBatchRepository.insertAll(postings);
+        jdbcTemplate.batchUpdate(UPDATE_SALDO_SQL, deltas.entrySet().stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList());
+        offsetRepository.save(new LedgerOffset(LedgerEngine.OFFSET_NAME, next.segment(), next.offset()));
+    }
+
+    /**
+     * Journals gravados antes do limite de {@link LedgerJournal#MAX_DESCRICAO_CHARS}
+     * podem ter descrições maiores que a coluna; elas são truncadas para que o
+     * lançamento, e o saldo, cheguem ao banco.
+     */
+    private static String descricao(LedgerRecord record) {
+        String descricao = record.descricao();
+        if (descricao == null || descricao.length() <= LedgerJournal.MAX_DESCRICAO_CHARS) {
+            return descricao;
+        }
+        int fim = LedgerJournal.MAX_DESCRICAO_CHARS;
+        if (Character.isHighSurrogate(descricao.charAt(fim - 1))) {
+            fim--;
+        }
+        logger.warn("Descrição do lançamento {} truncada para {} caracteres na projeção", record.transactionId(), fim);
+        return descricao.substring(0, fim);
+    }
+
+    private static Transaction lancamento(long id, TransactionType tipo, BigDecimal valor, String descricao,
+                                          long accountId, Long accountDestinoId, LocalDateTime createdAt) {
+        Account account = new Account();
+        account.setId(accountId);
+        return new Transaction(id, tipo, valor, descricao, account, accountDestinoId, null, createdAt);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.model.enums.TransactionType;
+
+/**
+ * Lançamento gravado no journal do ledger. Valores em centavos; o id da
+ * conta destino é {@code 0} quando não se aplica.
+ */
+public record LedgerRecord(
+        long transactionId,
+        TransactionType tipo,
+        long accountId,
+        long accountDestinoId,
+        long valorCentavos,
+        long timestamp,
+        String descricao
+) {
+}
@@ -0,0 +1,66 @@
+package com.bancodigital.service.pagination;
+
+import com.bancodigital.dto.response.CursorPageResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Posição de uma página por chave ({@code createdAt}, {@code id}). A próxima
+ * página é buscada com {@code WHERE (created_at, id) < cursor} (ou {@code >},
+ * conforme a ordem) sobre um índice nessas colunas, sem OFFSET, então o custo
+ * não cresce com a profundidade da navegação.
+ * <p>
+ * O cliente recebe o cursor codificado em Base64 e deve tratá-lo como opaco.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return o cursor, ou {@code null} para a primeira página (cursor ausente ou vazio)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+
+    /**
+     * Limite da consulta: um item além da página, para saber se há próxima.
+     */
+    public static Limit limitFor(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(size + 1);
+    }
+
+    public static <E, T> CursorPageResponseDTO<T> toPage(List<E> rows, int size, Function<E, KeysetCursor> key,
+                                                         Function<E, T> mapper) {
+        List<E> page = rows.size() > size ? rows.subList(0, size) : rows;
+        String next = rows.size() > size ? key.apply(page.get(size - 1)).encode() : null;
+        return new CursorPageResponseDTO<>(page.stream().map(mapper).toList(), next);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bancodigital.service.partition;
+
+import com.bancodigital.repository.TransactionPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Mantém as partições mensais de {@code tb_transactions}: cria o mês corrente
+ * e os próximos com antecedência e, se configurado, desanexa os meses mais
+ * antigos que a retenção. Sem particionamento (H2, bases ainda não migradas)
+ * não faz nada.
+ */
+@Component
+public class TransactionPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionMaintenance.class);
+
+    private final TransactionPartitionRepository partitionRepository;
+    private final boolean enabled;
+    private final int mesesAFrente;
+    private final int desanexarAposMeses;
+
+    public TransactionPartitionMaintenance(
+            TransactionPartitionRepository partitionRepository,
+            @Value("${banco.transactions.partitions.enabled:true}") boolean enabled,
+            @Value("${banco.transactions.partitions.months-ahead:3}") int mesesAFrente,
+            @Value("${banco.transactions.partitions.detach-after-months:0}") int desanexarAposMeses) {
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.mesesAFrente = Math.max(1, mesesAFrente);
+        this.desanexarAposMeses = desanexarAposMeses;
+    }
+
+    @Scheduled(fixedDelayString = "${banco.transactions.partitions.check-interval-ms:3600000}")
+    public void maintain() {
+        if (enabled && partitionRepository.isPartitioned()) {
+            maintain(YearMonth.now());
+        }
+    }
+
+    void maintain(YearMonth atual) {
+        for (int i = 0; i <= mesesAFrente; i++) {
+            YearMonth mes = atual.plusMonths(i);
+            try {
+                if (partitionRepository.createMonth(mes)) {
+                    logger.info("Partição {} criada", TransactionPartitionRepository.tableName(mes));
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Falha ao criar a partição de {}: {}", mes, ex.getMessage());
+            }
+        }
+
+        if (desanexarAposMeses > 0) {
+            YearMonth limite = atual.minusMonths(desanexarAposMeses);
+            partitionRepository.findMonths().stream()
+                    .filter(mes -> mes.isBefore(limite))
+                    .forEach(this::detach);
+        }
+
+        if (partitionRepository.defaultPartitionHasRows()) {
+            logger.warn("tb_transactions_default tem lançamentos: faltou criar partições mensais a tempo");
+        }
+    }
+
+    private void detach(YearMonth mes) {
+        try {
+            partitionRepository.detachMonth(mes);
+            logger.info("Partição {} desanexada de tb_transactions", TransactionPartitionRepository.tableName(mes));
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao desanexar a partição de {}: {}", mes, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bancodigital.service.rollup;
+
+import com.bancodigital.repository.DailyRollupRepository;
+import com.bancodigital.service.ledger.LedgerEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Consolida em {@code tb_account_daily_totals} cada dia já fechado, a partir
+ * do dia seguinte ao checkpoint. Um dia só é consolidado depois da carência,
+ * para que lançamentos com data do fim do dia e commit logo após a meia-noite
+ * entrem no total.
+ * <p>
+ * Com o ledger em memória ativo nesta instância, o job também não passa do
+ * dia anterior ao lançamento mais antigo ainda não projetado: projeções
+ * atrasadas (backoff, replay do journal no início) não ficam de fora.
+ * Além disso, a cada execução os últimos {@code refold-days} dias já
+ * consolidados são refeitos. Um lançamento que chegue ao banco com data
+ * anterior a essa janela (por exemplo, de um ledger em memória rodando em
+ * outra instância e parado por mais tempo) só entra no resumo se o dia for
+ * reconsolidado.
+ * <p>
+ * O resumo da conta não depende do job estar em dia: o que ainda não foi
+ * consolidado é somado direto das postings.
+ */
+@Component
+public class DailyRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyRollupJob.class);
+
+    private final DailyRollupRepository dailyRollupRepository;
+    private final LedgerEngine ledgerEngine;
+    private final boolean enabled;
+    private final Duration carencia;
+    private final int maxDiasPorExecucao;
+    private final int diasRefeitos;
+
+    public DailyRollupJob(
+            DailyRollupRepository dailyRollupRepository,
+            LedgerEngine ledgerEngine,
+            @Value("${banco.rollups.enabled:true}") boolean enabled,
+            @Value("${banco.rollups.grace-minutes:10}") long graceMinutes,
+            @Value("${banco.rollups.max-days-per-run:31}") int maxDiasPorExecucao,
+            @Value("${banco.rollups.refold-days:2}") int diasRefeitos) {
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.ledgerEngine = ledgerEngine;
+        this.enabled = enabled;
+        this.carencia = Duration.ofMinutes(graceMinutes);
+        this.maxDiasPorExecucao = Math.max(1, maxDiasPorExecucao);
+        this.diasRefeitos = Math.max(0, diasRefeitos);
+    }
+
+    @Scheduled(fixedDelayString = "${banco.rollups.interval-ms:300000}")
+    public void foldClosedDays() {
+        if (enabled) {
+            foldClosedDays(LocalDateTime.now());
+        }
+    }
+
+    int foldClosedDays(LocalDateTime agora) {
+        LocalDate ultimoFechado = agora.minus(carencia).toLocalDate().minusDays(1);
+        Optional<LocalDate> naoProjetado = ledgerEngine.oldestUnprojected().map(LocalDateTime::toLocalDate);
+        if (naoProjetado.isPresent() && !naoProjetado.get().isAfter(ultimoFechado)) {
+            ultimoFechado = naoProjetado.get().minusDays(1);
+            logger.debug("Consolidação limitada a {}: há lançamentos do ledger ainda não projetados", ultimoFechado);
+        }
+
+        Optional<LocalDate> ultimoConsolidado = dailyRollupRepository.findLastFoldedDay();
+        if (ultimoConsolidado.isPresent() && diasRefeitos > 0) {
+            LocalDate fim = ultimoConsolidado.get().isAfter(ultimoFechado) ? ultimoFechado : ultimoConsolidado.get();
+            for (LocalDate dia = ultimoConsolidado.get().minusDays(diasRefeitos - 1); !dia.isAfter(fim);
+                 dia = dia.plusDays(1)) {
+                if (!fold(dia)) {
+                    return 0;
+                }
+            }
+        }
+
+        Optional<LocalDate> proximo = ultimoConsolidado
+                .map(dia -> dia.plusDays(1))
+                .or(dailyRollupRepository::findFirstTransactionDay);
+        if (proximo.isEmpty()) {
+            return 0;
+        }
+
+        int consolidados = 0;
+        for (LocalDate dia = proximo.get();
+             !dia.isAfter(ultimoFechado) && consolidados < maxDiasPorExecucao;
+             dia = dia.plusDays(1)) {
+            if (!fold(dia)) {
+                break;
+            }
+            consolidados++;
+        }
+        if (consolidados > 0) {
+            logger.info("{} dias consolidados nos totais diários das contas", consolidados);
+        }
+        return consolidados;
+    }
+
+    private boolean fold(LocalDate dia) {
+        try {
+            int linhas = dailyRollupRepository.foldDay(dia);
+            logger.debug("Dia {} consolidado: {} totais por conta", dia, linhas);
+            return true;
+        } catch (RuntimeException ex) {
+            // Outra instância pode estar consolidando o mesmo dia; a próxima execução retoma daqui
+            logger.warn("Falha ao consolidar os totais de {}: {}", dia, ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.bancodigital.service.search;
+
+import com.bancodigital.dto.response.UserResponseDTO;
+import com.bancodigital.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para a busca de usuários por parte do nome, do email ou
+ * do CPF. Cada campo é normalizado (minúsculas, sem acentos; o CPF só com
+ * dígitos) e indexado por trigramas, para buscas por trecho, e por termos
+ * ordenados, para buscas por prefixo com menos de três caracteres.
+ * <p>
+ * O índice é montado na inicialização e atualizado por {@code UserServiceImpl}
+ * depois do commit de cada inclusão, alteração ou exclusão. Alterações feitas
+ * por outras instâncias só aparecem na próxima reconstrução periódica.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern SEPARADORES_EMAIL = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern CPF_FORMATADO = Pattern.compile("[0-9.\\-/]*[0-9][0-9.\\-/]*");
+
+    private static final int EXATO = 100;
+    private static final int PREFIXO_CAMPO = 60;
+    private static final int PREFIXO_TERMO = 40;
+    private static final int TRECHO = 10;
+
+    private static final Comparator<Resultado> RELEVANCIA = Comparator.comparingInt(Resultado::pontos).reversed()
+            .thenComparing(resultado -> resultado.entrada().nome())
+            .thenComparing(resultado -> resultado.entrada().usuario().getId());
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxResults;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Consumer<Indice>> pendentes = new ArrayList<>();
+    private Indice indice = new Indice();
+    private boolean reconstruindo;
+
+    public UserSearchIndex(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banco.users.search.max-results:50}") int maxResults,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        // Carga fora de readOnly para ler do primário, não de uma réplica atrasada
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxResults = Math.max(1, maxResults);
+        Gauge.builder("banco.users.search.indexed", this, UserSearchIndex::size)
+                .description("Usuários no índice de busca")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void build() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${banco.users.search.refresh-interval-ms:600000}",
+            initialDelayString = "${banco.users.search.refresh-interval-ms:600000}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao reconstruir o índice de busca de usuários: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega todos os usuários do banco em um índice novo. Alterações
+     * registradas enquanto a carga roda são reaplicadas sobre ele antes da
+     * troca, para que nenhuma se perca entre a leitura e a publicação.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            reconstruindo = true;
+            pendentes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Indice novo = new Indice();
+        try {
+            List<UserResponseDTO> usuarios = transactionTemplate.execute(status -> userRepository.findAllResponses());
+            if (usuarios != null) {
+                usuarios.forEach(novo::put);
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                reconstruindo = false;
+                pendentes.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendentes.forEach(alteracao -> alteracao.accept(novo));
+            pendentes.clear();
+            indice = novo;
+            reconstruindo = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de busca de usuários reconstruído com {} usuários", novo.entradas.size());
+    }
+
+    /**
+     * Inclui ou atualiza o usuário no índice ao fim da transação ativa, se ela
+     * for confirmada. Fora de uma transação, atualiza na hora.
+     */
+    public void indexAfterCommit(UserResponseDTO usuario) {
+        UserResponseDTO copia = copy(usuario);
+        afterCommit(() -> apply(indice -> indice.put(copia)));
+    }
+
+    /**
+     * Remove o usuário do índice ao fim da transação ativa, se ela for confirmada.
+     */
+    public void removeAfterCommit(Long userId) {
+        if (userId != null) {
+            afterCommit(() -> apply(indice -> indice.remove(userId)));
+        }
+    }
+
+    /**
+     * Usuários que contêm todos os termos da busca em algum dos campos, do
+     * mais relevante para o menos: igualdade, prefixo do campo, prefixo de
+     * uma palavra e, com três caracteres ou mais, qualquer trecho.
+     */
+    public List<UserResponseDTO> search(String query, int limit) {
+        List<String> termos = terms(query);
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+        int maximo = Math.min(maxResults, Math.max(1, limit));
+
+        lock.readLock().lock();
+        try {
+            return indice.search(termos, maximo).stream()
+                    .map(UserSearchIndex::copy)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indice.entradas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Indice> alteracao) {
+        lock.writeLock().lock();
+        try {
+            alteracao.accept(indice);
+            if (reconstruindo) {
+                pendentes.add(alteracao);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> terms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        List<String> termos = new ArrayList<>();
+        for (String termo : ESPACOS.split(normalize(query))) {
+            if (termo.isEmpty()) {
+                continue;
+            }
+            // "123.456.789-01" busca pelo CPF só com dígitos
+            termos.add(CPF_FORMATADO.matcher(termo).matches() ? digits(termo) : termo);
+        }
+        return termos;
+    }
+
+    static String normalize(String texto) {
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT).strip()).replaceAll(" ");
+    }
+
+    private static String digits(String texto) {
+        StringBuilder digitos = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
+    private static void afterCommit(Runnable alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alteracao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                alteracao.run();
+            }
+        });
+    }
+
+    // As entradas são compartilhadas entre requisições e o DTO é mutável
+    private static UserResponseDTO copy(UserResponseDTO usuario) {
+        return new UserResponseDTO(usuario.getId(), usuario.getNome(), usuario.getCpf(), usuario.getEmail(),
+                usuario.getTelefone(), usuario.getCreatedAt());
+    }
+
+    private record Entrada(UserResponseDTO usuario, String nome, String email, String cpf, Set<String> termos) {
+
+        static Entrada of(UserResponseDTO usuario) {
+            String nome = usuario.getNome() == null ? "" : normalize(usuario.getNome());
+            String email = usuario.getEmail() == null ? "" : normalize(usuario.getEmail());
+            String cpf = usuario.getCpf() == null ? "" : digits(usuario.getCpf());
+
+            Set<String> termos = new HashSet<>();
+            termos.addAll(List.of(ESPACOS.split(nome)));
+            termos.addAll(List.of(SEPARADORES_EMAIL.split(email)));
+            termos.add(email);
+            termos.add(cpf);
+            termos.remove("");
+            return new Entrada(usuario, nome, email, cpf, termos);
+        }
+
+        Set<String> trigrams() {
+            Set<String> trigramas = new HashSet<>();
+            addTrigrams(trigramas, nome);
+            addTrigrams(trigramas, email);
+            addTrigrams(trigramas, cpf);
+            return trigramas;
+        }
+
+        int score(String termo) {
+            int melhor = Math.max(score(nome, termo), Math.max(score(email, termo), score(cpf, termo)));
+            if (melhor < PREFIXO_TERMO) {
+                for (String palavra : termos) {
+                    if (palavra.startsWith(termo)) {
+                        return PREFIXO_TERMO;
+                    }
+                }
+            }
+            return melhor;
+        }
+
+        private static int score(String campo, String termo) {
+            if (campo.equals(termo)) {
+                return EXATO;
+            }
+            if (campo.startsWith(termo)) {
+                return PREFIXO_CAMPO;
+            }
+            return termo.length() >= 3 && campo.contains(termo) ? TRECHO : 0;
+        }
+    }
+
+    private record Resultado(Entrada entrada, int pontos) {
+    }
+
+    private static void addTrigrams(Set<String> trigramas, String campo) {
+        for (int i = 0; i + 3 <= campo.length(); i++) {
+            trigramas.add(campo.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * Estruturas do índice, protegidas pelo lock de {@link UserSearchIndex}.
+     */
+    private static final class Indice {
+
+        private final Map<Long, Entrada> entradas = new HashMap<>();
+        private final Map<String, Set<Long>> trigramas = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> termos = new TreeMap<>();
+
+        void put(UserResponseDTO usuario) {
+            remove(usuario.getId());
+            Entrada entrada = Entrada.of(usuario);
+            entradas.put(usuario.getId(), entrada);
+            for (String trigrama : entrada.trigrams()) {
+                trigramas.computeIfAbsent(trigrama, chave -> new HashSet<>()).add(usuario.getId());
+            }
+            for (String termo : entrada.termos()) {
+                termos.computeIfAbsent(termo, chave -> new HashSet<>()).add(usuario.getId());
+            }
+        }
+
+        void remove(Long id) {
+            Entrada entrada = entradas.remove(id);
+            if (entrada == null) {
+                return;
+            }
+            for (String trigrama : entrada.trigrams()) {
+                removePosting(trigramas, trigrama, id);
+            }
+            for (String termo : entrada.termos()) {
+                removePosting(termos, termo, id);
+            }
+        }
+
+        List<UserResponseDTO> search(List<String> consulta, int limite) {
+            // O termo mais seletivo escolhe os candidatos; os demais só pontuam
+            Collection<Long> candidatos = null;
+            for (String termo : consulta) {
+                Collection<Long> doTermo = candidates(termo);
+                if (candidatos == null || doTermo.size() < candidatos.size()) {
+                    candidatos = doTermo;
+                }
+            }
+
+            PriorityQueue<Resultado> melhores = new PriorityQueue<>(RELEVANCIA.reversed());
+            for (Long id : candidatos) {
+                Entrada entrada = entradas.get(id);
+                int pontos = 0;
+                for (String termo : consulta) {
+                    int doTermo = entrada.score(termo);
+                    if (doTermo == 0) {
+                        pontos = 0;
+                        break;
+                    }
+                    pontos += doTermo;
+                }
+                if (pontos > 0) {
+                    melhores.add(new Resultado(entrada, pontos));
+                    if (melhores.size() > limite) {
+                        melhores.poll();
+                    }
+                }
+            }
+
+            List<Resultado> ordenados = new ArrayList<>(melhores);
+            ordenados.sort(RELEVANCIA);
+            return ordenados.stream().map(resultado -> resultado.entrada().usuario()).toList();
+        }
+
+        // Superconjunto dos usuários que atendem ao termo; a pontuação confirma cada um
+        private Collection<Long> candidates(String termo) {
+            if (termo.length() < 3) {
+                Set<Long> ids = new HashSet<>();
+                termos.subMap(termo, true, termo + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+                return ids;
+            }
+            Set<Long> menor = null;
+            for (int i = 0; i + 3 <= termo.length(); i++) {
+                Set<Long> ids = trigramas.get(termo.substring(i, i + 3));
+                if (ids == null) {
+                    return Set.of();
+                }
+                if (menor == null || ids.size() < menor.size()) {
+                    menor = ids;
+                }
+            }
+            return menor;
+        }
+
+        private static void removePosting(Map<String, Set<Long>> postings, String chave, Long id) {
+            Set<Long> ids = postings.get(chave);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(chave);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Esquema inicial, equivalente ao que o ddl-auto=update gerava a partir das entidades
+-- da versão que ainda não usava Flyway. Bancos criados por ela entram com baseline nesta
+-- versão (spring.flyway.baseline-on-migrate), então tudo o que veio depois fica da V2 em diante.
+
+CREATE TABLE tb_users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome       VARCHAR(100) NOT NULL,
+    cpf        VARCHAR(11)  NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    senha      VARCHAR(255) NOT NULL,
+    telefone   VARCHAR(15)  NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_cpf UNIQUE (cpf),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE tb_accounts (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    numero_conta VARCHAR(255)   NOT NULL,
+    agencia      VARCHAR(255)   NOT NULL,
+    saldo        NUMERIC(15, 2) NOT NULL,
+    user_id      BIGINT         NOT NULL,
+    created_at   TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_accounts PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_numero_conta UNIQUE (numero_conta),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES tb_users (id)
+);
+
+CREATE TABLE tb_transactions (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    tipo               VARCHAR(255)   NOT NULL,
+    valor              NUMERIC(15, 2) NOT NULL,
+    descricao          VARCHAR(500),
+    account_id         BIGINT         NOT NULL,
+    account_destino_id BIGINT,
+    created_at         TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_transactions PRIMARY KEY (id),
+    CONSTRAINT ck_transactions_tipo CHECK (tipo IN ('DEPOSITO', 'SAQUE', 'TRANSFERENCIA')),
+    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES tb_accounts (id)
+);
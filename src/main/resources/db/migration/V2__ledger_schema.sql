@@ -0,0 +1,75 @@
+-- Acréscimos ao esquema base: ids Snowflake, saldo em sub-saldos com controle de versão,
+-- tarifa, partidas dobradas, chaves de idempotência e posição do diário. As pernas dos
+-- lançamentos já existentes são geradas aqui, uma única vez.
+--
+-- Os ids de contas e transações passam a ser gerados pela aplicação; os já gravados pela
+-- IDENTITY continuam válidos (são bem menores que qualquer id Snowflake).
+
+ALTER TABLE tb_accounts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tb_accounts ADD COLUMN slots_saldo INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE tb_accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_accounts_created_id ON tb_accounts (created_at, id);
+
+CREATE TABLE tb_account_balance_slots (
+    id         BIGINT         NOT NULL,
+    account_id BIGINT         NOT NULL,
+    slot       INTEGER        NOT NULL,
+    saldo      NUMERIC(15, 2) NOT NULL,
+    CONSTRAINT pk_account_balance_slots PRIMARY KEY (id),
+    CONSTRAINT uk_account_balance_slots_account_slot UNIQUE (account_id, slot),
+    CONSTRAINT fk_account_balance_slots_account FOREIGN KEY (account_id) REFERENCES tb_accounts (id)
+);
+
+ALTER TABLE tb_transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tb_transactions ADD COLUMN tarifa NUMERIC(15, 2);
+
+CREATE INDEX idx_transactions_created_id ON tb_transactions (created_at, id);
+
+CREATE TABLE tb_postings (
+    transaction_id BIGINT         NOT NULL,
+    perna          SMALLINT       NOT NULL,
+    account_id     BIGINT         NOT NULL,
+    natureza       VARCHAR(10)    NOT NULL,
+    valor          NUMERIC(15, 2) NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_postings PRIMARY KEY (transaction_id, perna),
+    CONSTRAINT ck_postings_natureza CHECK (natureza IN ('PRINCIPAL', 'TARIFA')),
+    CONSTRAINT fk_postings_transaction FOREIGN KEY (transaction_id) REFERENCES tb_transactions (id),
+    CONSTRAINT fk_postings_account FOREIGN KEY (account_id) REFERENCES tb_accounts (id)
+);
+
+CREATE INDEX idx_postings_account_created ON tb_postings (account_id, created_at, transaction_id, valor);
+
+CREATE TABLE tb_idempotency_keys (
+    chave           VARCHAR(100)  NOT NULL,
+    hash_requisicao VARCHAR(64)   NOT NULL,
+    transaction_id  BIGINT        NOT NULL,
+    resposta        VARCHAR(4000) NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    expira_em       TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (chave)
+);
+
+CREATE INDEX idx_idempotency_expira_em ON tb_idempotency_keys (expira_em);
+
+CREATE TABLE tb_ledger_offsets (
+    nome     VARCHAR(50) NOT NULL,
+    segmento BIGINT      NOT NULL,
+    posicao  INTEGER     NOT NULL,
+    CONSTRAINT pk_ledger_offsets PRIMARY KEY (nome)
+);
+
+-- Pernas dos lançamentos gravados antes das partidas dobradas, para que o extrato (servido
+-- pelas postings) mostre o histórico completo. Transferências antigas geravam também um
+-- DEPOSITO espelho na conta destino (account_destino_id preenchido); ele vira a perna 1 da
+-- transferência e não ganha posting própria.
+INSERT INTO tb_postings (transaction_id, perna, account_id, natureza, valor, created_at)
+SELECT t.id, 0, t.account_id, 'PRINCIPAL', CASE WHEN t.tipo = 'DEPOSITO' THEN t.valor ELSE -t.valor END, t.created_at
+FROM tb_transactions t
+WHERE NOT (t.tipo = 'DEPOSITO' AND t.account_destino_id IS NOT NULL);
+
+INSERT INTO tb_postings (transaction_id, perna, account_id, natureza, valor, created_at)
+SELECT t.id, 1, t.account_destino_id, 'PRINCIPAL', t.valor, t.created_at
+FROM tb_transactions t
+WHERE t.tipo = 'TRANSFERENCIA';
@@ -0,0 +1,18 @@
+-- Índices das consultas dos repositórios. IF NOT EXISTS porque bancos vindos do
+-- ddl-auto podem já ter parte deles. Cada um é verificado por QueryPlanIndexTest.
+
+-- TransactionRepository.findByAccountIdAndTipo
+CREATE INDEX IF NOT EXISTS idx_transactions_account_tipo ON tb_transactions (account_id, tipo);
+
+-- Lançamentos da conta por período (origem) e FK account_id, sem varrer a tabela ao excluir contas
+CREATE INDEX IF NOT EXISTS idx_transactions_account_created ON tb_transactions (account_id, created_at, id);
+
+-- Transferências recebidas pela conta (conferências)
+CREATE INDEX IF NOT EXISTS idx_transactions_account_destino ON tb_transactions (account_destino_id)
+    WHERE account_destino_id IS NOT NULL;
+
+-- AccountRepository.findByUserId / findResponsesByUserId
+CREATE INDEX IF NOT EXISTS idx_accounts_user ON tb_accounts (user_id);
+
+-- AccountRepository.findShardedAccountIds: poucas contas, índice parcial pequeno
+CREATE INDEX IF NOT EXISTS idx_accounts_sharded ON tb_accounts (id) WHERE slots_saldo > 0;
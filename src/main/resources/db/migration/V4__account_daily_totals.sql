@@ -0,0 +1,23 @@
+-- Totais diários por conta e categoria, consolidados pelo DailyRollupJob a partir das postings.
+-- A chave (account_id, dia, categoria) atende o resumo da conta por período.
+
+CREATE TABLE tb_account_daily_totals (
+    account_id BIGINT         NOT NULL,
+    dia        DATE           NOT NULL,
+    categoria  VARCHAR(30)    NOT NULL,
+    quantidade BIGINT         NOT NULL,
+    valor      NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_account_daily_totals PRIMARY KEY (account_id, dia, categoria),
+    CONSTRAINT ck_account_daily_totals_categoria CHECK (categoria IN ('DEPOSITO', 'SAQUE', 'TRANSFERENCIA_ENVIADA',
+        'TRANSFERENCIA_RECEBIDA', 'TARIFA', 'TARIFA_RECEBIDA')),
+    CONSTRAINT fk_account_daily_totals_account FOREIGN KEY (account_id) REFERENCES tb_accounts (id)
+);
+
+-- Reconsolidação de um dia (DELETE ... WHERE dia = ?)
+CREATE INDEX idx_account_daily_totals_dia ON tb_account_daily_totals (dia);
+
+CREATE TABLE tb_rollup_checkpoints (
+    nome       VARCHAR(50) NOT NULL,
+    ultimo_dia DATE        NOT NULL,
+    CONSTRAINT pk_rollup_checkpoints PRIMARY KEY (nome)
+);
@@ -0,0 +1,83 @@
+-- tb_transactions passa a ser particionada por mês de created_at (PostgreSQL 14+).
+--
+-- A chave primária de uma tabela particionada precisa conter a chave de partição,
+-- então passa a ser (id, created_at). A FK das postings para tb_transactions é
+-- removida: com ela uma partição antiga não poderia ser desanexada. As duas
+-- tabelas continuam gravadas sempre na mesma transação.
+--
+-- Os dados existentes são copiados para a tabela nova. Em bases grandes, rode esta
+-- migração em janela de manutenção.
+
+ALTER TABLE tb_postings DROP CONSTRAINT fk_postings_transaction;
+
+DROP INDEX idx_transactions_created_id;
+DROP INDEX IF EXISTS idx_transactions_account_tipo;
+DROP INDEX IF EXISTS idx_transactions_account_created;
+DROP INDEX IF EXISTS idx_transactions_account_destino;
+-- Só existe com esse nome em bancos criados pelas migrações; os do ddl-auto usam tb_transactions_pkey.
+-- Renomear o índice renomeia também a constraint.
+ALTER INDEX IF EXISTS pk_transactions RENAME TO pk_transactions_unpartitioned;
+ALTER TABLE tb_transactions RENAME TO tb_transactions_unpartitioned;
+
+CREATE TABLE tb_transactions (
+    id                 BIGINT         NOT NULL,
+    tipo               VARCHAR(255)   NOT NULL,
+    valor              NUMERIC(15, 2) NOT NULL,
+    descricao          VARCHAR(500),
+    account_id         BIGINT         NOT NULL,
+    account_destino_id BIGINT,
+    tarifa             NUMERIC(15, 2),
+    created_at         TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_transactions PRIMARY KEY (id, created_at),
+    CONSTRAINT ck_transactions_tipo CHECK (tipo IN ('DEPOSITO', 'SAQUE', 'TRANSFERENCIA')),
+    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES tb_accounts (id)
+) PARTITION BY RANGE (created_at);
+
+-- Criados na tabela pai, valem para todas as partições (inclusive as futuras)
+CREATE INDEX idx_transactions_created_id ON tb_transactions (created_at, id);
+CREATE INDEX idx_transactions_account_tipo ON tb_transactions (account_id, tipo);
+CREATE INDEX idx_transactions_account_created ON tb_transactions (account_id, created_at, id);
+CREATE INDEX idx_transactions_account_destino ON tb_transactions (account_destino_id)
+    WHERE account_destino_id IS NOT NULL;
+
+-- Cria a partição do mês de "mes" se ainda não existir. Usada também pela aplicação
+-- (TransactionPartitionMaintenance) para criar os meses seguintes com antecedência.
+CREATE OR REPLACE FUNCTION banco_create_transaction_partition(mes DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes)::date;
+    nome   TEXT := 'tb_transactions_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    IF to_regclass(nome) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF tb_transactions FOR VALUES FROM (%L) TO (%L)',
+                   nome, inicio, (inicio + INTERVAL '1 month')::date);
+    RETURN TRUE;
+END;
+$$;
+
+-- Do mês do lançamento mais antigo até três meses à frente
+DO $$
+DECLARE
+    mes DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), now()))::date INTO mes FROM tb_transactions_unpartitioned;
+    WHILE mes <= (date_trunc('month', now()) + INTERVAL '3 months')::date LOOP
+        PERFORM banco_create_transaction_partition(mes);
+        mes := (mes + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+-- Rede de segurança: se a manutenção parar, os inserts não falham. Deve ficar vazia;
+-- a aplicação avisa no log quando encontra linhas aqui.
+CREATE TABLE tb_transactions_default PARTITION OF tb_transactions DEFAULT;
+
+INSERT INTO tb_transactions (id, tipo, valor, descricao, account_id, account_destino_id, tarifa, created_at)
+SELECT id, tipo, valor, descricao, account_id, account_destino_id, tarifa, created_at
+FROM tb_transactions_unpartitioned;
+
+DROP TABLE tb_transactions_unpartitioned;
+
+ANALYZE tb_transactions;
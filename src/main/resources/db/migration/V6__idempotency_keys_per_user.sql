@@ -0,0 +1,18 @@
+-- Idempotency-Key passa a valer por usuário: a chave primária inclui o email de quem enviou a requisição.
+-- Chaves já gravadas ficam com o titular da conta origem da transação, que é quem normalmente a envia.
+
+ALTER TABLE tb_idempotency_keys ADD COLUMN usuario VARCHAR(255);
+
+UPDATE tb_idempotency_keys k
+SET usuario = u.email
+FROM tb_transactions t
+         JOIN tb_accounts a ON a.id = t.account_id
+         JOIN tb_users u ON u.id = a.user_id
+WHERE t.id = k.transaction_id;
+
+-- Transações já arquivadas: a chave não é mais reconhecida, mas também não bloqueia ninguém
+UPDATE tb_idempotency_keys SET usuario = '' WHERE usuario IS NULL;
+
+ALTER TABLE tb_idempotency_keys ALTER COLUMN usuario SET NOT NULL;
+ALTER TABLE tb_idempotency_keys DROP CONSTRAINT pk_idempotency_keys;
+ALTER TABLE tb_idempotency_keys ADD CONSTRAINT pk_idempotency_keys PRIMARY KEY (usuario, chave);
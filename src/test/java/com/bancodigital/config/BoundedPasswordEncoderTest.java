@@ -0,0 +1,109 @@
+package com.bancodigital.config;
+
+import com.bancodigital.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(4, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve gerar e conferir hashes no pool próprio, medindo fila e duração")
+    void shouldHashOnBoundedPool() {
+        String hash = encoder.encode("senha123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+        assertEquals(3, meterRegistry.get("banco.security.password.wait").timer().count());
+        assertEquals(1, meterRegistry.get("banco.security.password.hash").tag("op", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("banco.security.password.hash").tag("op", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve pedir novo hash quando o custo armazenado difere do configurado")
+    void shouldUpgradeWhenCostChanges() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("senha123")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("senha123")));
+        assertTrue(encoder.upgradeEncoding("$2a$10$abcdefghijklmnopqrstuu5Ss1LFvQ2lQ8E6cB0KFlqBfNnOWkVbC"));
+        assertFalse(encoder.upgradeEncoding("texto-sem-hash"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    @DisplayName("Deve recusar na hora quando o pool e a fila estão ocupados")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CharSequence bloqueante = new CharSequence() {
+            @Override
+            public int length() {
+                return toString().length();
+            }
+
+            @Override
+            public char charAt(int index) {
+                return toString().charAt(index);
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return toString().subSequence(start, end);
+            }
+
+            @Override
+            public String toString() {
+                iniciou.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "senha123";
+            }
+        };
+
+        CompletableFuture<String> emExecucao = CompletableFuture.supplyAsync(() -> encoder.encode(bloqueante));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> naFila = CompletableFuture.supplyAsync(() -> encoder.encode("senha123"));
+        while (meterRegistry.get("banco.security.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> encoder.encode("senha123"));
+        assertEquals("Muitas requisições de autenticação, tente novamente mais tarde", ex.getMessage());
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("banco.security.password.rejected").counter().count());
+
+        liberar.countDown();
+        String primeiro = emExecucao.get(5, TimeUnit.SECONDS);
+        String segundo = naFila.get(5, TimeUnit.SECONDS);
+        assertTrue(encoder.matches("senha123", primeiro));
+        assertTrue(encoder.matches("senha123", segundo));
+    }
+}
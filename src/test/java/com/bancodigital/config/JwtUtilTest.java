@@ -0,0 +1,87 @@
+package com.bancodigital.config;
+
+import com.bancodigital.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do JwtUtil")
+class JwtUtilTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(SECRET, 3_600_000, true, 100, meterRegistry);
+        user = new User();
+        user.setEmail("ana@x.com");
+    }
+
+    @Test
+    @DisplayName("Deve verificar o token uma vez e atender as chamadas seguintes pelo cache")
+    void shouldServeRepeatedTokenFromCache() {
+        String token = jwtUtil.generateToken(user);
+
+        Claims claims = jwtUtil.parseClaims(token);
+        assertEquals("ana@x.com", claims.getSubject());
+        assertSame(claims, jwtUtil.parseClaims(token));
+        assertEquals("ana@x.com", jwtUtil.extractUsername(token));
+        assertTrue(jwtUtil.validateToken(token, user));
+
+        assertEquals(1.0, meterRegistry.get("banco.jwt.cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("banco.jwt.cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token adulterado, expirado ou de outro usuário")
+    void shouldRejectInvalidTokens() {
+        String token = jwtUtil.generateToken(user);
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String expirado = Jwts.builder()
+                .subject("ana@x.com")
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+        User outro = new User();
+        outro.setEmail("bia@x.com");
+
+        assertThrows(RuntimeException.class, () -> jwtUtil.parseClaims(adulterado));
+        assertThrows(RuntimeException.class, () -> jwtUtil.parseClaims(expirado));
+        assertFalse(jwtUtil.validateToken(token, outro));
+        assertEquals(1.0, meterRegistry.get("banco.jwt.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve montar o usuário autenticado a partir das claims de id e papel")
+    void shouldBuildPrincipalFromClaims() {
+        user.setId(7L);
+        user.setRole("ADMIN");
+
+        JwtPrincipal principal = jwtUtil.principal(jwtUtil.parseClaims(jwtUtil.generateToken(user)));
+
+        assertEquals(new JwtPrincipal(7L, "ana@x.com", "ADMIN"), principal);
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+        assertTrue(jwtUtil.validateToken(jwtUtil.generateToken(user), principal));
+
+        String semClaims = Jwts.builder()
+                .subject("ana@x.com")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+        assertNull(jwtUtil.principal(jwtUtil.parseClaims(semClaims)));
+    }
+}
@@ -0,0 +1,128 @@
+package com.bancodigital.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do ReplicaRoutingDataSource")
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection conexaoPrimario = mock(Connection.class);
+    private final Connection conexaoReplica0 = mock(Connection.class);
+    private final Connection conexaoReplica1 = mock(Connection.class);
+
+    private ReadYourWrites readYourWrites;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", dataSource(conexaoReplica0));
+        replicas.put("replica-1", dataSource(conexaoReplica1));
+        readYourWrites = new ReadYourWrites(1_000, 1_000, 100);
+        routing = new ReplicaRoutingDataSource(dataSource(conexaoPrimario), replicas, readYourWrites,
+                new SimpleMeterRegistry(), 1_000, 1_000);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        readYourWrites.end(false);
+    }
+
+    @Test
+    @DisplayName("Deve enviar leituras para as réplicas em rodízio e escritas para o primário")
+    void shouldRouteReadOnlyTransactionsToReplicas() throws SQLException {
+        routing.recordLag("replica-0", 0);
+        routing.recordLag("replica-1", 200);
+
+        assertSame(conexaoReplica0, readOnly());
+        assertSame(conexaoReplica1, readOnly());
+        assertSame(conexaoPrimario, readWrite());
+        assertSame(conexaoPrimario, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar réplica sem medição ou acima da tolerância de atraso")
+    void shouldSkipLaggingReplicas() throws SQLException {
+        assertSame(conexaoPrimario, readOnly());
+
+        routing.recordLag("replica-0", 5_000);
+        routing.recordLag("replica-1", 300);
+        assertSame(conexaoReplica1, readOnly());
+        assertSame(conexaoReplica1, readOnly());
+
+        routing.recordLag("replica-1", 1_001);
+        assertSame(conexaoPrimario, readOnly());
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário depois de escrever, na mesma requisição e nas seguintes do usuário")
+    void shouldPinWritersToPrimary() throws SQLException {
+        routing.recordLag("replica-0", 0);
+        routing.recordLag("replica-1", 0);
+
+        readYourWrites.begin("ana@x.com");
+        assertNotSame(conexaoPrimario, readOnly());
+        readWrite();
+        assertSame(conexaoPrimario, readOnly());
+        readYourWrites.end(true);
+
+        readYourWrites.begin("ana@x.com");
+        assertSame(conexaoPrimario, readOnly());
+        readYourWrites.end(false);
+
+        readYourWrites.begin("bia@x.com");
+        assertNotSame(conexaoPrimario, readOnly());
+    }
+
+    @Test
+    @DisplayName("Deve enviar leituras marcadas ao primário sem fixar o usuário")
+    void shouldRoutePrimaryReadsWithoutPinning() throws SQLException {
+        routing.recordLag("replica-0", 0);
+        routing.recordLag("replica-1", 0);
+
+        readYourWrites.begin("ana@x.com");
+        TransactionSynchronizationManager.setCurrentTransactionName(ReplicaRoutingDataSource.PRIMARY_READ);
+        assertSame(conexaoPrimario, readOnly());
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        assertNotSame(conexaoPrimario, readOnly());
+        readYourWrites.end(false);
+
+        readYourWrites.begin("ana@x.com");
+        assertNotSame(conexaoPrimario, readOnly());
+    }
+
+    private Connection readOnly() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        return routing.getConnection();
+    }
+
+    private Connection readWrite() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        return routing.getConnection();
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bancodigital.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roteamento contra duas instâncias reais do PostgreSQL. Basta que sejam
+ * instâncias distintas: uma réplica de streaming de verdade não é necessária,
+ * e um servidor fora de recuperação é medido com atraso zero.
+ * <p>
+ * Roda apenas com {@code BANCO_TEST_PG_URL} e {@code BANCO_TEST_PG_REPLICA_URL}
+ * definidos, por exemplo dois contêineres nas portas 5432 e 5433.
+ */
+@EnabledIfEnvironmentVariable(named = "BANCO_TEST_PG_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "BANCO_TEST_PG_REPLICA_URL", matches = ".+")
+@DisplayName("Testes do roteamento para réplicas no PostgreSQL")
+class ReplicaRoutingIntegrationTest {
+
+    private static final String SERVIDOR_SQL = "SELECT inet_server_addr()::text || ':' || inet_server_port()";
+
+    private DataSource primario;
+    private DataSource replica;
+    private ReadYourWrites readYourWrites;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate leitura;
+    private TransactionTemplate escrita;
+
+    @BeforeEach
+    void setUp() {
+        primario = dataSource(System.getenv("BANCO_TEST_PG_URL"));
+        replica = dataSource(System.getenv("BANCO_TEST_PG_REPLICA_URL"));
+        readYourWrites = new ReadYourWrites(1_000, 1_000, 100);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primario, Map.of("replica-0", replica),
+                readYourWrites, new SimpleMeterRegistry(), 1_000, 1_000);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        escrita = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Deve ler da réplica e escrever no primário")
+    void shouldReadFromReplicaAndWriteToPrimary() {
+        String servidorPrimario = new JdbcTemplate(primario).queryForObject(SERVIDOR_SQL, String.class);
+        String servidorReplica = new JdbcTemplate(replica).queryForObject(SERVIDOR_SQL, String.class);
+        assertNotEquals(servidorPrimario, servidorReplica, "As duas URLs apontam para a mesma instância");
+
+        assertEquals(servidorReplica, leitura.execute(status -> jdbcTemplate.queryForObject(SERVIDOR_SQL, String.class)));
+        assertEquals(servidorPrimario, escrita.execute(status -> jdbcTemplate.queryForObject(SERVIDOR_SQL, String.class)));
+        assertEquals(servidorPrimario, jdbcTemplate.queryForObject(SERVIDOR_SQL, String.class));
+
+        readYourWrites.begin("ana@x.com");
+        try {
+            escrita.execute(status -> jdbcTemplate.queryForObject(SERVIDOR_SQL, String.class));
+            assertEquals(servidorPrimario,
+                    leitura.execute(status -> jdbcTemplate.queryForObject(SERVIDOR_SQL, String.class)));
+        } finally {
+            readYourWrites.end(false);
+        }
+    }
+
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url,
+                System.getenv().getOrDefault("BANCO_TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("BANCO_TEST_PG_PASSWORD", "postgres"));
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -98,6 +99,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].nome").value("João Silva"));
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Deve buscar usuários por trecho do nome")
+    void shouldSearchUsers() throws Exception {
+        when(userService.searchUsers("silva", 20)).thenReturn(List.of(userResponseDTO));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("q", "silva")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].nome").value("João Silva"));
+    }
+
     @Test
     @DisplayName("Deve retornar 401 ao buscar usuário sem autenticação")
     void shouldReturn401WhenNotAuthenticated() throws Exception {
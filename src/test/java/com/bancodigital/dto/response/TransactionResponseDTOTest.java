@@ -0,0 +1,37 @@
+package com.bancodigital.dto.response;
+
+import com.bancodigital.model.enums.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do JSON do TransactionResponseDTO")
+class TransactionResponseDTOTest {
+
+    // Mesma configuração de datas do ObjectMapper do Spring Boot
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("Deve escrever ids Snowflake como string e aceitá-los de volta")
+    void shouldWriteSnowflakeIdsAsStrings() throws Exception {
+        TransactionResponseDTO transacao = new TransactionResponseDTO(237059222905290752L, TransactionType.TRANSFERENCIA,
+                new BigDecimal("30.00"), null, 237059222905290753L, "111", 237059222905290754L,
+                LocalDateTime.of(2026, 3, 1, 10, 0), null);
+
+        String json = objectMapper.writeValueAsString(transacao);
+
+        assertTrue(json.startsWith("{\"id\":\"237059222905290752\""));
+        assertTrue(json.contains("\"accountId\":\"237059222905290753\""));
+        assertTrue(json.contains("\"accountDestinoId\":\"237059222905290754\""));
+        assertEquals(transacao, objectMapper.readValue(json, TransactionResponseDTO.class));
+    }
+}
@@ -0,0 +1,75 @@
+package com.bancodigital.model.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do SnowflakeIdGenerator")
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("Deve gerar ids crescentes")
+    void shouldGenerateIncreasingIds() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(1);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids únicos entre threads")
+    void shouldGenerateUniqueIdsAcrossThreads() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(generator.nextId()));
+
+        assertEquals(50_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Deve codificar o nó e compartilhar a instância por nó")
+    void shouldEncodeNodeId() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(3);
+
+        long id = generator.nextId();
+
+        assertEquals(3, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertSame(generator, SnowflakeIdGenerator.forNode(3));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.forNode(1024));
+    }
+
+    @Test
+    @DisplayName("Deve recuperar do id o instante em que foi gerado")
+    void shouldDecodeInstant() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(4);
+        Instant antes = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        Instant gerado = SnowflakeIdGenerator.instantOf(generator.nextId());
+
+        assertFalse(gerado.isBefore(antes));
+        assertTrue(Duration.between(antes, gerado).toMillis() < 1_000);
+    }
+
+    @Test
+    @DisplayName("Deve distinguir ids da IDENTITY anteriores ao Snowflake")
+    void shouldDetectPreSnowflakeIds() {
+        assertTrue(SnowflakeIdGenerator.isPreSnowflake(1));
+        assertTrue(SnowflakeIdGenerator.isPreSnowflake(5_000_000_000L));
+        assertFalse(SnowflakeIdGenerator.isPreSnowflake(0));
+        assertFalse(SnowflakeIdGenerator.isPreSnowflake(-1));
+        assertFalse(SnowflakeIdGenerator.isPreSnowflake(SnowflakeIdGenerator.forNode(5).nextId()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.bancodigital.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confere que um banco criado pelo ddl-auto=update da versão sem Flyway chega,
+ * depois do baseline na V1 e das migrações seguintes, ao mesmo esquema de um
+ * banco criado do zero pelas migrações, sem perder os dados.
+ * <p>
+ * Roda apenas com {@code BANCO_TEST_PG_URL} definido; cada cenário usa um
+ * schema próprio, removido ao final.
+ */
+@EnabledIfEnvironmentVariable(named = "BANCO_TEST_PG_URL", matches = ".+")
+@DisplayName("Testes das migrações sobre o esquema do ddl-auto")
+class FlywayBaselineMigrationTest {
+
+    // DDL que o Hibernate gerava para as entidades antes do Flyway (nomes de constraint do próprio Hibernate)
+    private static final List<String> BASELINE_DDL = List.of(
+            """
+            create table tb_users (created_at timestamp(6) not null, id bigint generated by default as identity,
+                updated_at timestamp(6) not null, cpf varchar(11) not null unique, telefone varchar(15) not null,
+                nome varchar(100) not null, email varchar(255) not null unique, role varchar(255) not null,
+                senha varchar(255) not null, primary key (id))
+            """,
+            """
+            create table tb_accounts (saldo numeric(15,2) not null, created_at timestamp(6) not null,
+                id bigint generated by default as identity, user_id bigint not null, agencia varchar(255) not null,
+                numero_conta varchar(255) not null unique, primary key (id))
+            """,
+            """
+            create table tb_transactions (valor numeric(15,2) not null, account_destino_id bigint,
+                account_id bigint not null, created_at timestamp(6) not null, id bigint generated by default as identity,
+                descricao varchar(500), tipo varchar(255) not null
+                    check (tipo in ('DEPOSITO','SAQUE','TRANSFERENCIA')), primary key (id))
+            """,
+            "alter table if exists tb_accounts add constraint FKbwrpuvx0lqhr9cfb1ew5a5ko1 foreign key (user_id) references tb_users",
+            "alter table if exists tb_transactions add constraint FK9qmoflfa0k7bcdbbpawdsaq1n foreign key (account_id) references tb_accounts"
+    );
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private String schemaDdlAuto;
+    private String schemaMigracoes;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("BANCO_TEST_PG_URL"),
+                System.getenv().getOrDefault("BANCO_TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("BANCO_TEST_PG_PASSWORD", "postgres"),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        long sufixo = System.nanoTime();
+        schemaDdlAuto = "baseline_ddl_auto_" + sufixo;
+        schemaMigracoes = "baseline_migracoes_" + sufixo;
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET search_path TO public");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schemaDdlAuto + " CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schemaMigracoes + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("Deve migrar o esquema do ddl-auto até o mesmo esquema das migrações, mantendo os dados")
+    void shouldMigrateDdlAutoSchemaToMigratedSchema() {
+        jdbcTemplate.execute("CREATE SCHEMA " + schemaDdlAuto);
+        jdbcTemplate.execute("SET search_path TO " + schemaDdlAuto);
+        BASELINE_DDL.forEach(jdbcTemplate::execute);
+        jdbcTemplate.update("""
+                INSERT INTO tb_users (nome, cpf, email, senha, telefone, role, created_at, updated_at)
+                VALUES ('Ana', '12345678901', 'ana@x.com', 'hash', '11999999999', 'USER', now(), now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO tb_accounts (numero_conta, agencia, saldo, user_id, created_at)
+                SELECT '123456', '0001', 100.00, id, now() FROM tb_users
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO tb_transactions (tipo, valor, descricao, account_id, created_at)
+                SELECT 'DEPOSITO', 100.00, 'Depósito', id, now() - INTERVAL '40 days' FROM tb_accounts
+                """);
+
+        migrate(schemaDdlAuto);
+        migrate(schemaMigracoes);
+
+        assertEquals(columns(schemaMigracoes), columns(schemaDdlAuto));
+        jdbcTemplate.execute("SET search_path TO " + schemaDdlAuto);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM tb_transactions", Integer.class));
+        assertEquals(new BigDecimal("100.00"), jdbcTemplate.queryForObject(
+                "SELECT SUM(valor) FROM tb_postings WHERE perna = 0", BigDecimal.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT slots_saldo FROM tb_accounts", Integer.class));
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = 'tb_transactions'::regclass", String.class));
+
+        // Ids passam a vir da aplicação (Snowflake)
+        jdbcTemplate.update("""
+                INSERT INTO tb_transactions (id, tipo, valor, account_id, created_at)
+                SELECT 7250000000000000000, 'SAQUE', 10.00, id, now() FROM tb_accounts
+                """);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM tb_transactions", Integer.class));
+    }
+
+    private void migrate(String schema) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private List<String> columns(String schema) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.table_name || '.' || c.column_name || ' ' || c.data_type || ' ' || c.is_nullable
+                       || ' ' || c.is_identity || ' ' || COALESCE(c.column_default, '')
+                FROM information_schema.columns c
+                JOIN information_schema.tables t ON t.table_schema = c.table_schema AND t.table_name = c.table_name
+                WHERE c.table_schema = ? AND t.table_type = 'BASE TABLE'
+                  AND c.table_name NOT LIKE 'tb\\_transactions\\_%' AND c.table_name <> 'flyway_schema_history'
+                ORDER BY 1
+                """, String.class, schema);
+    }
+}
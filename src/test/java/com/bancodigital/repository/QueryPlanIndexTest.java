@@ -0,0 +1,154 @@
+package com.bancodigital.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere, com EXPLAIN no PostgreSQL, que as consultas quentes dos
+ * repositórios têm índice. Com {@code enable_seqscan = off} o planejador só
+ * escolhe Seq Scan quando nenhum índice serve, então o teste falha se uma
+ * migração remover ou deixar de cobrir o índice de uma consulta.
+ * <p>
+ * Roda apenas com {@code BANCO_TEST_PG_URL} definido (ex.:
+ * {@code jdbc:postgresql://localhost:5432/banco_digital_test}); o esquema é
+ * criado pelas migrações do Flyway.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "BANCO_TEST_PG_URL", matches = ".+")
+@DisplayName("Testes dos planos de consulta")
+class QueryPlanIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BANCO_TEST_PG_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("BANCO_TEST_PG_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("BANCO_TEST_PG_PASSWORD", "postgres"));
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("TransactionRepository.findStatementPage", """
+                        SELECT t.id, a.numero_conta FROM tb_postings p
+                        JOIN tb_transactions t ON t.id = p.transaction_id
+                        JOIN tb_accounts a ON a.id = t.account_id
+                        WHERE p.account_id = 1 AND (p.natureza = 'PRINCIPAL' OR p.valor > 0)
+                        ORDER BY p.created_at DESC, p.transaction_id DESC LIMIT 51
+                        """),
+                Arguments.of("TransactionRepository.findStatementPageBefore", """
+                        SELECT p.transaction_id FROM tb_postings p
+                        WHERE p.account_id = 1 AND (p.natureza = 'PRINCIPAL' OR p.valor > 0)
+                          AND (p.created_at < TIMESTAMP '2025-01-01 00:00:00'
+                               OR (p.created_at = TIMESTAMP '2025-01-01 00:00:00' AND p.transaction_id < 10))
+                        ORDER BY p.created_at DESC, p.transaction_id DESC LIMIT 51
+                        """),
+                Arguments.of("TransactionRepository.findStatementByAccountId", """
+                        SELECT t.id FROM tb_transactions t
+                        WHERE t.id IN (SELECT p.transaction_id FROM tb_postings p WHERE p.account_id = 1)
+                        ORDER BY t.id DESC
+                        """),
+                Arguments.of("TransactionRepository.streamByAccountIdAndCreatedAtBetween", """
+                        SELECT p.transaction_id FROM tb_postings p
+                        WHERE p.account_id = 1
+                          AND p.created_at >= TIMESTAMP '2025-01-01 00:00:00'
+                          AND p.created_at < TIMESTAMP '2026-01-01 00:00:00'
+                        ORDER BY p.created_at, p.transaction_id
+                        """),
+                Arguments.of("TransactionRepository.findPageBefore", """
+                        SELECT t.id FROM tb_transactions t
+                        WHERE t.created_at < TIMESTAMP '2025-01-01 00:00:00'
+                           OR (t.created_at = TIMESTAMP '2025-01-01 00:00:00' AND t.id < 10)
+                        ORDER BY t.created_at DESC, t.id DESC LIMIT 51
+                        """),
+                Arguments.of("TransactionRepository.findResponseByIdAndCreatedAtBetween", """
+                        SELECT t.id FROM tb_transactions t
+                        WHERE t.id = 10 AND t.created_at >= TIMESTAMP '2025-01-01 00:00:00'
+                          AND t.created_at < TIMESTAMP '2025-01-03 00:00:00'
+                        """),
+                Arguments.of("TransactionRepository.findByAccountIdAndTipoAndCreatedAtBetween", """
+                        SELECT t.id FROM tb_transactions t
+                        WHERE t.account_id = 1 AND t.tipo = 'SAQUE'
+                          AND t.created_at BETWEEN TIMESTAMP '2025-01-01 00:00:00' AND TIMESTAMP '2025-02-01 00:00:00'
+                        """),
+                Arguments.of("TransactionRepository.findStatementVersion", """
+                        SELECT a.version, (SELECT MAX(p.created_at) FROM tb_postings p WHERE p.account_id = a.id)
+                        FROM tb_accounts a WHERE a.id = 1
+                        """),
+                Arguments.of("tb_transactions por conta e período", """
+                        SELECT t.id FROM tb_transactions t
+                        WHERE t.account_id = 1 AND t.created_at >= TIMESTAMP '2025-01-01 00:00:00'
+                        """),
+                Arguments.of("tb_transactions por conta destino", """
+                        SELECT t.id FROM tb_transactions t WHERE t.account_destino_id = 1
+                        """),
+                Arguments.of("AccountRepository.findByNumeroConta", """
+                        SELECT a.id FROM tb_accounts a WHERE a.numero_conta = '123456'
+                        """),
+                Arguments.of("AccountRepository.findResponsesByUserId", """
+                        SELECT a.id, u.nome FROM tb_accounts a JOIN tb_users u ON u.id = a.user_id WHERE u.id = 1
+                        """),
+                Arguments.of("AccountRepository.findShardedAccountIds", """
+                        SELECT a.id FROM tb_accounts a WHERE a.slots_saldo > 0
+                        """),
+                Arguments.of("AccountRepository.findPageAfter", """
+                        SELECT a.id FROM tb_accounts a
+                        WHERE a.created_at > TIMESTAMP '2025-01-01 00:00:00'
+                           OR (a.created_at = TIMESTAMP '2025-01-01 00:00:00' AND a.id > 10)
+                        ORDER BY a.created_at, a.id LIMIT 51
+                        """),
+                Arguments.of("AccountBalanceSlotRepository.sumSaldoByAccountId", """
+                        SELECT COALESCE(SUM(s.saldo), 0) FROM tb_account_balance_slots s WHERE s.account_id = 1
+                        """),
+                Arguments.of("DailyRollupRepository.sumFolded", """
+                        SELECT categoria, SUM(quantidade), SUM(valor) FROM tb_account_daily_totals
+                        WHERE account_id = 1 AND dia >= DATE '2025-01-01' AND dia <= DATE '2025-01-31'
+                        GROUP BY categoria
+                        """),
+                Arguments.of("DailyRollupRepository.foldDay", """
+                        SELECT p.account_id, p.valor FROM tb_transactions t
+                        JOIN tb_postings p ON p.transaction_id = t.id
+                        WHERE t.created_at >= TIMESTAMP '2025-01-01 00:00:00'
+                          AND t.created_at < TIMESTAMP '2025-01-02 00:00:00'
+                        """),
+                Arguments.of("UserRepository.findByCpf", """
+                        SELECT u.id FROM tb_users u WHERE u.cpf = '12345678901'
+                        """),
+                Arguments.of("UserRepository.findByEmail", """
+                        SELECT u.id FROM tb_users u WHERE u.email = 'joao@email.com'
+                        """),
+                Arguments.of("IdempotencyKeyRepository.deleteExpired", """
+                        DELETE FROM tb_idempotency_keys WHERE expira_em < TIMESTAMP '2025-01-01 00:00:00'
+                        """)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    @DisplayName("Deve usar índice nas consultas quentes")
+    void shouldUseIndex(String consulta, String sql) {
+        // @JdbcTest roda cada teste em uma transação, então o SET LOCAL vale só para este EXPLAIN
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        List<String> plano = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+
+        assertTrue(plano.stream().noneMatch(linha -> linha.contains("Seq Scan")),
+                () -> consulta + " sem índice:\n" + String.join("\n", plano));
+    }
+}
@@ -0,0 +1,201 @@
+package com.bancodigital.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara a latência das consultas de extrato com {@code tb_transactions} sem
+ * partição e particionada por mês, sobre o mesmo volume de dados (por padrão
+ * 50 milhões de lançamentos em 24 meses, ajustável por {@code BANCO_BENCH_ROWS}).
+ * <p>
+ * Não faz parte do build. Para rodar:
+ * <pre>
+ * BANCO_BENCH_PG_URL=jdbc:postgresql://localhost:5432/banco_bench \
+ *     ./mvnw test -Dtest=TransactionPartitionBenchmark
+ * </pre>
+ * Os dados são gerados uma vez no schema {@code banco_bench} e reaproveitados
+ * nas execuções seguintes com o mesmo volume.
+ */
+@EnabledIfEnvironmentVariable(named = "BANCO_BENCH_PG_URL", matches = ".+")
+@DisplayName("Benchmark do particionamento de tb_transactions")
+class TransactionPartitionBenchmark {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int MESES = 24;
+    private static final int CONTAS = 100_000;
+    private static final int AQUECIMENTO = 200;
+    private static final int AMOSTRAS = 2_000;
+
+    private static final String FLAT = "banco_bench.tx_flat";
+    private static final String PART = "banco_bench.tx_part";
+
+    @Test
+    @DisplayName("Deve medir o extrato com e sem particionamento")
+    void compareStatementLatency() throws SQLException {
+        long linhas = Long.parseLong(System.getenv().getOrDefault("BANCO_BENCH_ROWS", "50000000"));
+        try (Connection connection = DriverManager.getConnection(System.getenv("BANCO_BENCH_PG_URL"),
+                System.getenv().getOrDefault("BANCO_TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("BANCO_TEST_PG_PASSWORD", "postgres"))) {
+            prepare(connection, linhas);
+
+            double segundosPorLinha = (double) Duration.between(INICIO, INICIO.plusMonths(MESES)).toSeconds() / linhas;
+            List<Cenario> cenarios = List.of(
+                    new Cenario("Página do extrato (50 mais recentes)", """
+                            SELECT t.id, t.tipo, t.valor, t.created_at FROM banco_bench.postings p
+                            JOIN %s t ON t.id = p.transaction_id AND t.created_at = p.created_at
+                            WHERE p.account_id = ?
+                            ORDER BY p.created_at DESC, p.transaction_id DESC LIMIT 50
+                            """, (ps, random) -> ps.setLong(1, conta(random))),
+                    new Cenario("Extrato de um mês", """
+                            SELECT t.id, t.tipo, t.valor, t.created_at FROM banco_bench.postings p
+                            JOIN %s t ON t.id = p.transaction_id AND t.created_at = p.created_at
+                            WHERE p.account_id = ? AND p.created_at >= ? AND p.created_at < ?
+                            ORDER BY p.created_at, p.transaction_id
+                            """, (ps, random) -> {
+                        LocalDateTime mes = INICIO.plusMonths(random.nextInt(MESES));
+                        ps.setLong(1, conta(random));
+                        ps.setTimestamp(2, Timestamp.valueOf(mes));
+                        ps.setTimestamp(3, Timestamp.valueOf(mes.plusMonths(1)));
+                    }),
+                    new Cenario("Transação por id (janela de 1 dia)", """
+                            SELECT id, tipo, valor, created_at FROM %s
+                            WHERE id = ? AND created_at >= ? AND created_at < ?
+                            """, (ps, random) -> {
+                        long id = 1 + (long) (random.nextDouble() * (linhas - 1));
+                        LocalDateTime criada = INICIO.plusSeconds((long) (id * segundosPorLinha));
+                        ps.setLong(1, id);
+                        ps.setTimestamp(2, Timestamp.valueOf(criada.minusDays(1)));
+                        ps.setTimestamp(3, Timestamp.valueOf(criada.plusDays(1)));
+                    }),
+                    new Cenario("Totais da conta no mês (origem)", """
+                            SELECT count(*), sum(valor) FROM %s
+                            WHERE account_id = ? AND created_at >= ? AND created_at < ?
+                            """, (ps, random) -> {
+                        LocalDateTime mes = INICIO.plusMonths(random.nextInt(MESES));
+                        ps.setLong(1, conta(random));
+                        ps.setTimestamp(2, Timestamp.valueOf(mes));
+                        ps.setTimestamp(3, Timestamp.valueOf(mes.plusMonths(1)));
+                    }));
+
+            System.out.printf("%n%,d lançamentos, %d meses, %,d contas, %,d amostras por consulta%n",
+                    linhas, MESES, CONTAS, AMOSTRAS);
+            System.out.printf("%-40s %-12s %10s %10s %10s%n", "consulta", "tabela", "p50 (ms)", "p95 (ms)", "p99 (ms)");
+            for (Cenario cenario : cenarios) {
+                print(cenario.nome(), "sem partição", measure(connection, cenario, FLAT));
+                print(cenario.nome(), "particionada", measure(connection, cenario, PART));
+            }
+        }
+    }
+
+    private static long[] measure(Connection connection, Cenario cenario, String tabela) throws SQLException {
+        // Mesma semente nas duas tabelas: as consultas usam exatamente os mesmos parâmetros
+        Random random = new Random(42);
+        long[] tempos = new long[AMOSTRAS];
+        try (PreparedStatement ps = connection.prepareStatement(cenario.sql().formatted(tabela))) {
+            for (int i = 0; i < AQUECIMENTO + AMOSTRAS; i++) {
+                cenario.parametros().bind(ps, random);
+                long inicio = System.nanoTime();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                }
+                if (i >= AQUECIMENTO) {
+                    tempos[i - AQUECIMENTO] = System.nanoTime() - inicio;
+                }
+            }
+        }
+        Arrays.sort(tempos);
+        return tempos;
+    }
+
+    private static void print(String consulta, String tabela, long[] tempos) {
+        System.out.printf("%-40s %-12s %10.3f %10.3f %10.3f%n", consulta, tabela,
+                percentil(tempos, 0.50), percentil(tempos, 0.95), percentil(tempos, 0.99));
+    }
+
+    private static double percentil(long[] ordenados, double p) {
+        return ordenados[(int) Math.min(ordenados.length - 1, Math.ceil(p * ordenados.length) - 1)] / 1_000_000.0;
+    }
+
+    private static long conta(Random random) {
+        return 1 + random.nextInt(CONTAS);
+    }
+
+    private static void prepare(Connection connection, long linhas) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE SCHEMA IF NOT EXISTS banco_bench");
+            st.execute("CREATE TABLE IF NOT EXISTS banco_bench.info (linhas BIGINT NOT NULL)");
+            try (ResultSet rs = st.executeQuery("SELECT linhas FROM banco_bench.info")) {
+                if (rs.next() && rs.getLong(1) == linhas) {
+                    return;
+                }
+            }
+
+            System.out.printf("Gerando %,d lançamentos em banco_bench (uma única vez)...%n", linhas);
+            st.execute("DROP TABLE IF EXISTS banco_bench.tx_flat, banco_bench.tx_part, banco_bench.postings");
+            st.execute("TRUNCATE banco_bench.info");
+
+            String colunas = "id BIGINT NOT NULL, tipo VARCHAR(20) NOT NULL, valor NUMERIC(15, 2) NOT NULL, " +
+                    "account_id BIGINT NOT NULL, created_at TIMESTAMP(6) NOT NULL";
+            st.execute("CREATE TABLE " + FLAT + " (" + colunas + ", PRIMARY KEY (id))");
+            st.execute("CREATE TABLE " + PART + " (" + colunas + ", PRIMARY KEY (id, created_at)) " +
+                    "PARTITION BY RANGE (created_at)");
+            for (int i = 0; i < MESES; i++) {
+                LocalDateTime mes = INICIO.plusMonths(i);
+                st.execute("CREATE TABLE banco_bench.tx_part_%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                        .formatted(i, PART, mes, mes.plusMonths(1)));
+            }
+            st.execute("CREATE TABLE banco_bench.postings (transaction_id BIGINT NOT NULL, account_id BIGINT NOT NULL, " +
+                    "valor NUMERIC(15, 2) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+
+            double segundosPorLinha = (double) Duration.between(INICIO, INICIO.plusMonths(MESES)).toSeconds() / linhas;
+            st.execute("""
+                    INSERT INTO %s
+                    SELECT g,
+                           (ARRAY['DEPOSITO', 'SAQUE', 'TRANSFERENCIA'])[1 + g %% 3],
+                           (1 + g %% 1000)::numeric,
+                           1 + (g * 7919) %% %d,
+                           TIMESTAMP '%s' + (g * %s) * INTERVAL '1 second'
+                    FROM generate_series(1, %d) g
+                    """.formatted(FLAT, CONTAS, INICIO, segundosPorLinha, linhas));
+            st.execute("INSERT INTO " + PART + " SELECT * FROM " + FLAT);
+            st.execute("INSERT INTO banco_bench.postings " +
+                    "SELECT id, account_id, CASE WHEN tipo = 'DEPOSITO' THEN valor ELSE -valor END, created_at FROM " + FLAT);
+
+            for (String tabela : List.of(FLAT, PART)) {
+                String nome = tabela.substring(tabela.indexOf('.') + 1);
+                st.execute("CREATE INDEX idx_%s_created_id ON %s (created_at, id)".formatted(nome, tabela));
+                st.execute("CREATE INDEX idx_%s_account_created ON %s (account_id, created_at, id)".formatted(nome, tabela));
+            }
+            st.execute("CREATE INDEX idx_bench_postings_account_created " +
+                    "ON banco_bench.postings (account_id, created_at, transaction_id, valor)");
+            st.execute("VACUUM ANALYZE " + FLAT);
+            st.execute("VACUUM ANALYZE " + PART);
+            st.execute("VACUUM ANALYZE banco_bench.postings");
+            st.execute("INSERT INTO banco_bench.info VALUES (" + linhas + ")");
+        }
+    }
+
+    private record Cenario(String nome, String sql, Parametros parametros) {
+    }
+
+    @FunctionalInterface
+    private interface Parametros {
+        void bind(PreparedStatement ps, Random random) throws SQLException;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bancodigital.service.archive;
+
+import com.bancodigital.repository.DailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do TransactionArchiveJob")
+class TransactionArchiveJobTest {
+
+    private TransactionArchive transactionArchive;
+    private DailyRollupRepository dailyRollupRepository;
+    private TransactionArchiveJob job;
+
+    @BeforeEach
+    void setUp() {
+        transactionArchive = mock(TransactionArchive.class);
+        dailyRollupRepository = mock(DailyRollupRepository.class);
+        when(transactionArchive.isEnabled()).thenReturn(true);
+        job = new TransactionArchiveJob(transactionArchive, dailyRollupRepository, true, 30, 7, 3_600_000, 60_000);
+    }
+
+    @Test
+    @DisplayName("Deve arquivar a partir da fronteira até o horizonte")
+    void shouldArchiveDaysOlderThanHorizon() throws Exception {
+        when(transactionArchive.boundary()).thenReturn(Optional.of(LocalDate.of(2025, 1, 29).atStartOfDay()));
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 3, 9)));
+
+        int dias = job.archiveOldDays(LocalDateTime.of(2025, 3, 3, 12, 0));
+
+        // Horizonte de 30 dias: 01/02 ainda fica no banco
+        assertEquals(3, dias);
+        verify(transactionArchive).archiveDay(LocalDate.of(2025, 1, 29));
+        verify(transactionArchive).archiveDay(LocalDate.of(2025, 1, 31));
+        verify(transactionArchive, never()).archiveDay(LocalDate.of(2025, 2, 1));
+    }
+
+    @Test
+    @DisplayName("Não deve arquivar dias ainda não consolidados nos totais diários")
+    void shouldNotArchiveBeyondRollupCheckpoint() throws Exception {
+        when(transactionArchive.boundary()).thenReturn(Optional.empty());
+        when(dailyRollupRepository.findFirstTransactionDay()).thenReturn(Optional.of(LocalDate.of(2024, 1, 1)));
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2024, 1, 2)));
+
+        int dias = job.archiveOldDays(LocalDateTime.of(2025, 3, 3, 12, 0));
+
+        assertEquals(2, dias);
+        verify(transactionArchive, times(2)).archiveDay(any());
+        verify(transactionArchive, never()).archiveDay(LocalDate.of(2024, 1, 3));
+    }
+
+    @Test
+    @DisplayName("Deve só reler o arquivo quando esta instância não arquiva")
+    void shouldOnlyRefreshWhenArchiverDisabled() throws Exception {
+        TransactionArchiveJob leitor = new TransactionArchiveJob(transactionArchive, dailyRollupRepository, false, 30, 7,
+                3_600_000, 60_000);
+
+        leitor.archiveOldDays();
+
+        verify(transactionArchive).refresh();
+        verify(transactionArchive, never()).archiveDay(any());
+    }
+
+    @Test
+    @DisplayName("Deve remover do banco os dias arquivados só na execução seguinte")
+    void shouldPurgeDaysArchivedInPreviousRun() throws Exception {
+        when(transactionArchive.boundary()).thenReturn(Optional.of(LocalDate.of(2025, 1, 29).atStartOfDay()));
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 28)));
+
+        job.archiveOldDays(LocalDateTime.of(2025, 3, 3, 12, 0));
+        verify(transactionArchive, never()).purgeThrough(any());
+
+        job.archiveOldDays(LocalDateTime.of(2025, 3, 3, 13, 0));
+        verify(transactionArchive).purgeThrough(LocalDate.of(2025, 1, 28));
+    }
+}
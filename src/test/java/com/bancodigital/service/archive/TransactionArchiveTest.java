@@ -0,0 +1,155 @@
+package com.bancodigital.service.archive;
+
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.repository.TransactionArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do TransactionArchive")
+class TransactionArchiveTest {
+
+    private static final LocalDate DIA_1 = LocalDate.of(2024, 1, 10);
+    private static final LocalDate DIA_2 = LocalDate.of(2024, 1, 11);
+    private static final int CONTAS = 20;
+    private static final int POR_CONTA = 15;
+
+    @TempDir
+    Path directory;
+
+    private TransactionArchiveRepository archiveRepository;
+    private TransactionArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archiveRepository = mock(TransactionArchiveRepository.class);
+        when(archiveRepository.findArchivedThrough()).thenReturn(Optional.empty());
+        feedDay(DIA_1);
+        feedDay(DIA_2);
+        archive = newArchive();
+    }
+
+    @Test
+    @DisplayName("Deve ler o extrato arquivado da conta em ordem cronológica")
+    void shouldReadAccountStatementFromSegment() throws IOException {
+        assertEquals(CONTAS * POR_CONTA, archive.archiveDay(DIA_1));
+
+        assertEquals(Optional.of(DIA_2.atStartOfDay()), archive.boundary());
+        List<TransactionResponseDTO> extrato = archive.findStatement(7L, null, DIA_2.atStartOfDay());
+        assertEquals(POR_CONTA, extrato.size());
+        assertTrue(extrato.stream().allMatch(t -> t.getAccountId() == 7L));
+        assertEquals(idOf(DIA_1, 7, 0), extrato.get(0).getId());
+        assertEquals(idOf(DIA_1, 7, POR_CONTA - 1), extrato.get(POR_CONTA - 1).getId());
+        assertEquals(new BigDecimal("7.03"), extrato.get(3).getValor());
+
+        // Das 10h (inclusive) às 10h05 (exclusive): minutos 0 a 4
+        List<TransactionResponseDTO> periodo = archive.findStatement(7L,
+                DIA_1.atTime(10, 0), DIA_1.atTime(10, 5));
+        assertEquals(List.of(idOf(DIA_1, 7, 0), idOf(DIA_1, 7, 1), idOf(DIA_1, 7, 2), idOf(DIA_1, 7, 3),
+                idOf(DIA_1, 7, 4)), periodo.stream().map(TransactionResponseDTO::getId).toList());
+        verify(archiveRepository).markArchived(DIA_1);
+        // O dia só sai do banco depois que as outras instâncias releem o checkpoint
+        verify(archiveRepository, never()).deleteDay(any());
+    }
+
+    @Test
+    @DisplayName("Deve paginar o extrato arquivado do mais recente para o mais antigo entre dias")
+    void shouldPageBackwardsAcrossDays() throws IOException {
+        archive.archiveDay(DIA_1);
+        archive.archiveDay(DIA_2);
+
+        List<TransactionResponseDTO> primeira = archive.findStatementPageBefore(3L,
+                archive.boundary().orElseThrow(), Long.MIN_VALUE, 20);
+        assertEquals(20, primeira.size());
+        assertEquals(idOf(DIA_2, 3, POR_CONTA - 1), primeira.get(0).getId());
+        assertEquals(idOf(DIA_1, 3, POR_CONTA - 1), primeira.get(POR_CONTA).getId());
+
+        TransactionResponseDTO ultima = primeira.get(19);
+        List<TransactionResponseDTO> segunda = archive.findStatementPageBefore(3L,
+                ultima.getCreatedAt(), ultima.getId(), 20);
+        assertEquals(2 * POR_CONTA - 20, segunda.size());
+        assertEquals(idOf(DIA_1, 3, 0), segunda.get(segunda.size() - 1).getId());
+    }
+
+    @Test
+    @DisplayName("Deve reabrir só os segmentos até o checkpoint")
+    void shouldReopenSegmentsUpToCheckpoint() throws IOException {
+        archive.archiveDay(DIA_1);
+        archive.archiveDay(DIA_2);
+        // O checkpoint do segundo dia não chegou a ser confirmado no banco
+        when(archiveRepository.findArchivedThrough()).thenReturn(Optional.of(DIA_1));
+
+        TransactionArchive reaberto = newArchive();
+
+        assertEquals(Optional.of(DIA_2.atStartOfDay()), reaberto.boundary());
+        assertEquals(POR_CONTA, reaberto.findStatement(5L, null, DIA_2.plusDays(1).atStartOfDay()).size());
+    }
+
+    @Test
+    @DisplayName("Deve remover do banco só os dias arquivados ainda não removidos, até o informado")
+    void shouldPurgeArchivedDaysNotYetDeleted() throws IOException {
+        archive.archiveDay(DIA_1);
+        archive.archiveDay(DIA_2);
+        when(archiveRepository.findDeletedThrough()).thenReturn(Optional.of(DIA_1.minusDays(1)));
+
+        assertEquals(1, archive.purgeThrough(DIA_1));
+        verify(archiveRepository).deleteDay(DIA_1);
+
+        when(archiveRepository.findDeletedThrough()).thenReturn(Optional.of(DIA_1));
+        assertEquals(1, archive.purgeThrough(DIA_2.plusDays(5)));
+        verify(archiveRepository).deleteDay(DIA_2);
+        verify(archiveRepository, times(2)).deleteDay(any());
+    }
+
+    @Test
+    @DisplayName("Deve continuar servindo o dia pelo banco se o checkpoint não avançar")
+    void shouldKeepBoundaryWhenCheckpointFails() {
+        doThrow(new IllegalStateException("conexão perdida")).when(archiveRepository).markArchived(DIA_1);
+
+        assertThrows(IllegalStateException.class, () -> archive.archiveDay(DIA_1));
+
+        assertEquals(Optional.empty(), archive.boundary());
+        assertTrue(archive.findStatement(7L, null, DIA_2.atStartOfDay()).isEmpty());
+    }
+
+    private TransactionArchive newArchive() throws IOException {
+        TransactionArchive novo = new TransactionArchive(archiveRepository, new SimpleMeterRegistry(), true,
+                directory.toString(), 1);
+        novo.open();
+        return novo;
+    }
+
+    // Linhas do dia na ordem do arquivo: por conta, um lançamento por minuto a partir das 10h
+    private void feedDay(LocalDate dia) {
+        doAnswer(invocation -> {
+            TransactionArchiveRepository.StatementLineHandler handler = invocation.getArgument(1);
+            for (int conta = 1; conta <= CONTAS; conta++) {
+                for (int i = 0; i < POR_CONTA; i++) {
+                    handler.accept(conta, new TransactionResponseDTO(idOf(dia, conta, i), TransactionType.DEPOSITO,
+                            new BigDecimal(conta + "." + String.format("%02d", i)), "Depósito " + i, (long) conta,
+                            "C" + conta, null, dia.atTime(10, i), null));
+                }
+            }
+            return null;
+        }).when(archiveRepository).forEachStatementLine(eq(dia), any());
+    }
+
+    private static long idOf(LocalDate dia, int conta, int i) {
+        return dia.getDayOfMonth() * 10_000L + conta * 100L + i;
+    }
+}
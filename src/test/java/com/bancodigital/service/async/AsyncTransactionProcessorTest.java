@@ -0,0 +1,197 @@
+package com.bancodigital.service.async;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.TransactionOperationResponseDTO;
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.exception.ResourceNotFoundException;
+import com.bancodigital.exception.ServiceUnavailableException;
+import com.bancodigital.model.enums.OperationStatus;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.service.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do AsyncTransactionProcessor")
+class AsyncTransactionProcessorTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncTransactionProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new AsyncTransactionProcessor(transactionService, accountRepository,
+                SnowflakeIdGenerator.forNode(0), meterRegistry, 2, 4, 60, 100, 0);
+        when(accountRepository.existsById(anyLong())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve executar as operações de uma conta na ordem de chegada")
+    void shouldProcessSameAccountInFifoOrder() throws Exception {
+        List<BigDecimal> executadas = new CopyOnWriteArrayList<>();
+        when(transactionService.createTransaction(any())).thenAnswer(invocation -> {
+            TransactionRequestDTO dto = invocation.getArgument(0);
+            Thread.sleep(20);
+            executadas.add(dto.getValor());
+            return response(dto);
+        });
+
+        TransactionOperationResponseDTO primeira = processor.submit(deposito("1.00"));
+        TransactionOperationResponseDTO segunda = processor.submit(deposito("2.00"));
+
+        awaitStatus(segunda.getId(), OperationStatus.CONCLUIDA);
+        assertEquals(OperationStatus.CONCLUIDA, processor.getOperation(primeira.getId()).getStatus());
+        assertEquals(List.of(new BigDecimal("1.00"), new BigDecimal("2.00")), executadas);
+        assertEquals(2, meterRegistry.get("banco.transactions.async.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha sem interromper a fila da conta")
+    void shouldRecordFailureAndContinue() throws Exception {
+        when(transactionService.createTransaction(any()))
+                .thenThrow(new BusinessException("Saldo insuficiente para realizar o saque"))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        TransactionOperationResponseDTO falha = processor.submit(deposito("1.00"));
+        TransactionOperationResponseDTO sucesso = processor.submit(deposito("2.00"));
+
+        awaitStatus(sucesso.getId(), OperationStatus.CONCLUIDA);
+        TransactionOperationResponseDTO resultado = processor.getOperation(falha.getId());
+        assertEquals(OperationStatus.FALHOU, resultado.getStatus());
+        assertEquals("Saldo insuficiente para realizar o saque", resultado.getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve recusar submissões quando a fila está cheia")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(transactionService.createTransaction(any())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return response(invocation.getArgument(0));
+        });
+
+        processor.submit(deposito("1.00"));
+        awaitQueueDepth(0);
+        processor.submit(deposito("2.00"));
+        processor.submit(deposito("3.00"));
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> processor.submit(deposito("4.00")));
+        assertEquals(5, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("banco.transactions.async.rejected").counter().count());
+        liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha as operações da fila no encerramento")
+    void shouldFailQueuedOperationsOnShutdown() throws Exception {
+        processor.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new AsyncTransactionProcessor(transactionService, accountRepository,
+                SnowflakeIdGenerator.forNode(0), meterRegistry, 10, 4, 60, 100, 1);
+        CountDownLatch iniciada = new CountDownLatch(1);
+        when(transactionService.createTransaction(any())).thenAnswer(invocation -> {
+            iniciada.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("interrompida no encerramento", e);
+            }
+            return response(invocation.getArgument(0));
+        });
+
+        TransactionOperationResponseDTO emExecucao = processor.submit(deposito("1.00"));
+        TransactionOperationResponseDTO naFila = processor.submit(deposito("2.00"));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        processor.shutdown();
+
+        TransactionOperationResponseDTO resultado = processor.getOperation(naFila.getId());
+        assertEquals(OperationStatus.FALHOU, resultado.getStatus());
+        assertEquals("Operação não processada: a aplicação foi encerrada", resultado.getMensagem());
+        awaitStatus(emExecucao.getId(), OperationStatus.FALHOU);
+        assertEquals(0.0, meterRegistry.get("banco.transactions.async.queue.depth").gauge().value());
+        assertThrows(ServiceUnavailableException.class, () -> processor.submit(deposito("3.00")));
+    }
+
+    @Test
+    @DisplayName("Não deve expor a mensagem de erros inesperados")
+    void shouldHideUnexpectedErrorMessages() throws Exception {
+        when(transactionService.createTransaction(any()))
+                .thenThrow(new IllegalStateException("could not execute statement [SQL: insert into tb_transactions]"));
+
+        TransactionOperationResponseDTO falha = processor.submit(deposito("1.00"));
+
+        awaitStatus(falha.getId(), OperationStatus.FALHOU);
+        assertEquals("Erro interno ao processar a transação", processor.getOperation(falha.getId()).getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas as operações concluídas mais recentes")
+    void shouldBoundRetainedOperations() throws Exception {
+        processor.shutdown();
+        processor = new AsyncTransactionProcessor(transactionService, accountRepository,
+                SnowflakeIdGenerator.forNode(0), meterRegistry, 10, 4, 60, 1, 0);
+        when(transactionService.createTransaction(any())).thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        TransactionOperationResponseDTO primeira = processor.submit(deposito("1.00"));
+        TransactionOperationResponseDTO segunda = processor.submit(deposito("2.00"));
+
+        awaitStatus(segunda.getId(), OperationStatus.CONCLUIDA);
+        assertThrows(ResourceNotFoundException.class, () -> processor.getOperation(primeira.getId()));
+    }
+
+    private void awaitStatus(Long id, OperationStatus status) throws InterruptedException {
+        for (int i = 0; i < 100 && processor.getOperation(id).getStatus() != status; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(status, processor.getOperation(id).getStatus());
+    }
+
+    private void awaitQueueDepth(double depth) throws InterruptedException {
+        for (int i = 0; i < 100 && meterRegistry.get("banco.transactions.async.queue.depth").gauge().value() != depth; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static TransactionRequestDTO deposito(String valor) {
+        return new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal(valor), null, 1L, null);
+    }
+
+    private static TransactionResponseDTO response(TransactionRequestDTO dto) {
+        return new TransactionResponseDTO(1L, dto.getTipo(), dto.getValor(), null, dto.getAccountId(), "123456",
+                null, null, null);
+    }
+}
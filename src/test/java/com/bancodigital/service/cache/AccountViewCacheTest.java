@@ -0,0 +1,141 @@
+package com.bancodigital.service.cache;
+
+import com.bancodigital.config.datasource.ReplicaRoutingDataSource;
+import com.bancodigital.dto.response.AccountResponseDTO;
+import com.bancodigital.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do AccountViewCache")
+class AccountViewCacheTest {
+
+    private AccountRepository accountRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AccountViewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountViewCache(accountRepository, null, true, 100, 60, "", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco só na primeira leitura da conta")
+    void shouldReadThroughOnce() {
+        when(accountRepository.findResponseById(1L)).thenReturn(Optional.of(account(1L, 1L, "100.00")));
+
+        cache.findById(1L);
+        AccountResponseDTO segunda = cache.findById(1L).orElseThrow();
+        segunda.setSaldo(BigDecimal.ONE);
+
+        assertEquals(new BigDecimal("100.00"), cache.findById(1L).orElseThrow().getSaldo());
+        verify(accountRepository, times(1)).findResponseById(1L);
+        assertEquals(2.0, meterRegistry.get("banco.accounts.cache.gets")
+                .tags("cache", "accounts", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar a conta somente após o commit")
+    void shouldEvictOnlyAfterCommit() {
+        when(accountRepository.findResponseById(1L))
+                .thenReturn(Optional.of(account(1L, 1L, "100.00")))
+                .thenReturn(Optional.of(account(1L, 1L, "60.00")));
+        cache.findById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(1L, null);
+        assertEquals(new BigDecimal("100.00"), cache.findById(1L).orElseThrow().getSaldo());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(new BigDecimal("60.00"), cache.findById(1L).orElseThrow().getSaldo());
+    }
+
+    @Test
+    @DisplayName("Deve manter a conta em cache quando a transação é desfeita")
+    void shouldKeepEntryOnRollback() {
+        when(accountRepository.findResponseById(1L)).thenReturn(Optional.of(account(1L, 1L, "100.00")));
+        cache.findById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(1L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        cache.findById(1L);
+        verify(accountRepository, times(1)).findResponseById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve montar as contas do usuário a partir do cache por id")
+    void shouldServeUserAccountsFromCache() {
+        when(accountRepository.findResponsesByUserId(1L))
+                .thenReturn(List.of(account(1L, 1L, "100.00"), account(2L, 1L, "5.00")));
+        when(accountRepository.findResponseById(2L)).thenReturn(Optional.of(account(2L, 1L, "7.00")));
+        cache.findByUserId(1L);
+
+        cache.evictAfterCommit(2L);
+        cache.findById(2L);
+        List<AccountResponseDTO> contas = cache.findByUserId(1L);
+
+        assertEquals(new BigDecimal("7.00"), contas.get(1).getSaldo());
+        verify(accountRepository, times(1)).findResponsesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve carregar do primário, em transação própria, quando há réplicas")
+    void shouldLoadFromPrimaryWithReplicas() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(accountRepository.findResponseById(1L)).thenReturn(Optional.of(account(1L, 1L, "100.00")));
+        cache = new AccountViewCache(accountRepository, transactionManager, true, 100, 60,
+                "jdbc:postgresql://replica/banco", new SimpleMeterRegistry());
+
+        cache.findById(1L);
+
+        ArgumentCaptor<TransactionDefinition> definicao = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definicao.capture());
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_READ, definicao.getValue().getName());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definicao.getValue().getPropagationBehavior());
+        assertTrue(definicao.getValue().isReadOnly());
+    }
+
+    private void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                sync.afterCommit();
+            }
+            sync.afterCompletion(status);
+        });
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static AccountResponseDTO account(Long id, Long userId, String saldo) {
+        return new AccountResponseDTO(id, "00000" + id, "0001", new BigDecimal(saldo), userId, "João Silva",
+                LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.bancodigital.service.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do BoundedCache")
+class BoundedCacheTest {
+
+    private final AtomicLong agora = new AtomicLong();
+
+    @Test
+    @DisplayName("Deve remover a entrada usada há mais tempo ao exceder o tamanho")
+    void shouldEvictLeastRecentlyUsed() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(2, 1_000, agora::get);
+        cache.put(1L, "um");
+        cache.put(2L, "dois");
+        cache.getIfPresent(1L);
+
+        cache.put(3L, "três");
+
+        assertEquals("um", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    @DisplayName("Deve expirar a entrada após o TTL")
+    void shouldExpireAfterWrite() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, 1_000, agora::get);
+        cache.put(1L, "um");
+
+        agora.set(999);
+        assertEquals("um", cache.getIfPresent(1L));
+        agora.set(1_000);
+        assertNull(cache.getIfPresent(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Deve expirar a entrada no prazo próprio, limitado ao TTL do cache")
+    void shouldExpireAtEntryTtl() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, 1_000, agora::get);
+        cache.put(1L, "um", 300);
+        cache.put(2L, "dois", 5_000);
+
+        agora.set(299);
+        assertEquals("um", cache.getIfPresent(1L));
+        agora.set(300);
+        assertNull(cache.getIfPresent(1L));
+        agora.set(999);
+        assertEquals("dois", cache.getIfPresent(2L));
+        agora.set(1_000);
+        assertNull(cache.getIfPresent(2L));
+    }
+
+    @Test
+    @DisplayName("Não deve guardar carga feita antes de uma invalidação")
+    void shouldDropLoadRacingWithInvalidation() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, 1_000, agora::get);
+
+        String carregado = cache.get(1L, id -> {
+            // Commit concorrente invalida a conta enquanto o SELECT lia o valor antigo
+            cache.invalidate(id);
+            return "antigo";
+        });
+
+        assertEquals("antigo", carregado);
+        assertNull(cache.getIfPresent(1L));
+        assertEquals("novo", cache.get(1L, id -> "novo"));
+        assertEquals("novo", cache.getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve guardar a carga quando outra chave é invalidada durante ela")
+    void shouldKeepLoadWhenOtherKeyIsInvalidated() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10_000, 1_000, agora::get);
+
+        cache.get(1L, id -> {
+            for (long outra = 2; outra < 100; outra++) {
+                cache.invalidate(outra);
+            }
+            return "um";
+        });
+
+        assertEquals("um", cache.getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve descartar as cargas em andamento ao invalidar por predicado")
+    void shouldDropLoadRacingWithInvalidateIf() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10_000, 1_000, agora::get);
+
+        cache.get(1L, id -> {
+            cache.invalidateIf(valor -> valor.startsWith("u"));
+            return "um";
+        });
+
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve descartar cargas antigas quando a lápide da chave já foi removida")
+    void shouldDropLoadOlderThanDiscardedTombstone() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(2, 1_000, agora::get);
+
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            // Mais lápides que o limite do segmento: a de 1L é descartada
+            cache.invalidate(2L);
+            cache.invalidate(3L);
+            return "antigo";
+        });
+
+        assertNull(cache.getIfPresent(1L));
+    }
+}
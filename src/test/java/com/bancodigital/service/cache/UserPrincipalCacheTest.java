@@ -0,0 +1,55 @@
+package com.bancodigital.service.cache;
+
+import com.bancodigital.config.JwtPrincipal;
+import com.bancodigital.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do UserPrincipalCache")
+class UserPrincipalCacheTest {
+
+    private UserRepository userRepository;
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new UserPrincipalCache(userRepository, true, 100, 30, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o usuário uma vez por TTL, inclusive quando ele não existe")
+    void shouldCachePresentAndMissingUsers() {
+        JwtPrincipal ana = new JwtPrincipal(1L, "ana@x.com", "USER");
+        when(userRepository.findPrincipalByEmail("ana@x.com")).thenReturn(Optional.of(ana));
+        when(userRepository.findPrincipalByEmail("bia@x.com")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(ana), cache.findByEmail("ana@x.com"));
+        assertEquals(Optional.of(ana), cache.findByEmail("ana@x.com"));
+        assertTrue(cache.findByEmail("bia@x.com").isEmpty());
+        assertTrue(cache.findByEmail("bia@x.com").isEmpty());
+
+        verify(userRepository, times(1)).findPrincipalByEmail("ana@x.com");
+        verify(userRepository, times(1)).findPrincipalByEmail("bia@x.com");
+    }
+
+    @Test
+    @DisplayName("Deve deixar de aceitar o usuário excluído após a invalidação")
+    void shouldForgetEvictedUser() {
+        when(userRepository.findPrincipalByEmail("ana@x.com"))
+                .thenReturn(Optional.of(new JwtPrincipal(1L, "ana@x.com", "USER")))
+                .thenReturn(Optional.empty());
+
+        assertTrue(cache.findByEmail("ana@x.com").isPresent());
+        cache.evictAfterCommit("ana@x.com");
+
+        assertTrue(cache.findByEmail("ana@x.com").isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package com.bancodigital.service.concurrency;
+
+import com.bancodigital.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do AccountLockManager")
+class AccountLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new AccountLockManager(16, 50, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve exigir transação ativa para adquirir locks")
+    void shouldRequireActiveTransaction() {
+        assertThrows(IllegalStateException.class, () -> lockManager.lockForTransaction(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Deve bloquear outra thread até o fim da transação")
+    void shouldBlockOtherThreadUntilCompletion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.lockForTransaction(1L, 2L);
+
+        ExecutionException blocked = assertThrows(ExecutionException.class,
+                () -> lockInOtherThread(2L, 1L).get());
+        assertInstanceOf(BusinessException.class, blocked.getCause());
+        assertEquals(1.0, meterRegistry.counter("banco.account.lock.timeouts").count());
+
+        completeTransaction();
+
+        assertDoesNotThrow(() -> lockInOtherThread(2L, 1L).get());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar conta destino nula")
+    void shouldIgnoreNullAccountIds() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertDoesNotThrow(() -> lockManager.lockForTransaction(1L, null));
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        completeTransaction();
+    }
+
+    private CompletableFuture<Void> lockInOtherThread(Long... accountIds) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                lockManager.lockForTransaction(accountIds);
+                completeTransaction();
+            } finally {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }
+        });
+    }
+
+    private void completeTransaction() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
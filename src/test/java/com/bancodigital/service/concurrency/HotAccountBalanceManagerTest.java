@@ -0,0 +1,91 @@
+package com.bancodigital.service.concurrency;
+
+import com.bancodigital.model.Account;
+import com.bancodigital.model.AccountBalanceSlot;
+import com.bancodigital.repository.AccountBalanceSlotRepository;
+import com.bancodigital.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do HotAccountBalanceManager")
+class HotAccountBalanceManagerTest {
+
+    @Mock
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountLockManager accountLockManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private HotAccountBalanceManager manager;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account();
+        account.setId(1L);
+        account.setSaldo(new BigDecimal("100.00"));
+        account.setSlotsSaldo(4);
+    }
+
+    @Test
+    @DisplayName("Deve manter os sub-saldos existentes ao redimensionar")
+    void shouldKeepExistingSlotsOnResize() {
+        when(slotRepository.findByAccountIdForUpdate(1L)).thenReturn(List.of(
+                new AccountBalanceSlot(10L, account, 0, new BigDecimal("5.00")),
+                new AccountBalanceSlot(11L, account, 1, BigDecimal.ZERO)));
+
+        manager.configure(account, 6);
+
+        ArgumentCaptor<List<AccountBalanceSlot>> novos = ArgumentCaptor.forClass(List.class);
+        verify(slotRepository).deleteByAccountIdFromSlot(1L, 6);
+        verify(slotRepository).saveAll(novos.capture());
+        assertEquals(List.of(4, 5), novos.getValue().stream().map(AccountBalanceSlot::getSlot).toList());
+        assertEquals(new BigDecimal("105.00"), account.getSaldo());
+        assertEquals(6, account.getSlotsSaldo());
+        assertTrue(manager.isKnownSharded(1L));
+    }
+
+    @Test
+    @DisplayName("Deve remover só os sub-saldos acima da nova quantidade")
+    void shouldDeleteOnlyRemovedSlots() {
+        manager.configure(account, 2);
+
+        verify(slotRepository).deleteByAccountIdFromSlot(1L, 2);
+        verify(slotRepository).saveAll(List.of());
+        assertEquals(2, account.getSlotsSaldo());
+    }
+
+    @Test
+    @DisplayName("Deve tratar crédito em sub-saldo removido como conflito de concorrência")
+    void shouldReportCreditOnRemovedSlotAsConflict() {
+        when(slotRepository.credit(eq(1L), anyInt(), any())).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> manager.credit(account, BigDecimal.TEN));
+    }
+}
@@ -0,0 +1,57 @@
+package com.bancodigital.service.concurrency;
+
+import com.bancodigital.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do OptimisticRetryExecutor")
+class OptimisticRetryExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new OptimisticRetryExecutor(3, 1, 2, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve reexecutar após conflito de versão")
+    void shouldRetryAfterConflict() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("teste", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("banco.transactions.optimistic.retries").count());
+        assertEquals(2.0, meterRegistry.counter("banco.transactions.optimistic.conflicts").count());
+    }
+
+    @Test
+    @DisplayName("Deve desistir após esgotar as tentativas")
+    void shouldGiveUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(BusinessException.class, () -> executor.execute("teste", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Account", 1L);
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("banco.transactions.optimistic.exhausted").count());
+    }
+}
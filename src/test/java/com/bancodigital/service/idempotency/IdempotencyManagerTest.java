@@ -0,0 +1,220 @@
+package com.bancodigital.service.idempotency;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.model.IdempotencyKey;
+import com.bancodigital.model.IdempotencyKeyId;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.repository.IdempotencyKeyRepository;
+import com.bancodigital.service.concurrency.OptimisticRetryExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do IdempotencyManager")
+class IdempotencyManagerTest {
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private IdempotencyManager manager;
+    private TransactionRequestDTO request;
+    private TransactionResponseDTO response;
+
+    @BeforeEach
+    void setUp() {
+        manager = manager();
+        request = new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal("10.00"), null, 1L, null);
+        response = new TransactionResponseDTO(99L, TransactionType.DEPOSITO, new BigDecimal("10.00"), null,
+                1L, "123456", null, LocalDateTime.now(), null);
+        lenient().when(repository.findById(any(IdempotencyKeyId.class))).thenReturn(Optional.empty());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Deve executar a transação uma única vez para a mesma chave")
+    void shouldReplayStoredResponse() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        IdempotencyManager.Result primeira = manager.execute("ana@x.com", "chave-1", request, () -> {
+            execucoes.incrementAndGet();
+            return response;
+        });
+        IdempotencyManager.Result repetida = manager.execute("ana@x.com", "chave-1", request, () -> {
+            execucoes.incrementAndGet();
+            return response;
+        });
+
+        assertEquals(1, execucoes.get());
+        assertFalse(primeira.replayed());
+        assertTrue(repetida.replayed());
+        assertEquals(99L, repetida.response().getId());
+        verify(repository).insert(eq("ana@x.com"), eq("chave-1"), anyString(), eq(99L), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar chave reutilizada com outra requisição")
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        manager.execute("ana@x.com", "chave-1", request, () -> response);
+
+        TransactionRequestDTO outra = new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal("20.00"),
+                null, 1L, null);
+
+        assertThrows(BusinessException.class, () -> manager.execute("ana@x.com", "chave-1", outra, () -> response));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta gravada no banco após reinício")
+    void shouldReplayFromRepository() {
+        manager().execute("ana@x.com", "chave-1", request, () -> response);
+        IdempotencyKey gravada = gravada();
+        when(repository.findById(new IdempotencyKeyId("ana@x.com", "chave-1"))).thenReturn(Optional.of(gravada));
+
+        IdempotencyManager.Result result = manager.execute("ana@x.com", "chave-1", request, () -> fail("Não deveria executar"));
+
+        assertTrue(result.replayed());
+        assertEquals(response, result.response());
+    }
+
+    @Test
+    @DisplayName("Deve fazer requisições simultâneas com a mesma chave aguardarem a primeira")
+    void shouldMakeConcurrentRequestsWait() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        CompletableFuture<IdempotencyManager.Result> primeira = CompletableFuture.supplyAsync(() ->
+                manager.execute("ana@x.com", "chave-1", request, () -> {
+                    execucoes.incrementAndGet();
+                    iniciou.countDown();
+                    await(liberar);
+                    return response;
+                }));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<IdempotencyManager.Result> segunda = CompletableFuture.supplyAsync(() ->
+                manager.execute("ana@x.com", "chave-1", request, () -> {
+                    execucoes.incrementAndGet();
+                    return response;
+                }));
+        Thread.sleep(100);
+        assertFalse(segunda.isDone());
+
+        liberar.countDown();
+
+        assertEquals(99L, segunda.get(5, TimeUnit.SECONDS).response().getId());
+        assertTrue(segunda.get().replayed());
+        assertFalse(primeira.get(5, TimeUnit.SECONDS).replayed());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve permitir nova tentativa quando a primeira execução falha")
+    void shouldAllowRetryAfterFailure() {
+        assertThrows(BusinessException.class, () -> manager.execute("ana@x.com", "chave-1", request, () -> {
+            throw new BusinessException("Saldo insuficiente para realizar o saque");
+        }));
+
+        IdempotencyManager.Result result = manager.execute("ana@x.com", "chave-1", request, () -> response);
+
+        assertFalse(result.replayed());
+        assertEquals(99L, result.response().getId());
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a execução e devolver a resposta gravada quando outra requisição grava a chave antes")
+    void shouldReplayWhenKeyInsertConflicts() throws Exception {
+        AtomicReference<String> hashGravado = new AtomicReference<>();
+        doAnswer(invocation -> {
+            hashGravado.set(invocation.getArgument(2));
+            throw new DataIntegrityViolationException("pk_idempotency_keys");
+        }).when(repository).insert(anyString(), anyString(), anyString(), any(), anyString(), any(), any());
+        String respostaGravada = objectMapper.writeValueAsString(response);
+        when(repository.findById(new IdempotencyKeyId("ana@x.com", "chave-1"))).thenAnswer(invocation ->
+                hashGravado.get() == null ? Optional.empty()
+                        : Optional.of(new IdempotencyKey(new IdempotencyKeyId("ana@x.com", "chave-1"),
+                        hashGravado.get(), 99L, respostaGravada, LocalDateTime.now(),
+                        LocalDateTime.now().plusHours(1))));
+
+        IdempotencyManager.Result result = manager.execute("ana@x.com", "chave-1", request, () ->
+                new TransactionResponseDTO(100L, TransactionType.DEPOSITO, new BigDecimal("10.00"), null,
+                        1L, "123456", null, LocalDateTime.now(), null));
+
+        assertTrue(result.replayed());
+        assertEquals(99L, result.response().getId());
+    }
+
+    @Test
+    @DisplayName("Deve tratar a mesma chave de usuários diferentes como operações distintas")
+    void shouldScopeKeysPerUser() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        manager.execute("ana@x.com", "chave-1", request, () -> {
+            execucoes.incrementAndGet();
+            return response;
+        });
+        IdempotencyManager.Result outroUsuario = manager.execute("bia@x.com", "chave-1", request, () -> {
+            execucoes.incrementAndGet();
+            return response;
+        });
+
+        assertEquals(2, execucoes.get());
+        assertFalse(outroUsuario.replayed());
+        verify(repository).insert(eq("bia@x.com"), eq("chave-1"), anyString(), eq(99L), anyString(), any(), any());
+    }
+
+    private IdempotencyManager manager() {
+        return new IdempotencyManager(repository, objectMapper, transactionTemplate,
+                new OptimisticRetryExecutor(3, 0, 0, new SimpleMeterRegistry()), 24, 100);
+    }
+
+    // Monta a linha a partir do último INSERT feito no repositório
+    private IdempotencyKey gravada() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> resposta = ArgumentCaptor.forClass(String.class);
+        verify(repository).insert(eq("ana@x.com"), eq("chave-1"), hash.capture(), any(), resposta.capture(),
+                any(), any());
+        return new IdempotencyKey(new IdempotencyKeyId("ana@x.com", "chave-1"), hash.getValue(), 99L,
+                resposta.getValue(), LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,8 +6,15 @@ import com.bancodigital.exception.BusinessException;
 import com.bancodigital.exception.ResourceNotFoundException;
 import com.bancodigital.model.Account;
 import com.bancodigital.model.User;
+import com.bancodigital.dto.response.AccountSummaryItemDTO;
+import com.bancodigital.dto.response.AccountSummaryResponseDTO;
+import com.bancodigital.model.enums.MovementCategory;
 import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.repository.DailyRollupRepository;
 import com.bancodigital.repository.UserRepository;
+import com.bancodigital.service.cache.AccountViewCache;
+import com.bancodigital.service.concurrency.HotAccountBalanceManager;
+import com.bancodigital.service.ledger.LedgerEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,7 +24,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +44,18 @@ class AccountServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private HotAccountBalanceManager hotAccountBalanceManager;
+
+    @Mock
+    private LedgerEngine ledgerEngine;
+
+    @Mock
+    private AccountViewCache accountViewCache;
+
+    @Mock
+    private DailyRollupRepository dailyRollupRepository;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -111,13 +132,27 @@ class AccountServiceImplTest {
     @Test
     @DisplayName("Deve buscar conta por ID com sucesso")
     void shouldGetAccountByIdSuccessfully() {
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(accountViewCache.findById(1L)).thenReturn(Optional.of(new AccountResponseDTO(
+                1L, "123456", "0001", BigDecimal.ZERO, 1L, "João Silva", account.getCreatedAt())));
 
         AccountResponseDTO response = accountService.getAccountById(1L);
 
         assertNotNull(response);
         assertEquals(1L, response.getId());
         assertEquals("123456", response.getNumeroConta());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache da conta após excluí-la")
+    void shouldEvictAccountFromCacheOnDelete() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        accountService.deleteAccount(1L);
+
+        verify(accountRepository).delete(account);
+        verify(accountViewCache).evictAfterCommit(1L);
+        verify(accountViewCache).evictUserAfterCommit(1L);
     }
 
     @Test
@@ -134,4 +169,25 @@ class AccountServiceImplTest {
         assertEquals("Não é possível excluir conta com saldo positivo", exception.getMessage());
         verify(accountRepository, never()).delete(any(Account.class));
     }
+
+    @Test
+    @DisplayName("Deve somar totais consolidados e lançamentos dos dias não consolidados no resumo")
+    void shouldMergeRollupsWithLiveRowsInSummary() {
+        when(accountViewCache.findById(1L)).thenReturn(Optional.of(new AccountResponseDTO()));
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 10)));
+        when(dailyRollupRepository.sumFolded(1L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 10)))
+                .thenReturn(List.of(new AccountSummaryItemDTO(MovementCategory.DEPOSITO, 2L, new BigDecimal("100.00"))));
+        when(dailyRollupRepository.sumLive(1L, LocalDate.of(2025, 1, 11).atStartOfDay(),
+                LocalDate.of(2025, 1, 13).atStartOfDay()))
+                .thenReturn(List.of(
+                        new AccountSummaryItemDTO(MovementCategory.DEPOSITO, 1L, new BigDecimal("50.00")),
+                        new AccountSummaryItemDTO(MovementCategory.SAQUE, 1L, new BigDecimal("-20.00"))));
+
+        AccountSummaryResponseDTO response = accountService.getAccountSummary(1L,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 12));
+
+        assertEquals(List.of(
+                new AccountSummaryItemDTO(MovementCategory.DEPOSITO, 3L, new BigDecimal("150.00")),
+                new AccountSummaryItemDTO(MovementCategory.SAQUE, 1L, new BigDecimal("-20.00"))), response.getItens());
+    }
 }
@@ -0,0 +1,352 @@
+package com.bancodigital.service.impl;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.dto.response.AccountResponseDTO;
+import com.bancodigital.dto.response.CursorPageResponseDTO;
+import com.bancodigital.dto.response.TransactionBatchResponseDTO;
+import com.bancodigital.dto.response.TransactionResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.exception.ResourceNotFoundException;
+import com.bancodigital.model.Account;
+import com.bancodigital.model.Posting;
+import com.bancodigital.model.Transaction;
+import com.bancodigital.model.User;
+import com.bancodigital.model.enums.BatchItemStatus;
+import com.bancodigital.model.enums.BatchMode;
+import com.bancodigital.model.enums.ExportFormat;
+import com.bancodigital.model.enums.PostingType;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.repository.AtomicTransactionRepository;
+import com.bancodigital.repository.PostingBatchRepository;
+import com.bancodigital.repository.TransactionBatchRepository;
+import com.bancodigital.repository.TransactionRepository;
+import com.bancodigital.service.archive.TransactionArchive;
+import com.bancodigital.service.cache.AccountViewCache;
+import com.bancodigital.service.concurrency.AccountLockManager;
+import com.bancodigital.service.concurrency.ConcurrencyMode;
+import com.bancodigital.service.concurrency.HotAccountBalanceManager;
+import com.bancodigital.service.ledger.LedgerEngine;
+import com.bancodigital.service.concurrency.OptimisticRetryExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do TransactionService")
+class TransactionServiceImplTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountLockManager accountLockManager;
+
+    @Mock
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Mock
+    private HotAccountBalanceManager hotAccountBalanceManager;
+
+    @Mock
+    private LedgerEngine ledgerEngine;
+
+    @Mock
+    private AtomicTransactionRepository atomicTransactionRepository;
+
+    @Mock
+    private PostingBatchRepository postingBatchRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AccountViewCache accountViewCache;
+
+    @Mock
+    private TransactionArchive transactionArchive;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private TransactionServiceImpl transactionService;
+
+    private Account origem;
+    private Account destino;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setNome("João Silva");
+
+        origem = new Account();
+        origem.setId(1L);
+        origem.setNumeroConta("123456");
+        origem.setAgencia("0001");
+        origem.setSaldo(new BigDecimal("100.00"));
+        origem.setUser(user);
+
+        destino = new Account();
+        destino.setId(2L);
+        destino.setNumeroConta("654321");
+        destino.setAgencia("0001");
+        destino.setSaldo(BigDecimal.ZERO);
+        destino.setUser(user);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(new SimpleTransactionStatus());
+        });
+    }
+
+    @Test
+    @DisplayName("Deve realizar transferência debitando origem e creditando destino")
+    void shouldTransferBetweenAccounts() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(origem));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(destino));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionResponseDTO response = transactionService.createTransaction(
+                new TransactionRequestDTO(TransactionType.TRANSFERENCIA, new BigDecimal("40.00"), null, 1L, 2L));
+
+        assertEquals(TransactionType.TRANSFERENCIA, response.getTipo());
+        assertEquals(new BigDecimal("60.00"), origem.getSaldo());
+        assertEquals(new BigDecimal("40.00"), destino.getSaldo());
+        verify(accountLockManager).lockForTransaction(1L, 2L);
+        verify(transactionRepository).save(any(Transaction.class));
+        verify(postingBatchRepository).insertAll(argThat(pernas -> pernas.size() == 2
+                && pernas.stream().map(Posting::getValor).reduce(BigDecimal.ZERO, BigDecimal::add).signum() == 0));
+        verify(accountViewCache).evictAfterCommit(1L, 2L, null);
+    }
+
+    @Test
+    @DisplayName("Deve debitar a tarifa da origem e creditá-la na conta de tarifas")
+    void shouldChargeTransferFee() {
+        ReflectionTestUtils.setField(transactionService, "tarifaTransferencia", new BigDecimal("1.50"));
+        ReflectionTestUtils.setField(transactionService, "contaTarifasId", 99L);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(origem));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(destino));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionResponseDTO response = transactionService.createTransaction(
+                new TransactionRequestDTO(TransactionType.TRANSFERENCIA, new BigDecimal("40.00"), null, 1L, 2L));
+
+        assertEquals(new BigDecimal("1.50"), response.getTarifa());
+        assertEquals(new BigDecimal("58.50"), origem.getSaldo());
+        assertEquals(new BigDecimal("40.00"), destino.getSaldo());
+        verify(accountRepository).creditarSaldo(99L, new BigDecimal("1.50"));
+        verify(postingBatchRepository).insertAll(argThat(pernas -> pernas.size() == 4
+                && pernas.get(3).getNatureza() == PostingType.TARIFA
+                && pernas.get(3).getAccount().getId().equals(99L)));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao sacar valor acima do saldo")
+    void shouldThrowExceptionWhenBalanceIsInsufficient() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(origem));
+
+        BusinessException exception = assertThrows(
+                BusinessException.class,
+                () -> transactionService.createTransaction(
+                        new TransactionRequestDTO(TransactionType.SAQUE, new BigDecimal("150.00"), null, 1L, null))
+        );
+
+        assertEquals("Saldo insuficiente para realizar o saque", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Deve creditar sub-saldo sem lock em conta de alto volume")
+    void shouldCreditBalanceSlotWithoutLockForShardedAccount() {
+        destino.setSlotsSaldo(8);
+        when(hotAccountBalanceManager.isKnownSharded(2L)).thenReturn(true);
+        when(hotAccountBalanceManager.isSharded(destino)).thenReturn(true);
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(destino));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.createTransaction(
+                new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal("25.00"), null, 2L, null));
+
+        verify(accountLockManager).lockForTransaction(null, null);
+        verify(hotAccountBalanceManager).credit(destino, new BigDecimal("25.00"));
+        assertEquals(BigDecimal.ZERO, destino.getSaldo());
+    }
+
+    @Test
+    @DisplayName("Deve gravar apenas transações válidas no modo BEST_EFFORT")
+    void shouldProcessValidItemsInBestEffortBatch() {
+        when(accountRepository.findAllById(anyList())).thenReturn(List.of(origem, destino));
+
+        TransactionBatchResponseDTO response = transactionService.createTransactionsBatch(List.of(
+                new TransactionRequestDTO(TransactionType.SAQUE, new BigDecimal("70.00"), null, 1L, null),
+                new TransactionRequestDTO(TransactionType.SAQUE, new BigDecimal("70.00"), null, 1L, null),
+                new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal("10.00"), null, 2L, null)
+        ), BatchMode.BEST_EFFORT);
+
+        assertEquals(2, response.getProcessadas());
+        assertEquals(1, response.getRejeitadas());
+        assertEquals(BatchItemStatus.REJEITADA, response.getResultados().get(1).getStatus());
+        assertEquals(new BigDecimal("30.00"), origem.getSaldo());
+        assertEquals(new BigDecimal("10.00"), destino.getSaldo());
+        verify(transactionBatchRepository).insertAll(argThat(lancamentos -> lancamentos.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Deve cancelar o lote inteiro no modo ALL_OR_NOTHING")
+    void shouldCancelWholeBatchWhenAnyItemFails() {
+        when(accountRepository.findAllById(anyList())).thenReturn(List.of(origem));
+
+        TransactionBatchResponseDTO response = transactionService.createTransactionsBatch(List.of(
+                new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal("10.00"), null, 1L, null),
+                new TransactionRequestDTO(TransactionType.DEPOSITO, null, null, 1L, null)
+        ), BatchMode.ALL_OR_NOTHING);
+
+        assertEquals(0, response.getProcessadas());
+        assertEquals(BatchItemStatus.CANCELADA, response.getResultados().get(0).getStatus());
+        assertEquals(BatchItemStatus.REJEITADA, response.getResultados().get(1).getStatus());
+        verify(transactionBatchRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve transferir em um único comando SQL no modo ATOMIC")
+    void shouldTransferWithSingleStatementInAtomicMode() {
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", ConcurrencyMode.ATOMIC);
+        when(atomicTransactionRepository.transferir(1L, 2L, new BigDecimal("40.00"), null))
+                .thenReturn(Optional.of(new AtomicTransactionRepository.Resultado(10L, "123456", LocalDateTime.now())));
+
+        TransactionResponseDTO response = transactionService.createTransaction(
+                new TransactionRequestDTO(TransactionType.TRANSFERENCIA, new BigDecimal("40.00"), null, 1L, 2L));
+
+        assertEquals(10L, response.getId());
+        assertEquals("123456", response.getNumeroConta());
+        verifyNoInteractions(accountRepository, transactionRepository, accountLockManager);
+    }
+
+    @Test
+    @DisplayName("Deve reportar saldo insuficiente quando o débito condicional não altera linhas")
+    void shouldReportInsufficientFundsInAtomicMode() {
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", ConcurrencyMode.ATOMIC);
+        when(atomicTransactionRepository.sacar(1L, new BigDecimal("150.00"), null)).thenReturn(Optional.empty());
+        when(accountRepository.existsById(1L)).thenReturn(true);
+
+        BusinessException exception = assertThrows(
+                BusinessException.class,
+                () -> transactionService.createTransaction(
+                        new TransactionRequestDTO(TransactionType.SAQUE, new BigDecimal("150.00"), null, 1L, null))
+        );
+
+        assertEquals("Saldo insuficiente para realizar o saque", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve exportar o extrato em CSV desanexando cada lançamento")
+    void shouldExportStatementAsCsv() throws Exception {
+        Transaction transaction = new Transaction(7L, TransactionType.SAQUE, new BigDecimal("12.50"), "Conta \"luz\"",
+                origem, null, null, LocalDateTime.of(2025, 5, 10, 9, 30));
+        when(transactionRepository.streamByAccountIdAndCreatedAtBetween(
+                1L, LocalDate.of(2025, 5, 1).atStartOfDay(), LocalDate.of(2025, 6, 1).atStartOfDay()))
+                .thenReturn(Stream.of(transaction));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        transactionService.exportStatement(1L, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31),
+                ExportFormat.CSV, output);
+
+        String[] linhas = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("7,SAQUE,12.50,,\"Conta \"\"luz\"\"\",1,\"123456\",,2025-05-10T09:30", linhas[1]);
+        verify(entityManager).detach(transaction);
+    }
+
+    @Test
+    @DisplayName("Deve completar a página do extrato com lançamentos arquivados")
+    void shouldFillStatementPageFromArchive() {
+        LocalDateTime fronteira = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(accountViewCache.findById(1L)).thenReturn(Optional.of(new AccountResponseDTO()));
+        when(transactionArchive.boundary()).thenReturn(Optional.of(fronteira));
+        when(transactionRepository.findStatementPage(1L, Limit.of(3)))
+                .thenReturn(List.of(statementLine(30L, LocalDateTime.of(2025, 3, 1, 10, 0))));
+        when(transactionArchive.findStatementPageBefore(1L, fronteira, Long.MIN_VALUE, 2))
+                .thenReturn(List.of(statementLine(20L, LocalDateTime.of(2024, 12, 31, 18, 0)),
+                        statementLine(10L, LocalDateTime.of(2024, 12, 30, 8, 0))));
+
+        CursorPageResponseDTO<TransactionResponseDTO> pagina =
+                transactionService.getTransactionsByAccountIdByCursor(1L, null, 2);
+
+        assertEquals(List.of(30L, 20L), pagina.getItens().stream().map(TransactionResponseDTO::getId).toList());
+        assertNotNull(pagina.getNext());
+    }
+
+    @Test
+    @DisplayName("Deve ler o extrato só quando a versão mudou desde o ETag do cliente")
+    void shouldSkipStatementWhenNotModified() {
+        TransactionRepository.StatementVersion versao = mock(TransactionRepository.StatementVersion.class);
+        when(versao.getVersion()).thenReturn(7L);
+        when(versao.getSubSaldos()).thenReturn(new BigDecimal("0.00"));
+        when(versao.getUltimoLancamento()).thenReturn(LocalDateTime.of(2025, 3, 1, 10, 0));
+        when(transactionRepository.findStatementVersion(1L)).thenReturn(Optional.of(versao));
+        when(transactionArchive.boundary()).thenReturn(Optional.empty());
+        when(transactionRepository.findStatementByAccountId(1L))
+                .thenReturn(List.of(statementLine(30L, LocalDateTime.of(2025, 3, 1, 10, 0))));
+
+        assertTrue(transactionService.getTransactionsByAccountIdIfModified(1L,
+                "7|0.00|2025-03-01T10:00"::equals).isEmpty());
+        verify(transactionRepository, never()).findStatementByAccountId(1L);
+
+        List<TransactionResponseDTO> extrato = transactionService
+                .getTransactionsByAccountIdIfModified(1L, "6|0.00|2025-02-28T09:00"::equals)
+                .orElseThrow();
+        assertEquals(List.of(30L), extrato.stream().map(TransactionResponseDTO::getId).toList());
+
+        when(transactionRepository.findStatementVersion(2L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class,
+                () -> transactionService.getTransactionsByAccountIdIfModified(2L, versaoCliente -> false));
+    }
+
+    private static TransactionResponseDTO statementLine(Long id, LocalDateTime createdAt) {
+        return new TransactionResponseDTO(id, TransactionType.DEPOSITO, BigDecimal.TEN, null, 1L, "123456",
+                null, createdAt, null);
+    }
+}
@@ -6,6 +6,9 @@ import com.bancodigital.exception.BusinessException;
 import com.bancodigital.exception.ResourceNotFoundException;
 import com.bancodigital.model.User;
 import com.bancodigital.repository.UserRepository;
+import com.bancodigital.service.cache.AccountViewCache;
+import com.bancodigital.service.cache.UserPrincipalCache;
+import com.bancodigital.service.search.UserSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +25,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +39,15 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AccountViewCache accountViewCache;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -76,6 +89,7 @@ class UserServiceImplTest {
         assertEquals("João Silva", response.getNome());
         assertEquals("joao@email.com", response.getEmail());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userSearchIndex).indexAfterCommit(response);
     }
 
     @Test
@@ -144,13 +158,17 @@ class UserServiceImplTest {
         user2.setTelefone("11987654322");
         user2.setCreatedAt(LocalDateTime.now());
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user, user2));
+        when(userRepository.findAllResponses()).thenReturn(Arrays.asList(
+                new UserResponseDTO(user.getId(), user.getNome(), user.getCpf(), user.getEmail(), user.getTelefone(),
+                        user.getCreatedAt()),
+                new UserResponseDTO(user2.getId(), user2.getNome(), user2.getCpf(), user2.getEmail(),
+                        user2.getTelefone(), user2.getCreatedAt())));
 
         List<UserResponseDTO> response = userService.getAllUsers();
 
         assertNotNull(response);
         assertEquals(2, response.size());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllResponses();
     }
 
     @Test
@@ -176,5 +194,21 @@ class UserServiceImplTest {
 
         assertDoesNotThrow(() -> userService.deleteUser(1L));
         verify(userRepository, times(1)).delete(user);
+        verify(userSearchIndex).removeAfterCommit(1L);
+        verify(userPrincipalCache).evictAfterCommit("joao@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve buscar usuários pelo índice e rejeitar busca curta")
+    void shouldSearchUsers() {
+        UserResponseDTO encontrado = new UserResponseDTO(user.getId(), user.getNome(), user.getCpf(), user.getEmail(),
+                user.getTelefone(), user.getCreatedAt());
+        when(userSearchIndex.search("silva", 20)).thenReturn(List.of(encontrado));
+
+        assertEquals(List.of(encontrado), userService.searchUsers("  silva ", 20));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> userService.searchUsers(" s ", 20));
+        assertEquals("A busca deve ter ao menos 2 caracteres", exception.getMessage());
+        verify(userSearchIndex, times(1)).search(anyString(), anyInt());
     }
 }
@@ -0,0 +1,98 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.dto.request.TransactionRequestDTO;
+import com.bancodigital.exception.BusinessException;
+import com.bancodigital.model.Account;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.model.id.SnowflakeIdGenerator;
+import com.bancodigital.repository.AccountRepository;
+import com.bancodigital.repository.LedgerOffsetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do LedgerEngine")
+class LedgerEngineTest {
+
+    @TempDir
+    Path directory;
+
+    private LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        LedgerOffsetRepository offsetRepository = mock(LedgerOffsetRepository.class);
+        Account account = new Account();
+        account.setId(1L);
+        account.setNumeroConta("111");
+        account.setSaldo(new BigDecimal("100.00"));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(offsetRepository.findById(LedgerEngine.OFFSET_NAME)).thenReturn(Optional.empty());
+
+        engine = new LedgerEngine(accountRepository, offsetRepository, SnowflakeIdGenerator.forNode(4), true,
+                directory.toString(), 1, 1, 16, 100);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.stop();
+    }
+
+    @Test
+    @DisplayName("Deve manter o saldo em memória quando o registro não entra no journal")
+    void shouldKeepBalanceWhenJournalRejectsRecord() {
+        TransactionRequestDTO longa = new TransactionRequestDTO(TransactionType.SAQUE, new BigDecimal("10.00"),
+                "x".repeat(501), 1L, null);
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> engine.submit(longa));
+        assertEquals("Descrição deve ter no máximo 500 caracteres", ex.getMessage());
+        assertEquals(new BigDecimal("100.00"), engine.saldoEmMemoria(1L));
+
+        engine.submit(new TransactionRequestDTO(TransactionType.SAQUE, new BigDecimal("10.00"), "x".repeat(500), 1L, null));
+
+        assertEquals(new BigDecimal("90.00"), engine.saldoEmMemoria(1L));
+        List<LedgerJournal.Entry> entries = engine.journal().read(engine.journal().firstPosition(), 10);
+        assertEquals(1, entries.size());
+        assertEquals(1_000L, entries.get(0).record().valorCentavos());
+    }
+
+    @Test
+    @DisplayName("Deve parar o ledger inteiro quando o journal falha")
+    void shouldFailStopWhenJournalFails() throws Exception {
+        // O próximo segmento já existe: o journal não consegue trocar de segmento
+        Files.createFile(directory.resolve(String.format("ledger-%020d.journal", 2)));
+        TransactionRequestDTO deposito = new TransactionRequestDTO(TransactionType.DEPOSITO, new BigDecimal("1.00"),
+                "x".repeat(500), 1L, null);
+
+        BusinessException ex = null;
+        int aceitos = 0;
+        while (ex == null && aceitos < 5_000) {
+            try {
+                engine.submit(deposito);
+                aceitos++;
+            } catch (BusinessException e) {
+                ex = e;
+            }
+        }
+
+        assertNotNull(ex);
+        assertEquals("Ledger indisponível, tente novamente", ex.getMessage());
+        assertNull(engine.saldoEmMemoria(1L));
+        BusinessException depois = assertThrows(BusinessException.class, () -> engine.submit(deposito));
+        assertEquals("Ledger indisponível, tente novamente", depois.getMessage());
+        assertEquals(aceitos, engine.journal().read(engine.journal().firstPosition(), 10_000).size());
+    }
+}
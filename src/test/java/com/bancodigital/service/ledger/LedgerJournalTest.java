@@ -0,0 +1,78 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.model.enums.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do LedgerJournal")
+class LedgerJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve expor para leitura apenas registros já forçados para o disco")
+    void shouldReadOnlyDurableRecords() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE)) {
+            journal.append(record(1L, "primeiro"));
+            journal.force();
+            journal.append(record(2L, null));
+
+            List<LedgerJournal.Entry> entries = journal.read(journal.firstPosition(), 10);
+
+            assertEquals(1, entries.size());
+            assertEquals(record(1L, "primeiro"), entries.get(0).record());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve continuar no próximo segmento quando o atual enche")
+    void shouldRollToNextSegment() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE)) {
+            String descricao = "x".repeat(LedgerJournal.MAX_DESCRICAO_CHARS);
+            for (long id = 1; id <= 10; id++) {
+                journal.append(record(id, descricao));
+            }
+            journal.force();
+
+            List<LedgerJournal.Entry> entries = journal.read(journal.firstPosition(), 100);
+
+            assertEquals(10, entries.size());
+            assertEquals(10L, entries.get(9).record().transactionId());
+            assertTrue(entries.get(9).next().segment() > 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recuperar registros gravados ao reabrir o journal")
+    void shouldRecoverRecordsAfterReopen() throws IOException {
+        JournalPosition fim;
+        try (LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE)) {
+            journal.append(record(1L, "a"));
+            fim = journal.append(record(2L, "b"));
+            journal.force();
+        }
+
+        try (LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(fim, journal.durablePosition());
+            assertEquals(2, journal.read(journal.firstPosition(), 10).size());
+
+            journal.append(record(3L, "c"));
+            journal.force();
+            assertEquals(3L, journal.read(fim, 10).get(0).record().transactionId());
+        }
+    }
+
+    private static LedgerRecord record(long id, String descricao) {
+        return new LedgerRecord(id, TransactionType.DEPOSITO, 10L, 0L, 1500L, 1_700_000_000_000L, descricao);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bancodigital.service.ledger;
+
+import com.bancodigital.model.LedgerOffset;
+import com.bancodigital.model.Transaction;
+import com.bancodigital.model.enums.TransactionType;
+import com.bancodigital.repository.LedgerOffsetRepository;
+import com.bancodigital.repository.PostingBatchRepository;
+import com.bancodigital.repository.TransactionBatchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do LedgerProjector")
+class LedgerProjectorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve projetar um a um após falha e avançar até o lançamento com problema")
+    void shouldIsolateFailingRecord() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(directory, 4096)) {
+            for (long id = 1; id <= 3; id++) {
+                journal.append(new LedgerRecord(id, TransactionType.DEPOSITO, 10L, 0L, 100L, 0L, null));
+            }
+            journal.force();
+
+            LedgerEngine engine = mock(LedgerEngine.class);
+            when(engine.isEnabled()).thenReturn(true);
+            when(engine.journal()).thenReturn(journal);
+            when(engine.projectedPosition()).thenReturn(journal.firstPosition());
+            TransactionBatchRepository transactionBatchRepository = mock(TransactionBatchRepository.class);
+            doAnswer(invocation -> {
+                List<Transaction> lancamentos = invocation.getArgument(0);
+                if (lancamentos.stream().anyMatch(lancamento -> lancamento.getId() == 2L)) {
+                    throw new IllegalStateException("violação de restrição");
+                }
+                return null;
+            }).when(transactionBatchRepository).insertAll(anyList());
+            TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+            doAnswer(invocation -> {
+                invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                return null;
+            }).when(transactionTemplate).executeWithoutResult(any());
+            LedgerOffsetRepository offsetRepository = mock(LedgerOffsetRepository.class);
+
+            LedgerProjector projector = new LedgerProjector(engine, transactionBatchRepository,
+                    mock(PostingBatchRepository.class), offsetRepository, mock(JdbcTemplate.class),
+                    transactionTemplate, 10, 0);
+
+            projector.project();
+            verify(offsetRepository, never()).save(any());
+
+            projector.project();
+            projector.project();
+            ArgumentCaptor<LedgerOffset> offsets = ArgumentCaptor.forClass(LedgerOffset.class);
+            verify(offsetRepository, times(1)).save(offsets.capture());
+            JournalPosition aposPrimeiro = journal.read(journal.firstPosition(), 1).get(0).next();
+            assertEquals(aposPrimeiro.offset(), offsets.getValue().getPosicao());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bancodigital.service.pagination;
+
+import com.bancodigital.dto.response.CursorPageResponseDTO;
+import com.bancodigital.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do KeysetCursor")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Deve decodificar o cursor gerado")
+    void shouldRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000), 42L);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor adulterado")
+    void shouldRejectInvalidCursor() {
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode("nao-e-um-cursor"));
+        assertThrows(BusinessException.class, () -> KeysetCursor.limitFor(0));
+    }
+
+    @Test
+    @DisplayName("Deve devolver o próximo cursor apenas quando há mais itens")
+    void shouldEmitNextOnlyWhenMoreRows() {
+        LocalDateTime agora = LocalDateTime.of(2025, 3, 1, 10, 0);
+        Function<Long, KeysetCursor> key = id -> new KeysetCursor(agora, id);
+
+        CursorPageResponseDTO<Long> cheia = KeysetCursor.toPage(List.of(3L, 2L, 1L), 2, key, Function.identity());
+        CursorPageResponseDTO<Long> ultima = KeysetCursor.toPage(List.of(1L), 2, key, Function.identity());
+
+        assertEquals(List.of(3L, 2L), cheia.getItens());
+        assertEquals(new KeysetCursor(agora, 2L), KeysetCursor.decode(cheia.getNext()));
+        assertNull(ultima.getNext());
+    }
+}
@@ -0,0 +1,61 @@
+package com.bancodigital.service.partition;
+
+import com.bancodigital.repository.TransactionPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do TransactionPartitionMaintenance")
+class TransactionPartitionMaintenanceTest {
+
+    private TransactionPartitionRepository partitionRepository;
+
+    @BeforeEach
+    void setUp() {
+        partitionRepository = mock(TransactionPartitionRepository.class);
+    }
+
+    @Test
+    @DisplayName("Deve criar o mês corrente e os próximos com antecedência")
+    void shouldCreateMonthsAhead() {
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(partitionRepository, true, 3, 0);
+
+        maintenance.maintain(YearMonth.of(2025, 11));
+
+        verify(partitionRepository).createMonth(YearMonth.of(2025, 11));
+        verify(partitionRepository).createMonth(YearMonth.of(2026, 2));
+        verify(partitionRepository, times(4)).createMonth(any());
+        verify(partitionRepository, never()).detachMonth(any());
+    }
+
+    @Test
+    @DisplayName("Deve desanexar somente os meses anteriores à retenção")
+    void shouldDetachMonthsOlderThanRetention() {
+        when(partitionRepository.findMonths()).thenReturn(List.of(
+                YearMonth.of(2024, 9), YearMonth.of(2024, 10), YearMonth.of(2024, 11), YearMonth.of(2025, 11)));
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(partitionRepository, true, 1, 12);
+
+        maintenance.maintain(YearMonth.of(2025, 11));
+
+        verify(partitionRepository).detachMonth(YearMonth.of(2024, 9));
+        verify(partitionRepository).detachMonth(YearMonth.of(2024, 10));
+        verify(partitionRepository, times(2)).detachMonth(any());
+    }
+
+    @Test
+    @DisplayName("Não deve fazer nada quando a tabela não é particionada")
+    void shouldSkipWhenNotPartitioned() {
+        when(partitionRepository.isPartitioned()).thenReturn(false);
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(partitionRepository, true, 3, 0);
+
+        maintenance.maintain();
+
+        verify(partitionRepository, never()).createMonth(any());
+    }
+}
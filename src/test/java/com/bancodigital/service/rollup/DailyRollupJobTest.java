@@ -0,0 +1,95 @@
+package com.bancodigital.service.rollup;
+
+import com.bancodigital.repository.DailyRollupRepository;
+import com.bancodigital.service.ledger.LedgerEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do DailyRollupJob")
+class DailyRollupJobTest {
+
+    private DailyRollupRepository dailyRollupRepository;
+    private LedgerEngine ledgerEngine;
+    private DailyRollupJob job;
+
+    @BeforeEach
+    void setUp() {
+        dailyRollupRepository = mock(DailyRollupRepository.class);
+        ledgerEngine = mock(LedgerEngine.class);
+        when(ledgerEngine.oldestUnprojected()).thenReturn(Optional.empty());
+        job = new DailyRollupJob(dailyRollupRepository, ledgerEngine, true, 10, 31, 2);
+    }
+
+    @Test
+    @DisplayName("Deve consolidar a partir do checkpoint até o último dia fechado após a carência")
+    void shouldFoldClosedDaysAfterGrace() {
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 7)));
+
+        int dias = job.foldClosedDays(LocalDateTime.of(2025, 1, 10, 0, 5));
+
+        // 09/01 ainda está na carência de 10 minutos
+        assertEquals(1, dias);
+        verify(dailyRollupRepository).foldDay(LocalDate.of(2025, 1, 8));
+        verify(dailyRollupRepository, never()).foldDay(LocalDate.of(2025, 1, 9));
+    }
+
+    @Test
+    @DisplayName("Deve começar pelo primeiro lançamento quando não há checkpoint")
+    void shouldStartFromFirstTransactionDay() {
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.empty());
+        when(dailyRollupRepository.findFirstTransactionDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 1)));
+
+        int dias = job.foldClosedDays(LocalDateTime.of(2025, 3, 1, 12, 0));
+
+        assertEquals(31, dias);
+        verify(dailyRollupRepository).foldDay(LocalDate.of(2025, 1, 1));
+        verify(dailyRollupRepository, times(31)).foldDay(any());
+    }
+
+    @Test
+    @DisplayName("Deve parar no primeiro dia que falhar para retomar dele depois")
+    void shouldStopOnFailure() {
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 1)));
+        when(dailyRollupRepository.foldDay(LocalDate.of(2025, 1, 3))).thenThrow(new IllegalStateException("conflito"));
+
+        int dias = job.foldClosedDays(LocalDateTime.of(2025, 1, 10, 12, 0));
+
+        assertEquals(1, dias);
+        verify(dailyRollupRepository, never()).foldDay(LocalDate.of(2025, 1, 4));
+    }
+
+    @Test
+    @DisplayName("Deve refazer os últimos dias consolidados para incluir lançamentos atrasados")
+    void shouldRefoldTrailingDays() {
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 8)));
+
+        int dias = job.foldClosedDays(LocalDateTime.of(2025, 1, 10, 0, 5));
+
+        assertEquals(0, dias);
+        verify(dailyRollupRepository).foldDay(LocalDate.of(2025, 1, 7));
+        verify(dailyRollupRepository).foldDay(LocalDate.of(2025, 1, 8));
+        verify(dailyRollupRepository, times(2)).foldDay(any());
+    }
+
+    @Test
+    @DisplayName("Não deve consolidar dias com lançamentos do ledger ainda não projetados")
+    void shouldNotFoldPastUnprojectedLedgerEntries() {
+        when(dailyRollupRepository.findLastFoldedDay()).thenReturn(Optional.of(LocalDate.of(2025, 1, 5)));
+        when(ledgerEngine.oldestUnprojected()).thenReturn(Optional.of(LocalDateTime.of(2025, 1, 7, 23, 59)));
+
+        int dias = job.foldClosedDays(LocalDateTime.of(2025, 1, 10, 12, 0));
+
+        assertEquals(1, dias);
+        verify(dailyRollupRepository).foldDay(LocalDate.of(2025, 1, 6));
+        verify(dailyRollupRepository, never()).foldDay(LocalDate.of(2025, 1, 7));
+    }
+}
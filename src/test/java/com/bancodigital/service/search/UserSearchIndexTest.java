@@ -0,0 +1,107 @@
+package com.bancodigital.service.search;
+
+import com.bancodigital.dto.response.UserResponseDTO;
+import com.bancodigital.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do UserSearchIndex")
+class UserSearchIndexTest {
+
+    private UserRepository userRepository;
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findAllResponses()).thenReturn(new ArrayList<>(List.of(
+                user(1L, "João Silva", "12345678901", "joao.silva@email.com"),
+                user(2L, "Maria Silveira", "98765432100", "mariana@email.com"),
+                user(3L, "Silvano Costa", "11122233344", "costa@empresa.com.br"),
+                user(4L, "Ana Souza", "55566677788", "ana.silva@email.com"))));
+        index = new UserSearchIndex(userRepository, mock(PlatformTransactionManager.class), 3,
+                new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ordenar por relevância e limitar a quantidade de resultados")
+    void shouldRankAndCapResults() {
+        // Prefixo do nome antes de prefixo de palavra; empates pelo nome; no máximo max-results
+        assertEquals(List.of(3L, 4L, 1L), ids(index.search("SILV", 10)));
+        assertEquals(List.of(3L, 4L), ids(index.search("silv", 2)));
+        // Prefixo antes de trecho
+        assertEquals(List.of(4L, 2L), ids(index.search("ana", 10)));
+
+        assertEquals(List.of(1L), ids(index.search("joao silva", 10)));
+        assertEquals(List.of(1L), ids(index.search("JOÃO", 10)));
+        assertEquals(List.of(2L), ids(index.search("987.654.321-00", 10)));
+        assertEquals(List.of(2L), ids(index.search("mariana@email.com", 10)));
+        assertEquals(List.of(2L), ids(index.search("ma", 10)));
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve refletir inclusão, alteração e exclusão somente após o commit")
+    void shouldApplyWritesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.indexAfterCommit(user(5L, "Beatriz Lima", "44455566677", "bia@email.com"));
+        index.removeAfterCommit(1L);
+        assertTrue(index.search("beatriz", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("joao", 10)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(List.of(5L), ids(index.search("beatriz", 10)));
+        assertTrue(index.search("joao", 10).isEmpty());
+
+        index.indexAfterCommit(user(5L, "Beatriz Moura", "44455566677", "bia@email.com"));
+        assertTrue(index.search("lima", 10).isEmpty());
+        assertEquals(List.of(5L), ids(index.search("moura", 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Deve preservar escritas feitas durante a reconstrução")
+    void shouldKeepWritesMadeDuringRebuild() {
+        when(userRepository.findAllResponses()).thenAnswer(invocation -> {
+            List<UserResponseDTO> carregados = List.of(user(2L, "Maria Silveira", "98765432100", "mariana@email.com"));
+            index.indexAfterCommit(user(6L, "Carlos Dias", "77788899900", "carlos@email.com"));
+            return carregados;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(6L), ids(index.search("carlos", 10)));
+        assertEquals(List.of(2L), ids(index.search("maria", 10)));
+        assertTrue(index.search("joao", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<UserResponseDTO> usuarios) {
+        return usuarios.stream().map(UserResponseDTO::getId).toList();
+    }
+
+    private static UserResponseDTO user(Long id, String nome, String cpf, String email) {
+        return new UserResponseDTO(id, nome, cpf, email, "11987654321", LocalDateTime.now());
+    }
+}